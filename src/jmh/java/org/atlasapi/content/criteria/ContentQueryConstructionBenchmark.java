@@ -0,0 +1,73 @@
+package org.atlasapi.content.criteria;
+
+import static org.atlasapi.content.criteria.ContentQueryBuilder.query;
+
+import java.util.concurrent.TimeUnit;
+
+import org.atlasapi.application.v3.DefaultApplication;
+import org.atlasapi.content.criteria.attribute.Attributes;
+import org.atlasapi.media.entity.Publisher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.metabroadcast.common.query.Selection;
+
+/**
+ * Constructs queries for the default application, building a new
+ * application for each as every query once did, and sharing the memoised
+ * one, both directly from an operand set and through
+ * {@link ContentQueryBuilder}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class ContentQueryConstructionBenchmark {
+
+    private ImmutableSet<AtomicQuery> operands;
+    private Selection selection;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        operands = query()
+                .isAnEnumIn(Attributes.DESCRIPTION_PUBLISHER,
+                        ImmutableList.<Enum<Publisher>>of(Publisher.BBC, Publisher.PA))
+                .equalTo(Attributes.DESCRIPTION_GENRE, "http://www.bbc.co.uk/programmes/genres/drama")
+                .build()
+                .operands();
+        selection = new Selection(0, 10);
+    }
+
+    @Benchmark
+    public ContentQuery constructWithCreatedDefault() {
+        return new ContentQuery(operands, selection, DefaultApplication.createDefault());
+    }
+
+    @Benchmark
+    public ContentQuery constructWithSharedDefault() {
+        return new ContentQuery(operands, selection);
+    }
+
+    @Benchmark
+    public ContentQuery buildWithSharedDefault() {
+        return query()
+                .isAnEnumIn(Attributes.DESCRIPTION_PUBLISHER,
+                        ImmutableList.<Enum<Publisher>>of(Publisher.BBC, Publisher.PA))
+                .equalTo(Attributes.DESCRIPTION_GENRE, "http://www.bbc.co.uk/programmes/genres/drama")
+                .withSelection(selection)
+                .build();
+    }
+}
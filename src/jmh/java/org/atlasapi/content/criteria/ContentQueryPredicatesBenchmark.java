@@ -0,0 +1,137 @@
+package org.atlasapi.content.criteria;
+
+import static org.atlasapi.content.criteria.ContentQueryBuilder.query;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.atlasapi.content.criteria.attribute.Attributes;
+import org.atlasapi.media.entity.Brand;
+import org.atlasapi.media.entity.Content;
+import org.atlasapi.media.entity.Publisher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.common.base.Predicate;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+
+/**
+ * Filters a list of brands by publisher and tag, once with a predicate
+ * compiled by {@link ContentQueryPredicates} and once by visiting the query's
+ * operands for every brand, as callers did before it.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class ContentQueryPredicatesBenchmark {
+
+    private static final List<Publisher> PUBLISHERS
+            = ImmutableList.of(Publisher.BBC, Publisher.PA, Publisher.C4, Publisher.ITV);
+    private static final List<String> TAGS = ImmutableList.of("news", "sport", "drama", "comedy", "film");
+
+    @Param({"1000", "10000", "100000"})
+    public int size;
+
+    private ContentQuery query;
+    private Predicate<Content> compiled;
+    private List<Content> candidates;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        query = query()
+                .isAnEnumIn(Attributes.DESCRIPTION_PUBLISHER,
+                        ImmutableList.<Enum<Publisher>>of(Publisher.BBC, Publisher.PA))
+                .equalTo(Attributes.DESCRIPTION_TAG, "news", "sport")
+                .build();
+        compiled = ContentQueryPredicates.compile(query);
+        candidates = Lists.newArrayListWithCapacity(size);
+        for (int i = 0; i < size; i++) {
+            Brand brand = new Brand("brand" + i, "brand" + i, PUBLISHERS.get(i % PUBLISHERS.size()));
+            brand.setTags(ImmutableSet.of(TAGS.get(i % TAGS.size()), TAGS.get((i / 2) % TAGS.size())));
+            candidates.add(brand);
+        }
+    }
+
+    @Benchmark
+    public int compiled() {
+        int matches = 0;
+        for (Content candidate : candidates) {
+            if (compiled.apply(candidate)) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+
+    @Benchmark
+    public int visited() {
+        int matches = 0;
+        for (Content candidate : candidates) {
+            if (!query.accept(new MatchingVisitor(candidate)).contains(Boolean.FALSE)) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+
+    /* the per-content evaluation the compiled predicate replaces, limited to
+     * the attributes and operators the query above uses. */
+    private static final class MatchingVisitor extends QueryVisitorAdapter<Boolean> {
+
+        private final Content content;
+
+        MatchingVisitor(Content content) {
+            this.content = content;
+        }
+
+        @Override
+        public Boolean visit(EnumAttributeQuery<?> query) {
+            return query.getValue().contains(valueOf(query));
+        }
+
+        @Override
+        public Boolean visit(StringAttributeQuery query) {
+            Object value = valueOf(query);
+            if (value instanceof Collection) {
+                for (Object element : (Collection<?>) value) {
+                    if (query.getValue().contains(element)) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+            return query.getValue().contains(value);
+        }
+
+        private Object valueOf(AttributeQuery<?> query) {
+            if (Attributes.DESCRIPTION_PUBLISHER.equals(query.getAttribute())) {
+                return content.getPublisher();
+            }
+            if (Attributes.DESCRIPTION_TAG.equals(query.getAttribute())) {
+                return content.getTags();
+            }
+            throw new IllegalArgumentException(query.getAttributeName());
+        }
+
+        @Override
+        protected Boolean defaultValue(AtomicQuery query) {
+            throw new IllegalArgumentException(query.toString());
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package org.atlasapi.equiv;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.metabroadcast.applications.client.model.internal.Application;
+import org.atlasapi.application.v3.DefaultApplication;
+import org.atlasapi.media.entity.Broadcast;
+import org.atlasapi.media.entity.Item;
+import org.atlasapi.media.entity.Publisher;
+import org.atlasapi.media.entity.Version;
+import org.joda.time.DateTime;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.metabroadcast.common.time.DateTimeZones;
+
+/**
+ * Merges an item with equivalents from other publishers, every item carrying
+ * the same run of broadcasts of a long series, so each of the chosen item's
+ * broadcasts is matched against the others'.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class BroadcastMergingBenchmark {
+
+    private static final List<Publisher> PUBLISHERS
+            = ImmutableList.of(Publisher.BBC, Publisher.PA, Publisher.RADIO_TIMES, Publisher.YOUVIEW);
+    private static final List<String> CHANNELS = ImmutableList.of(
+            "http://www.bbc.co.uk/services/bbcone", "http://www.bbc.co.uk/services/bbctwo");
+    private static final DateTime START = new DateTime(2016, 1, 1, 20, 0, 0, 0, DateTimeZones.UTC);
+
+    @Param({"100", "1000", "5000"})
+    public int broadcasts;
+
+    private final OutputContentMerger merger = new OutputContentMerger();
+    private Application application;
+    private List<Item> items;
+
+    @Setup(Level.Trial)
+    public void setUpApplication() {
+        application = DefaultApplication.createWithReads(PUBLISHERS);
+    }
+
+    /* merging adds broadcasts to the chosen item, so each merge is given new items. */
+    @Setup(Level.Invocation)
+    public void setUpItems() {
+        items = Lists.newArrayListWithCapacity(PUBLISHERS.size());
+        for (int i = 0; i < PUBLISHERS.size(); i++) {
+            Item item = new Item("item" + i, "item" + i, PUBLISHERS.get(i));
+            item.setId((long) i);
+            Version version = new Version();
+            for (int b = 0; b < broadcasts; b++) {
+                DateTime start = START.plusHours(b);
+                version.addBroadcast(new Broadcast(CHANNELS.get(b % CHANNELS.size()), start, start.plusMinutes(30)));
+            }
+            item.addVersion(version);
+            items.add(item);
+        }
+        for (Item item : items) {
+            for (Item other : items) {
+                if (item != other) {
+                    item.addEquivalentTo(other);
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public List<Item> merge() {
+        return merger.merge(application, items);
+    }
+}
@@ -0,0 +1,82 @@
+package org.atlasapi.equiv;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.metabroadcast.applications.client.model.internal.Application;
+import org.atlasapi.application.v3.DefaultApplication;
+import org.atlasapi.media.entity.Item;
+import org.atlasapi.media.entity.LookupRef;
+import org.atlasapi.media.entity.Publisher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
+
+/**
+ * Merges lists of items in equivalent sets of ten, each item equivalent to
+ * every other in its set, across list sizes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class OutputContentMergerBenchmark {
+
+    private static final int EQUIVALENT_SET_SIZE = 10;
+
+    @Param({"10", "100", "1000", "10000"})
+    public int size;
+
+    private final OutputContentMerger merger = new OutputContentMerger();
+    private Application application;
+    private List<Publisher> publishers;
+    private List<Item> items;
+
+    @Setup(Level.Trial)
+    public void setUpApplication() {
+        publishers = ImmutableList.copyOf(Iterables.limit(Publisher.all(), EQUIVALENT_SET_SIZE));
+        application = DefaultApplication.createWithReads(publishers);
+    }
+
+    /* merging changes the items, so each merge is given new ones. */
+    @Setup(Level.Invocation)
+    public void setUpItems() {
+        items = Lists.newArrayListWithCapacity(size);
+        for (int i = 0; i < size; i++) {
+            Item item = new Item("item" + i, "item" + i, publishers.get(i % EQUIVALENT_SET_SIZE));
+            item.setId((long) i);
+            items.add(item);
+        }
+        for (int start = 0; start < size; start += EQUIVALENT_SET_SIZE) {
+            List<Item> equivalents = items.subList(start, Math.min(size, start + EQUIVALENT_SET_SIZE));
+            ImmutableSet.Builder<LookupRef> refs = ImmutableSet.builder();
+            for (Item item : equivalents) {
+                refs.add(LookupRef.from(item));
+            }
+            for (Item item : equivalents) {
+                item.setEquivalentTo(refs.build());
+            }
+        }
+    }
+
+    @Benchmark
+    public List<Item> merge() {
+        return merger.merge(application, items);
+    }
+}
@@ -0,0 +1,91 @@
+package org.atlasapi.media.entity;
+
+import java.util.concurrent.TimeUnit;
+
+import org.joda.time.DateTime;
+import org.joda.time.Duration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.metabroadcast.common.time.DateTimeZones;
+
+/**
+ * Copies an episode with aliases, equivalents and versions of broadcasts, as
+ * the merging and output pipelines do, and copies one then adds an alias to
+ * the copy, which takes a private copy of its aliases. Run it with
+ * {@code -prof gc} to report the bytes allocated by each copy.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class ContentCopyBenchmark {
+
+    private static final DateTime START = new DateTime(2016, 1, 1, 20, 0, 0, 0, DateTimeZones.UTC);
+
+    @Param({"5", "50"})
+    public int references;
+
+    private Episode episode;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        episode = new Episode("http://www.bbc.co.uk/programmes/b07fk6hz", "bbc:b07fk6hz", Publisher.BBC);
+        episode.setId(1L);
+        episode.setTitle("Episode 5221");
+        episode.setGenres(ImmutableList.of("http://www.bbc.co.uk/programmes/genres/drama"));
+        episode.setTags(ImmutableSet.of("soap", "london"));
+        episode.setContainer(new Brand("http://www.bbc.co.uk/programmes/b006m86d", "bbc:b006m86d", Publisher.BBC));
+        episode.setEpisodeNumber(5221);
+        episode.setLastUpdated(START);
+
+        ImmutableList.Builder<Alias> aliases = ImmutableList.builder();
+        for (int i = 0; i < references; i++) {
+            aliases.add(new Alias("namespace" + i, "b07fk6hz"));
+            episode.addEquivalentTo(new Episode("equivalent" + i, "equivalent" + i, Publisher.all().asList().get(i)));
+        }
+        episode.setAliases(aliases.build());
+
+        for (int v = 0; v < 2; v++) {
+            Version version = new Version();
+            version.setDuration(Duration.standardMinutes(30));
+            for (int b = 0; b < references; b++) {
+                DateTime start = START.plusDays(b).plusHours(v);
+                version.addBroadcast(new Broadcast("http://www.bbc.co.uk/services/bbcone/london",
+                        start, start.plusMinutes(30)));
+            }
+            episode.addVersion(version);
+        }
+    }
+
+    @Benchmark
+    public Episode copy() {
+        return episode.copy();
+    }
+
+    @Benchmark
+    public Item copyViaFunction() {
+        return Item.COPY.apply(episode);
+    }
+
+    @Benchmark
+    public Episode copyAndAddAlias() {
+        Episode copy = episode.copy();
+        copy.addAlias(new Alias("namespace", "b07fk6hz"));
+        return copy;
+    }
+}
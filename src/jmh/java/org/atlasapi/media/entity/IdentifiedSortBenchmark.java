@@ -0,0 +1,101 @@
+package org.atlasapi.media.entity;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.primitives.Ints;
+
+/**
+ * Sorts items into the order of a shuffled list of uris, a third of them
+ * requested by canonical uri, a third by alias and a third by curie, with
+ * {@link Identified#sort(List, Iterable)} and with the comparator searching
+ * the order for every uri that it replaced.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class IdentifiedSortBenchmark {
+
+    @Param({"1000", "10000"})
+    public int size;
+
+    private List<Item> items;
+    private List<String> order;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(size);
+        items = Lists.newArrayListWithCapacity(size);
+        order = Lists.newArrayListWithCapacity(size);
+        for (int i = 0; i < size; i++) {
+            Item item = new Item("http://example.com/items/" + i, "example:" + i, Publisher.BBC);
+            item.addAliasUrl("http://example.com/aliases/" + i);
+            items.add(item);
+            switch (i % 3) {
+            case 0:
+                order.add(item.getCanonicalUri());
+                break;
+            case 1:
+                order.add("http://example.com/aliases/" + i);
+                break;
+            default:
+                order.add(item.getCurie());
+            }
+        }
+        Collections.shuffle(order, random);
+        Collections.shuffle(items, random);
+    }
+
+    @Benchmark
+    public List<Item> sort() {
+        return Identified.sort(items, order);
+    }
+
+    @Benchmark
+    public List<Item> sortBySearchingOrder() {
+        final ImmutableList<String> searched = ImmutableList.copyOf(order);
+        List<Item> sorted = Lists.newArrayList(items);
+        Collections.sort(sorted, new Comparator<Identified>() {
+
+            @Override
+            public int compare(Identified c1, Identified c2) {
+                return Ints.compare(indexOf(c1), indexOf(c2));
+            }
+
+            private int indexOf(Identified content) {
+                for (String uri : content.getAllUris()) {
+                    int idx = searched.indexOf(uri);
+                    if (idx != -1) {
+                        return idx;
+                    }
+                }
+                if (content.getCurie() != null) {
+                    return searched.indexOf(content.getCurie());
+                }
+                return -1;
+            }
+        });
+        return sorted;
+    }
+}
@@ -0,0 +1,125 @@
+package org.atlasapi.search;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.atlasapi.media.entity.Brand;
+import org.atlasapi.media.entity.Publisher;
+import org.atlasapi.search.model.SearchQuery;
+import org.atlasapi.search.model.SearchResults;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.metabroadcast.common.ids.SubstitutionTableNumberCodec;
+
+/**
+ * Searches brands with titles of random words from a small vocabulary, by
+ * whole words and by prefixes, from several threads at once, and reindexes
+ * brands while searching. Reports throughput and sampled latencies.
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Threads(4)
+public class InMemoryContentSearcherBenchmark {
+
+    private static final List<String> WORDS = ImmutableList.of(
+            "doctor", "who", "news", "night", "football", "focus", "question", "time",
+            "gardeners", "world", "east", "enders", "coronation", "street", "top", "gear",
+            "great", "british", "bake", "off", "strictly", "come", "dancing", "match",
+            "day", "blue", "planet", "life", "story", "panorama", "horizon", "antiques");
+    private static final List<Publisher> PUBLISHERS
+            = ImmutableList.of(Publisher.BBC, Publisher.PA, Publisher.C4, Publisher.ITV);
+
+    @State(Scope.Benchmark)
+    public static class Index {
+
+        @Param({"10000", "100000"})
+        public int documents;
+
+        InMemoryContentSearcher searcher;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            searcher = new InMemoryContentSearcher(SubstitutionTableNumberCodec.lowerCaseOnly());
+            Random random = new Random(documents);
+            for (int i = 0; i < documents; i++) {
+                searcher.index(brand(i, random));
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Queries {
+
+        private final Random random = new Random();
+        private final List<SearchQuery> words = Lists.newArrayList();
+        private final List<SearchQuery> prefixes = Lists.newArrayList();
+        private int next;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            for (String word : WORDS) {
+                words.add(query(word + " " + WORDS.get(random.nextInt(WORDS.size()))));
+                prefixes.add(query(word.substring(0, 3)));
+            }
+        }
+
+        private SearchQuery query(String term) {
+            return SearchQuery.builder(term)
+                    .withPublishers(PUBLISHERS)
+                    .withTitleWeighting(1)
+                    .withBroadcastWeighting(0.2f)
+                    .withCatchupWeighting(0.1f)
+                    .build();
+        }
+
+        SearchQuery next(List<SearchQuery> queries) {
+            next = (next + 1) % queries.size();
+            return queries.get(next);
+        }
+    }
+
+    @Benchmark
+    public SearchResults searchWords(Index index, Queries queries) {
+        return index.searcher.search(queries.next(queries.words));
+    }
+
+    @Benchmark
+    public SearchResults searchPrefixes(Index index, Queries queries) {
+        return index.searcher.search(queries.next(queries.prefixes));
+    }
+
+    @Benchmark
+    public void reindex(Index index, Queries queries) {
+        index.searcher.index(brand(queries.random.nextInt(index.documents), queries.random));
+    }
+
+    private static Brand brand(int i, Random random) {
+        Brand brand = new Brand("brand" + i, "brand" + i, PUBLISHERS.get(i % PUBLISHERS.size()));
+        brand.setId((long) i + 1);
+        int words = 1 + random.nextInt(4);
+        StringBuilder title = new StringBuilder();
+        for (int w = 0; w < words; w++) {
+            title.append(w == 0 ? "" : " ").append(WORDS.get(random.nextInt(WORDS.size())));
+        }
+        brand.setTitle(title.toString());
+        return brand;
+    }
+}
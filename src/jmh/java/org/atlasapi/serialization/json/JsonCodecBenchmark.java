@@ -0,0 +1,131 @@
+package org.atlasapi.serialization.json;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.atlasapi.media.entity.Alias;
+import org.atlasapi.media.entity.Brand;
+import org.atlasapi.media.entity.Broadcast;
+import org.atlasapi.media.entity.Content;
+import org.atlasapi.media.entity.Described;
+import org.atlasapi.media.entity.Episode;
+import org.atlasapi.media.entity.Publisher;
+import org.atlasapi.media.entity.Series;
+import org.atlasapi.media.entity.Version;
+import org.atlasapi.serialization.json.JsonCodec.Format;
+import org.joda.time.DateTime;
+import org.joda.time.Duration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.metabroadcast.common.time.DateTimeZones;
+
+/**
+ * Encodes and decodes a brand and an episode of it, with a version carrying a
+ * run of broadcasts, as JSON and as Smile.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class JsonCodecBenchmark {
+
+    private static final DateTime START = new DateTime(2016, 1, 1, 20, 0, 0, 0, DateTimeZones.UTC);
+
+    public enum Payload {
+        BRAND,
+        EPISODE
+    }
+
+    @Param({"JSON", "SMILE"})
+    public Format format;
+
+    @Param({"BRAND", "EPISODE"})
+    public Payload payload;
+
+    @Param({"10", "100"})
+    public int broadcasts;
+
+    private JsonCodec<Content> codec;
+    private Content content;
+    private byte[] encoded;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        codec = JsonCodec.create(Content.class, format);
+        Brand brand = brand();
+        content = payload == Payload.BRAND ? brand : episode(brand);
+        encoded = codec.encode(content);
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        return codec.encode(content);
+    }
+
+    @Benchmark
+    public Content decode() throws IOException {
+        return codec.decode(encoded);
+    }
+
+    @Benchmark
+    public Content roundTrip() throws IOException {
+        return codec.decode(codec.encode(content));
+    }
+
+    private Brand brand() {
+        Brand brand = new Brand("http://www.bbc.co.uk/programmes/b006m86d", "bbc:b006m86d", Publisher.BBC);
+        brand.setId(1L);
+        describe(brand, "EastEnders");
+        brand.addEquivalentTo(new Brand("http://pressassociation.com/brands/5", "pa:5", Publisher.PA));
+        brand.addEquivalentTo(new Brand("http://radiotimes.com/brands/6", "rt:6", Publisher.RADIO_TIMES));
+        return brand;
+    }
+
+    private Episode episode(Brand brand) {
+        Episode episode = new Episode("http://www.bbc.co.uk/programmes/b07fk6hz", "bbc:b07fk6hz", Publisher.BBC);
+        episode.setId(2L);
+        describe(episode, "Episode 5221");
+        episode.setContainer(brand);
+        Series series = new Series("http://www.bbc.co.uk/programmes/p0360npn", "bbc:p0360npn", Publisher.BBC);
+        series.setId(3L);
+        episode.setSeries(series);
+        episode.setSeriesNumber(32);
+        episode.setEpisodeNumber(5221);
+        Version version = new Version();
+        version.setDuration(Duration.standardMinutes(30));
+        for (int i = 0; i < broadcasts; i++) {
+            DateTime start = START.plusDays(i);
+            version.addBroadcast(new Broadcast("http://www.bbc.co.uk/services/bbcone/london",
+                    start, start.plusMinutes(30)));
+        }
+        episode.addVersion(version);
+        return episode;
+    }
+
+    private void describe(Described described, String title) {
+        described.setTitle(title);
+        described.setDescription("Drama set in the East End of London.");
+        described.setImage("http://ichef.bbci.co.uk/images/ic/1920x1080/p01vx4nh.jpg");
+        described.setGenres(ImmutableList.of(
+                "http://www.bbc.co.uk/programmes/genres/drama",
+                "http://www.bbc.co.uk/programmes/genres/drama/soaps"));
+        described.setTags(ImmutableSet.of("soap", "london"));
+        described.setAliases(ImmutableList.of(new Alias("bbc:pid", described.getCurie())));
+        described.setLastUpdated(START);
+    }
+}
@@ -0,0 +1,134 @@
+package org.atlasapi.util;
+
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * Compares {@link GroupLock} with {@link StripedGroupLock} under contention:
+ * sixteen threads lock random ids, or sets of three ids, from a pool, hold
+ * them for a little work and unlock them. The fewer the ids, the more
+ * threads wait for each other.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Threads(16)
+public class GroupLockBenchmark {
+
+    private static final int WORK = 100;
+
+    @Param({"GroupLock", "StripedGroupLock"})
+    public String implementation;
+
+    @Param({"4", "64", "4096"})
+    public int ids;
+
+    private IdLock lock;
+
+    @Setup
+    public void setUp() {
+        if (implementation.equals("GroupLock")) {
+            final GroupLock<Integer> lock = GroupLock.natural();
+            this.lock = new IdLock() {
+
+                @Override
+                public void lock(Integer id) throws InterruptedException {
+                    lock.lock(id);
+                }
+
+                @Override
+                public void unlock(Integer id) {
+                    lock.unlock(id);
+                }
+
+                @Override
+                public void lock(Set<Integer> ids) throws InterruptedException {
+                    lock.lock(ids);
+                }
+
+                @Override
+                public void unlock(Set<Integer> ids) {
+                    lock.unlock(ids);
+                }
+            };
+        } else {
+            final StripedGroupLock<Integer> lock = StripedGroupLock.natural();
+            this.lock = new IdLock() {
+
+                @Override
+                public void lock(Integer id) throws InterruptedException {
+                    lock.lock(id);
+                }
+
+                @Override
+                public void unlock(Integer id) {
+                    lock.unlock(id);
+                }
+
+                @Override
+                public void lock(Set<Integer> ids) throws InterruptedException {
+                    lock.lock(ids);
+                }
+
+                @Override
+                public void unlock(Set<Integer> ids) {
+                    lock.unlock(ids);
+                }
+            };
+        }
+    }
+
+    @Benchmark
+    public void lockOne() throws InterruptedException {
+        Integer id = ThreadLocalRandom.current().nextInt(ids);
+        lock.lock(id);
+        try {
+            Blackhole.consumeCPU(WORK);
+        } finally {
+            lock.unlock(id);
+        }
+    }
+
+    @Benchmark
+    public void lockThree() throws InterruptedException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Set<Integer> group = ImmutableSet.of(random.nextInt(ids), random.nextInt(ids), random.nextInt(ids));
+        lock.lock(group);
+        try {
+            Blackhole.consumeCPU(WORK);
+        } finally {
+            lock.unlock(group);
+        }
+    }
+
+    private interface IdLock {
+
+        void lock(Integer id) throws InterruptedException;
+
+        void unlock(Integer id);
+
+        void lock(Set<Integer> ids) throws InterruptedException;
+
+        void unlock(Set<Integer> ids);
+    }
+}
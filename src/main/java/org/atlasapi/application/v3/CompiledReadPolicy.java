@@ -0,0 +1,148 @@
+package org.atlasapi.application.v3;
+
+import com.google.common.base.Objects;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.collect.ImmutableList;
+import com.metabroadcast.applications.client.model.internal.Application;
+import com.metabroadcast.applications.client.model.internal.ApplicationConfiguration;
+import org.atlasapi.media.entity.Publisher;
+import org.atlasapi.media.entity.PublisherPrecedence;
+
+import java.util.Set;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * The parts of an application's configuration which decide what it may read
+ * and how equivalent content is merged for it, derived once so per-item
+ * checks and comparisons are lookups by publisher ordinal.
+ * <p>
+ * Policies are cached per {@link ApplicationConfiguration} instance, so an
+ * application reloaded with a changed configuration gets a new policy. Two
+ * policies are equal if they make the same decisions.
+ */
+public final class CompiledReadPolicy {
+
+    private static final PublisherPrecedence NO_PRECEDENCE
+            = PublisherPrecedence.of(ImmutableList.<Publisher>of());
+
+    private static final LoadingCache<ApplicationConfiguration, CompiledReadPolicy> POLICIES
+            = CacheBuilder.newBuilder()
+                .weakKeys()
+                .build(new CacheLoader<ApplicationConfiguration, CompiledReadPolicy>() {
+                    @Override
+                    public CompiledReadPolicy load(ApplicationConfiguration configuration) {
+                        return compile(configuration);
+                    }
+                });
+
+    /**
+     * The policy of {@code application}'s current configuration.
+     */
+    public static CompiledReadPolicy forApplication(Application application) {
+        return POLICIES.getUnchecked(application.getConfiguration());
+    }
+
+    public static CompiledReadPolicy compile(ApplicationConfiguration configuration) {
+        checkNotNull(configuration);
+        Set<Publisher> enabled = configuration.getEnabledReadSources();
+        return new CompiledReadPolicy(
+                configuration.isPrecedenceEnabled(),
+                PublisherPrecedence.of(configuration.getReadPrecedenceOrdering().sortedCopy(enabled)),
+                configuration.isImagePrecedenceEnabled()
+                        ? PublisherPrecedence.ranking(configuration.getImageReadPrecedenceOrdering())
+                        : null,
+                configuration.isPeoplePrecedenceEnabled()
+                        ? PublisherPrecedence.ranking(configuration.getPeopleReadPrecedenceOrdering())
+                        : null
+        );
+    }
+
+    private final boolean precedenceEnabled;
+    private final PublisherPrecedence readPrecedence;
+    private final PublisherPrecedence imagePrecedence;
+    private final PublisherPrecedence peoplePrecedence;
+
+    private CompiledReadPolicy(
+            boolean precedenceEnabled,
+            PublisherPrecedence readPrecedence,
+            PublisherPrecedence imagePrecedence,
+            PublisherPrecedence peoplePrecedence
+    ) {
+        this.precedenceEnabled = precedenceEnabled;
+        this.readPrecedence = readPrecedence;
+        this.imagePrecedence = imagePrecedence;
+        this.peoplePrecedence = peoplePrecedence;
+    }
+
+    public boolean isReadEnabled(Publisher publisher) {
+        return readPrecedence.contains(publisher);
+    }
+
+    public boolean isPrecedenceEnabled() {
+        return precedenceEnabled;
+    }
+
+    /**
+     * The enabled read sources, in read precedence order.
+     */
+    public PublisherPrecedence readPrecedence() {
+        return readPrecedence;
+    }
+
+    public boolean isImagePrecedenceEnabled() {
+        return imagePrecedence != null;
+    }
+
+    /**
+     * Every publisher the image precedence ordering ranks, whether or not it
+     * is read-enabled. Empty if image precedence is not enabled.
+     */
+    public PublisherPrecedence imagePrecedence() {
+        return imagePrecedence == null ? NO_PRECEDENCE : imagePrecedence;
+    }
+
+    public boolean isPeoplePrecedenceEnabled() {
+        return peoplePrecedence != null;
+    }
+
+    /**
+     * Every publisher the people precedence ordering ranks, whether or not it
+     * is read-enabled. Empty if people precedence is not enabled.
+     */
+    public PublisherPrecedence peoplePrecedence() {
+        return peoplePrecedence == null ? NO_PRECEDENCE : peoplePrecedence;
+    }
+
+    @Override
+    public boolean equals(Object that) {
+        if (this == that) {
+            return true;
+        }
+        if (that instanceof CompiledReadPolicy) {
+            CompiledReadPolicy other = (CompiledReadPolicy) that;
+            return precedenceEnabled == other.precedenceEnabled
+                    && readPrecedence.equals(other.readPrecedence)
+                    && Objects.equal(imagePrecedence, other.imagePrecedence)
+                    && Objects.equal(peoplePrecedence, other.peoplePrecedence);
+        }
+        return false;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(precedenceEnabled, readPrecedence, imagePrecedence, peoplePrecedence);
+    }
+
+    @Override
+    public String toString() {
+        return Objects.toStringHelper(this)
+                .add("precedenceEnabled", precedenceEnabled)
+                .add("readPrecedence", readPrecedence)
+                .add("imagePrecedence", imagePrecedence)
+                .add("peoplePrecedence", peoplePrecedence)
+                .toString();
+    }
+}
@@ -19,8 +19,47 @@ import static com.google.common.base.Preconditions.checkNotNull;
 
 public class DefaultApplication {
 
-    private static final Environment APP_CLIENT_ENV = Environment.parse(checkNotNull(Configurer.get("applications.client.env").get()));
+    private static volatile Application defaultApplication;
 
+    /**
+     * The default application, shared between callers. It is built on first
+     * use and kept until {@link #refreshDefault()} is called.
+     * <p>
+     * It is derived from the {@link Publisher}s enabled with no api key, which
+     * are fixed, and the {@code applications.client.env} property. Nothing in
+     * this library calls {@link #refreshDefault()}: a host which changes that
+     * property while running must call it after doing so.
+     */
+    public static Application getDefault() {
+        Application current = defaultApplication;
+        if (current == null) {
+            synchronized (DefaultApplication.class) {
+                current = defaultApplication;
+                if (current == null) {
+                    current = createDefault();
+                    defaultApplication = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Rebuilds the shared default application, reading the
+     * {@code applications.client.env} property again.
+     */
+    public static Application refreshDefault() {
+        synchronized (DefaultApplication.class) {
+            Application current = createDefault();
+            defaultApplication = current;
+            return current;
+        }
+    }
+
+    /**
+     * Builds a new default application. Prefer {@link #getDefault()} unless a
+     * distinct instance is needed.
+     */
     public static Application createDefault() {
         return createInternal(
                 getDefaultPublishers()
@@ -46,7 +85,7 @@ public class DefaultApplication {
                 .withId(-1L)
                 .withTitle("defaultApplication")
                 .withDescription("Default application")
-                .withEnvironment(APP_CLIENT_ENV)
+                .withEnvironment(environment())
                 .withCreated(ZonedDateTime.now())
                 .withApiKey("default")
                 .withSources(configWithPrecedence(reads, ImmutableList.of()))
@@ -61,6 +100,10 @@ public class DefaultApplication {
                 .build();
     }
 
+    private static Environment environment() {
+        return Environment.parse(checkNotNull(Configurer.get("applications.client.env").get()));
+    }
+
     private static ApplicationConfiguration configWithPrecedence(
             List<Publisher> reads,
             List<Publisher> writes
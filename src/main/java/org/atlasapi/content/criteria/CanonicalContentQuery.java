@@ -0,0 +1,191 @@
+package org.atlasapi.content.criteria;
+
+import java.util.Set;
+
+import com.metabroadcast.applications.client.model.internal.Application;
+import com.metabroadcast.common.query.Selection;
+import org.atlasapi.application.v3.CompiledReadPolicy;
+import org.atlasapi.content.criteria.attribute.Attribute;
+import org.atlasapi.content.criteria.attribute.Attributes;
+import org.atlasapi.media.entity.Publisher;
+import org.atlasapi.output.Annotation;
+
+import com.google.common.base.Objects;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
+
+/**
+ * An immutable snapshot of every field of a {@link ContentQuery}, with facts
+ * derived from its operands computed once. Equal queries have equal canonical
+ * forms, so this is safe to key query plan and result caches on.
+ * <p>
+ * The hash code is computed from attribute and operator names, enum constant
+ * names and operand values only, so it is stable between runs. It covers the
+ * operands, soft constraints and annotations; the selection and application
+ * take part in equality only.
+ * <p>
+ * Applications are compared by id and {@link CompiledReadPolicy read policy}
+ * rather than by instance, so queries built with separately created copies of
+ * the same application, such as the default application, are equal.
+ */
+public final class CanonicalContentQuery {
+
+    private final ImmutableSet<AtomicQuery> operands;
+    private final ImmutableSet<AtomicQuery> softConstraints;
+    private final ImmutableSet<Annotation> annotations;
+    private final Selection selection;
+    private final Application application;
+    private final Long applicationId;
+    private final CompiledReadPolicy readPolicy;
+
+    private final ImmutableSet<Publisher> includedPublishers;
+    private final ImmutableSet<Attribute<?>> attributes;
+    private final boolean matchesNothing;
+    private final int hash;
+
+    CanonicalContentQuery(ImmutableSet<AtomicQuery> operands, ImmutableSet<AtomicQuery> softConstraints,
+            Set<Annotation> annotations, Selection selection, Application application) {
+        this.operands = operands;
+        this.softConstraints = softConstraints;
+        this.annotations = Sets.immutableEnumSet(annotations);
+        this.selection = selection;
+        this.application = application;
+        this.applicationId = application == null ? null : application.getId();
+        this.readPolicy = application == null || application.getConfiguration() == null
+                ? null
+                : CompiledReadPolicy.forApplication(application);
+
+        ImmutableSet.Builder<Publisher> publishers = ImmutableSet.builder();
+        ImmutableSet.Builder<Attribute<?>> attributes = ImmutableSet.builder();
+        boolean matchesNothing = false;
+        for (AtomicQuery operand : operands) {
+            if (operand instanceof MatchesNothing) {
+                matchesNothing = true;
+            } else if (operand instanceof AttributeQuery) {
+                AttributeQuery<?> query = (AttributeQuery<?>) operand;
+                attributes.add(query.getAttribute());
+                if (Attributes.DESCRIPTION_PUBLISHER.equals(query.getAttribute())) {
+                    for (Object value : query.getValue()) {
+                        publishers.add((Publisher) value);
+                    }
+                }
+            }
+        }
+        for (AtomicQuery operand : softConstraints) {
+            if (operand instanceof AttributeQuery) {
+                attributes.add(((AttributeQuery<?>) operand).getAttribute());
+            }
+        }
+        this.includedPublishers = publishers.build();
+        this.attributes = attributes.build();
+        this.matchesNothing = matchesNothing;
+        this.hash = stableHash(operands, softConstraints, this.annotations);
+    }
+
+    private static int stableHash(Set<AtomicQuery> operands, Set<AtomicQuery> softConstraints,
+            Set<Annotation> annotations) {
+        int hash = stableHash(operands);
+        hash = 31 * hash + stableHash(softConstraints);
+        int annotationsHash = 0;
+        for (Annotation annotation : annotations) {
+            annotationsHash += annotation.name().hashCode();
+        }
+        return 31 * hash + annotationsHash;
+    }
+
+    /* order independent, as the operands are a set. */
+    private static int stableHash(Set<AtomicQuery> operands) {
+        int hash = 0;
+        for (AtomicQuery operand : operands) {
+            hash += stableHash(operand);
+        }
+        return hash;
+    }
+
+    private static int stableHash(AtomicQuery operand) {
+        if (!(operand instanceof AttributeQuery)) {
+            return operand.getClass().getName().hashCode();
+        }
+        AttributeQuery<?> query = (AttributeQuery<?>) operand;
+        int hash = query.getAttributeName().hashCode();
+        hash = 31 * hash + query.getOperator().name().hashCode();
+        for (Object value : query.getValue()) {
+            hash = 31 * hash + (value instanceof Enum ? ((Enum<?>) value).name().hashCode() : value.hashCode());
+        }
+        return hash;
+    }
+
+    public ImmutableSet<AtomicQuery> operands() {
+        return operands;
+    }
+
+    public ImmutableSet<AtomicQuery> softConstraints() {
+        return softConstraints;
+    }
+
+    public ImmutableSet<Annotation> annotations() {
+        return annotations;
+    }
+
+    public Selection selection() {
+        return selection;
+    }
+
+    public Application application() {
+        return application;
+    }
+
+    /**
+     * The publishers explicitly requested by the query's operands.
+     */
+    public ImmutableSet<Publisher> includedPublishers() {
+        return includedPublishers;
+    }
+
+    /**
+     * The attributes constrained by the query's operands and soft constraints.
+     */
+    public ImmutableSet<Attribute<?>> attributes() {
+        return attributes;
+    }
+
+    /**
+     * Whether the query contains {@link MatchesNothing}.
+     */
+    public boolean matchesNothing() {
+        return matchesNothing;
+    }
+
+    @Override
+    public boolean equals(Object that) {
+        if (this == that) {
+            return true;
+        }
+        if (that instanceof CanonicalContentQuery) {
+            CanonicalContentQuery other = (CanonicalContentQuery) that;
+            return hash == other.hash
+                && operands.equals(other.operands)
+                && softConstraints.equals(other.softConstraints)
+                && annotations.equals(other.annotations)
+                && Objects.equal(selection, other.selection)
+                && Objects.equal(applicationId, other.applicationId)
+                && Objects.equal(readPolicy, other.readPolicy);
+        }
+        return false;
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return Objects.toStringHelper(this)
+                .add("operands", operands)
+                .add("softConstraints", softConstraints)
+                .add("annotations", annotations)
+                .add("selection", selection)
+                .toString();
+    }
+}
@@ -19,11 +19,10 @@ import java.util.HashSet;
 import java.util.List;
 
 import com.metabroadcast.applications.client.model.internal.Application;
+import org.atlasapi.application.v3.CompiledReadPolicy;
 import org.atlasapi.application.v3.DefaultApplication;
-import org.atlasapi.content.criteria.attribute.Attributes;
 import org.atlasapi.media.entity.Publisher;
 
-import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
@@ -33,42 +32,56 @@ import org.atlasapi.output.Annotation;
 
 public class ContentQuery {
 
-    private ImmutableSet<Annotation> annotations;
+    private final ImmutableSet<Annotation> annotations;
     
-	private ImmutableSet<AtomicQuery> operands;
+	private final ImmutableSet<AtomicQuery> operands;
 	
 	/*
 	 * Added by ApplicationConfigurationQueryExecutor to describe restrictions which don't apply if the restricted attribute is not set.
 	 * e.g. versions = [] || ∃version s.t. constraint holds.
+	 * Set only on construction, as they take part in equals and hashCode.
 	 */
-	private ImmutableSet<AtomicQuery> softConstraints;
+	private final ImmutableSet<AtomicQuery> softConstraints;
 
 	private final Selection selection;
 
 	private final Application application;
+
+	private volatile CanonicalContentQuery canonical;
+	private volatile String toString;
     	
 	public ContentQuery(AtomicQuery operand) {
-		this(ImmutableList.of(operand), Selection.ALL);
+		this(ImmutableSet.of(operand), Selection.ALL);
 	}
 	
 	public ContentQuery(Iterable<AtomicQuery> operands) {
-		this(operands, Selection.ALL, DefaultApplication.createDefault());
+		this(operands, Selection.ALL, DefaultApplication.getDefault());
 	}
 	
 	public ContentQuery(Iterable<AtomicQuery> operands, Selection selection) {
-		this(operands, selection, DefaultApplication.createDefault());
+		this(operands, selection, DefaultApplication.getDefault());
 	}
     
     public ContentQuery(Iterable<AtomicQuery> operands, Selection selection, Application application) {
 		this(operands, Annotation.defaultAnnotations(), selection, application);
 	}
 
+	/**
+	 * Operands and annotations given as {@link ImmutableSet}s are used as they
+	 * are, rather than copied, so a query built from them, with the shared
+	 * {@link DefaultApplication#getDefault()} when no application is given,
+	 * allocates nothing but itself.
+	 */
 	public ContentQuery(Iterable<AtomicQuery> operands, Set<Annotation> annotations, Selection selection, Application application) {
+		this(operands, ImmutableSet.<AtomicQuery>of(), annotations, selection, application);
+	}
+
+	private ContentQuery(Iterable<AtomicQuery> operands, Iterable<AtomicQuery> softConstraints, Set<Annotation> annotations, Selection selection, Application application) {
 		this.operands = ImmutableSet.copyOf(operands);
+		this.softConstraints = ImmutableSet.copyOf(softConstraints);
         this.annotations = ImmutableSet.copyOf(annotations);
 		this.selection = selection;
 		this.application = application;
-		this.softConstraints = ImmutableSet.of();
 	}
 	
 	public ImmutableSet<AtomicQuery> operands() {
@@ -77,12 +90,28 @@ public class ContentQuery {
 	
 	@Override
 	public final String toString() {
-		StringBuilder b = new StringBuilder();
-		b.append("query=");
-		for (AtomicQuery operand : operands) {
-			b.append(operand.toString()).append(" and ");
+		if (toString == null) {
+			StringBuilder b = new StringBuilder();
+			b.append("query=");
+			for (AtomicQuery operand : operands) {
+				b.append(operand.toString()).append(" and ");
+			}
+			toString = b.toString();
 		}
-		return b.toString();
+		return toString;
+	}
+	
+	/**
+	 * An immutable snapshot of every field of this query, with facts derived
+	 * from its operands computed once.
+	 */
+	public CanonicalContentQuery canonical() {
+		CanonicalContentQuery current = canonical;
+		if (current == null) {
+			current = new CanonicalContentQuery(operands, softConstraints, annotations, selection, application);
+			canonical = current;
+		}
+		return current;
 	}
 	
 	@Override
@@ -90,16 +119,16 @@ public class ContentQuery {
 		if (this == obj) {
 			return true;
 		}
-		if (this instanceof ContentQuery) {
+		if (obj instanceof ContentQuery) {
 			ContentQuery other = (ContentQuery) obj;
-			return this.operands.equals(other.operands) && this.selection.equals(other.selection);
+			return canonical().equals(other.canonical());
 		}
 		return false;
 	}
 
 	@Override
 	public int hashCode() {
-	    return operands.hashCode();
+	    return canonical().hashCode();
 	}
 	
 	public Selection getSelection() {
@@ -115,15 +144,11 @@ public class ContentQuery {
     }
     
     public ContentQuery copyWithAnnotations(Set<Annotation> annotations) {
-		ContentQuery newQuery = new ContentQuery(operands, annotations, selection, application);
-        newQuery.setSoftConstraints(softConstraints);
-		return newQuery;
+		return new ContentQuery(operands, softConstraints, annotations, selection, application);
 	}
 
 	public ContentQuery copyWithOperands(Iterable<AtomicQuery> newConjucts) {
-		ContentQuery conjunctiveQuery = new ContentQuery(newConjucts, selection, application);
-		conjunctiveQuery.setSoftConstraints(softConstraints);
-		return conjunctiveQuery;
+		return new ContentQuery(newConjucts, softConstraints, Annotation.defaultAnnotations(), selection, application);
 	}
 
 	public static ContentQuery joinTo(ContentQuery original, ContentQuery toAdd) {
@@ -132,9 +157,8 @@ public class ContentQuery {
 		ImmutableSet.Builder<Annotation> annotations = new ImmutableSet.Builder();
 		annotations.addAll(original.getAnnotations());
 		annotations.addAll(toAdd.getAnnotations());
-		ContentQuery contentQuery = new ContentQuery(allConjucts, annotations.build(), original.getSelection(), original.getApplication());
-		contentQuery.setSoftConstraints(Iterables.concat(original.getSoftConstraints(),toAdd.getSoftConstraints()));
-		return contentQuery;
+		return new ContentQuery(allConjucts, Iterables.concat(original.getSoftConstraints(),toAdd.getSoftConstraints()),
+				annotations.build(), original.getSelection(), original.getApplication());
 	}
 	
 	public <V> List<V> accept(QueryVisitor<V> v) {
@@ -146,23 +170,24 @@ public class ContentQuery {
 	}
 
 	public ContentQuery copyWithSelection(Selection newSelection) {
-		ContentQuery contentQuery = new ContentQuery(operands, newSelection, getApplication());
-		contentQuery.setSoftConstraints(getSoftConstraints());
-		return contentQuery;
+		return new ContentQuery(operands, softConstraints, Annotation.defaultAnnotations(), newSelection, getApplication());
 	}
 	
 	public ContentQuery copyWithApplication(Application application){
-		ContentQuery contentQuery = new ContentQuery(operands, getAnnotations(), getSelection(), application);
-		contentQuery.setSoftConstraints(getSoftConstraints());
-		return contentQuery;
+		return new ContentQuery(operands, softConstraints, getAnnotations(), getSelection(), application);
 	}
 	
 	public ContentQuery copyWithSoftConstraintsApplied() {
 		return new ContentQuery(Iterables.concat(operands(),getSoftConstraints()), getSelection(), application);
 	}
 	
-	public void setSoftConstraints(Iterable<AtomicQuery> softConstraints) {
-		this.softConstraints = ImmutableSet.copyOf(softConstraints);
+	/**
+	 * A copy of this query with the given soft constraints in place of its
+	 * own. Soft constraints are part of a query's equality, so they are fixed
+	 * when it is constructed rather than set on an existing query.
+	 */
+	public ContentQuery copyWithSoftConstraints(Iterable<AtomicQuery> softConstraints) {
+		return new ContentQuery(operands, softConstraints, annotations, selection, application);
 	}
 
 	public ImmutableSet<AtomicQuery> getSoftConstraints() {
@@ -170,27 +195,10 @@ public class ContentQuery {
 	}
 	
 	public ImmutableSet<Publisher> includedPublishers() {
-		
-		List<List<Publisher>> publishers = accept(new QueryVisitorAdapter<List<Publisher>>() {
-
-			@Override
-			@SuppressWarnings("unchecked")
-			public List<Publisher> visit(EnumAttributeQuery<?> query) {
-				if (!Attributes.DESCRIPTION_PUBLISHER.equals(query.getAttribute())) {
-					return defaultValue(query);
-				}
-				return (List<Publisher>) query.getValue();
-			}
-
-			protected List<Publisher> defaultValue(AtomicQuery query) {
-				return ImmutableList.of();
-			}
-		});
-
-		return ImmutableSet.copyOf(Iterables.concat(publishers));
+		return canonical().includedPublishers();
 	}
 
     public boolean allowsSource(Publisher publisher) {
-        return application.getConfiguration().isReadEnabled(publisher);
+        return CompiledReadPolicy.forApplication(application).isReadEnabled(publisher);
     }
 }
@@ -20,6 +20,7 @@ import java.util.List;
 import java.util.Optional;
 
 import com.metabroadcast.applications.client.model.internal.Application;
+import org.atlasapi.application.v3.DefaultApplication;
 import org.atlasapi.content.criteria.attribute.QueryFactory;
 import org.atlasapi.content.criteria.operator.Operators;
 import org.joda.time.DateTime;
@@ -32,7 +33,7 @@ public class ContentQueryBuilder {
 
 	private final List<AtomicQuery> queries;
 	private Selection selection = Selection.ALL;
-	private Optional<Application> application;
+	private Optional<Application> application = Optional.empty();
 	
 	public ContentQueryBuilder(Iterable<AtomicQuery> queries) {
 		this.queries = Lists.newArrayList(queries);
@@ -42,12 +43,13 @@ public class ContentQueryBuilder {
 		return new ContentQueryBuilder(Collections.<AtomicQuery>emptyList());
 	}
 	
+	/**
+	 * Builds a query of the operands added so far, copied once into the
+	 * query's operand set, for the given application or else the shared
+	 * {@link DefaultApplication#getDefault()}.
+	 */
 	public ContentQuery build() {
-		if(application.isPresent()) {
-			return new ContentQuery(queries, selection, application.get());
-		} else {
-			return new ContentQuery(queries, selection);
-		}
+		return new ContentQuery(queries, selection, application.orElseGet(DefaultApplication::getDefault));
 	}
 	
 	public ContentQueryBuilder withSelection(Selection selection) {
@@ -0,0 +1,396 @@
+package org.atlasapi.content.criteria;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.atlasapi.content.criteria.attribute.Attribute;
+import org.atlasapi.content.criteria.attribute.Attributes;
+import org.atlasapi.content.criteria.operator.BooleanOperatorVisitor;
+import org.atlasapi.content.criteria.operator.DateTimeOperatorVisitor;
+import org.atlasapi.content.criteria.operator.EnumOperatorVisitor;
+import org.atlasapi.content.criteria.operator.IntegerOperatorVisitor;
+import org.atlasapi.content.criteria.operator.Operators.After;
+import org.atlasapi.content.criteria.operator.Operators.Before;
+import org.atlasapi.content.criteria.operator.Operators.Beginning;
+import org.atlasapi.content.criteria.operator.Operators.Equals;
+import org.atlasapi.content.criteria.operator.Operators.GreaterThan;
+import org.atlasapi.content.criteria.operator.Operators.LessThan;
+import org.atlasapi.content.criteria.operator.StringOperatorVisitor;
+import org.atlasapi.media.entity.Content;
+import org.joda.time.DateTime;
+
+import com.google.common.base.Function;
+import com.google.common.base.Predicate;
+import com.google.common.base.Predicates;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Ordering;
+
+/**
+ * Compiles a {@link ContentQuery} into a {@link Predicate} over in-memory
+ * {@link Content}. The query is walked once: each operand becomes a predicate
+ * with its attribute accessor and operator already chosen and its values
+ * pre-processed, so evaluation does no visiting and builds no intermediate
+ * results.
+ * <p>
+ * Only the attributes held on the content itself are supported: publisher,
+ * genre, tag, media type and this-or-child last updated. The topic attributes
+ * are not, as content holds only references to its topics by id, and
+ * {@link #compile(ContentQuery)} rejects queries using them; use
+ * {@link #supports(Attribute)} to check an attribute first.
+ * <p>
+ * Operands match if any of their values match. Hard operands don't match
+ * content without a value for their attribute; soft constraints do, as
+ * described on {@link ContentQuery}. Equality over genres or tags looks each
+ * query value up in the content's set. A prefix match over them is the one
+ * case that walks the set, and so allocates an iterator.
+ */
+public final class ContentQueryPredicates {
+
+    private static final Map<Attribute<?>, Function<Content, Object>> ACCESSORS
+            = ImmutableMap.<Attribute<?>, Function<Content, Object>>builder()
+                .put(Attributes.DESCRIPTION_PUBLISHER, new Function<Content, Object>() {
+                    @Override
+                    public Object apply(Content content) {
+                        return content.getPublisher();
+                    }
+                })
+                .put(Attributes.DESCRIPTION_GENRE, new Function<Content, Object>() {
+                    @Override
+                    public Object apply(Content content) {
+                        return content.getGenres();
+                    }
+                })
+                .put(Attributes.DESCRIPTION_TAG, new Function<Content, Object>() {
+                    @Override
+                    public Object apply(Content content) {
+                        return content.getTags();
+                    }
+                })
+                .put(Attributes.DESCRIPTION_TYPE, new Function<Content, Object>() {
+                    @Override
+                    public Object apply(Content content) {
+                        return content.getMediaType();
+                    }
+                })
+                .put(Attributes.BRAND_THIS_OR_CHILD_LAST_UPDATED, new Function<Content, Object>() {
+                    @Override
+                    public Object apply(Content content) {
+                        return content.getThisOrChildLastUpdated();
+                    }
+                })
+                .build();
+
+    private ContentQueryPredicates() {
+    }
+
+    /**
+     * Whether content with the given attribute can be evaluated in memory.
+     */
+    public static boolean supports(Attribute<?> attribute) {
+        return ACCESSORS.containsKey(attribute);
+    }
+
+    /**
+     * @throws IllegalArgumentException
+     *             if the query refers to an attribute which can't be evaluated
+     *             in memory.
+     */
+    public static Predicate<Content> compile(ContentQuery query) {
+        Predicate<Content>[] predicates = compile(query.operands(), false);
+        Predicate<Content>[] soft = compile(query.getSoftConstraints(), true);
+        if (soft.length == 0 && predicates.length == 1) {
+            return predicates[0];
+        }
+        return new AllOf(concat(predicates, soft));
+    }
+
+    private static Predicate<Content>[] compile(Collection<AtomicQuery> operands, boolean soft) {
+        OperandCompiler compiler = new OperandCompiler(soft);
+        @SuppressWarnings("unchecked")
+        Predicate<Content>[] predicates = new Predicate[operands.size()];
+        int i = 0;
+        for (AtomicQuery operand : operands) {
+            predicates[i++] = operand.accept(compiler);
+        }
+        return predicates;
+    }
+
+    private static Predicate<Content>[] concat(Predicate<Content>[] first, Predicate<Content>[] second) {
+        @SuppressWarnings("unchecked")
+        Predicate<Content>[] all = new Predicate[first.length + second.length];
+        System.arraycopy(first, 0, all, 0, first.length);
+        System.arraycopy(second, 0, all, first.length, second.length);
+        return all;
+    }
+
+    private static final class AllOf implements Predicate<Content> {
+
+        private final Predicate<Content>[] predicates;
+
+        AllOf(Predicate<Content>[] predicates) {
+            this.predicates = predicates;
+        }
+
+        @Override
+        public boolean apply(Content content) {
+            for (int i = 0; i < predicates.length; i++) {
+                if (!predicates[i].apply(content)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Matches a single, non-null attribute value.
+     */
+    private interface ValueMatcher {
+
+        boolean matches(Object value);
+
+        /**
+         * Whether any non-null element of a non-empty collection of attribute
+         * values matches.
+         */
+        default boolean matchesAny(Collection<?> values) {
+            for (Object value : values) {
+                if (value != null && matches(value)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private static final class InSet implements ValueMatcher {
+
+        private final ImmutableSet<?> values;
+        private final Object[] valueArray;
+
+        InSet(List<?> values) {
+            this.values = ImmutableSet.copyOf(values);
+            this.valueArray = this.values.toArray();
+        }
+
+        @Override
+        public boolean matches(Object value) {
+            return values.contains(value);
+        }
+
+        @Override
+        public boolean matchesAny(Collection<?> values) {
+            for (int i = 0; i < valueArray.length; i++) {
+                if (values.contains(valueArray[i])) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private static final class AttributePredicate implements Predicate<Content> {
+
+        private final Function<Content, Object> accessor;
+        private final ValueMatcher matcher;
+        private final boolean matchesAbsent;
+
+        AttributePredicate(Function<Content, Object> accessor, ValueMatcher matcher, boolean matchesAbsent) {
+            this.accessor = accessor;
+            this.matcher = matcher;
+            this.matchesAbsent = matchesAbsent;
+        }
+
+        @Override
+        public boolean apply(Content content) {
+            Object value = accessor.apply(content);
+            if (value == null) {
+                return matchesAbsent;
+            }
+            if (value instanceof Collection) {
+                Collection<?> values = (Collection<?>) value;
+                if (values.isEmpty()) {
+                    return matchesAbsent;
+                }
+                return matcher.matchesAny(values);
+            }
+            return matcher.matches(value);
+        }
+    }
+
+    private static final class OperandCompiler implements QueryVisitor<Predicate<Content>> {
+
+        private final boolean soft;
+
+        OperandCompiler(boolean soft) {
+            this.soft = soft;
+        }
+
+        private Predicate<Content> attributePredicate(AttributeQuery<?> query, Supplier<ValueMatcher> matcher) {
+            Function<Content, Object> accessor = ACCESSORS.get(query.getAttribute());
+            if (accessor == null) {
+                throw new IllegalArgumentException("Can't evaluate " + query.getAttributeName() + " in memory");
+            }
+            if (query.getValue().isEmpty()) {
+                return soft ? Predicates.<Content>alwaysTrue() : Predicates.<Content>alwaysFalse();
+            }
+            return new AttributePredicate(accessor, matcher.get(), soft);
+        }
+
+        @Override
+        public Predicate<Content> visit(final StringAttributeQuery query) {
+            return attributePredicate(query, () -> query.accept(new StringOperatorVisitor<ValueMatcher>() {
+
+                @Override
+                public ValueMatcher visit(Equals equals) {
+                    return new InSet(query.getValue());
+                }
+
+                @Override
+                public ValueMatcher visit(Beginning beginning) {
+                    final String[] prefixes = Iterables.toArray(
+                            Iterables.filter(query.getValue(), String.class), String.class);
+                    return new ValueMatcher() {
+
+                        @Override
+                        public boolean matches(Object value) {
+                            String string = (String) value;
+                            for (int i = 0; i < prefixes.length; i++) {
+                                if (string.startsWith(prefixes[i])) {
+                                    return true;
+                                }
+                            }
+                            return false;
+                        }
+                    };
+                }
+            }));
+        }
+
+        @Override
+        public Predicate<Content> visit(final IntegerAttributeQuery query) {
+            return attributePredicate(query, () -> query.accept(new IntegerOperatorVisitor<ValueMatcher>() {
+
+                @Override
+                public ValueMatcher visit(Equals equals) {
+                    return new InSet(query.getValue());
+                }
+
+                @Override
+                public ValueMatcher visit(LessThan lessThan) {
+                    final int bound = Ordering.natural().max(integers(query));
+                    return new ValueMatcher() {
+
+                        @Override
+                        public boolean matches(Object value) {
+                            return (Integer) value < bound;
+                        }
+                    };
+                }
+
+                @Override
+                public ValueMatcher visit(GreaterThan greaterThan) {
+                    final int bound = Ordering.natural().min(integers(query));
+                    return new ValueMatcher() {
+
+                        @Override
+                        public boolean matches(Object value) {
+                            return (Integer) value > bound;
+                        }
+                    };
+                }
+            }));
+        }
+
+        @Override
+        public Predicate<Content> visit(final BooleanAttributeQuery query) {
+            return attributePredicate(query, () -> query.accept(new BooleanOperatorVisitor<ValueMatcher>() {
+
+                @Override
+                public ValueMatcher visit(Equals equals) {
+                    return new InSet(query.getValue());
+                }
+            }));
+        }
+
+        @Override
+        public Predicate<Content> visit(final EnumAttributeQuery<?> query) {
+            return attributePredicate(query, () -> query.accept(new EnumOperatorVisitor<ValueMatcher>() {
+
+                @Override
+                public ValueMatcher visit(Equals equals) {
+                    return new InSet(query.getValue());
+                }
+            }));
+        }
+
+        @Override
+        public Predicate<Content> visit(final DateTimeAttributeQuery query) {
+            return attributePredicate(query, () -> query.accept(new DateTimeOperatorVisitor<ValueMatcher>() {
+
+                @Override
+                public ValueMatcher visit(Before before) {
+                    final DateTime bound = Ordering.natural().max(dateTimes(query));
+                    return new ValueMatcher() {
+
+                        @Override
+                        public boolean matches(Object value) {
+                            return ((DateTime) value).isBefore(bound);
+                        }
+                    };
+                }
+
+                @Override
+                public ValueMatcher visit(After after) {
+                    final DateTime bound = Ordering.natural().min(dateTimes(query));
+                    return new ValueMatcher() {
+
+                        @Override
+                        public boolean matches(Object value) {
+                            return ((DateTime) value).isAfter(bound);
+                        }
+                    };
+                }
+
+                @Override
+                public ValueMatcher visit(Equals equals) {
+                    final long[] instants = new long[query.getValue().size()];
+                    int i = 0;
+                    for (DateTime dateTime : dateTimes(query)) {
+                        instants[i++] = dateTime.getMillis();
+                    }
+                    return new ValueMatcher() {
+
+                        @Override
+                        public boolean matches(Object value) {
+                            long instant = ((DateTime) value).getMillis();
+                            for (int i = 0; i < instants.length; i++) {
+                                if (instants[i] == instant) {
+                                    return true;
+                                }
+                            }
+                            return false;
+                        }
+                    };
+                }
+            }));
+        }
+
+        @Override
+        public Predicate<Content> visit(MatchesNothing noOp) {
+            return Predicates.alwaysFalse();
+        }
+
+        private Iterable<Integer> integers(AttributeQuery<?> query) {
+            return Iterables.filter(query.getValue(), Integer.class);
+        }
+
+        private Iterable<DateTime> dateTimes(AttributeQuery<?> query) {
+            return Iterables.filter(query.getValue(), DateTime.class);
+        }
+    }
+}
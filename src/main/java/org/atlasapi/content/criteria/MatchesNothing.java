@@ -15,7 +15,6 @@ permissions and limitations under the License. */
 package org.atlasapi.content.criteria;
 
 import java.util.Collections;
-import java.util.List;
 
 
 /**
@@ -45,20 +44,6 @@ public class MatchesNothing extends AtomicQuery {
 	}
 	
 	public static boolean isEquivalentTo(ContentQuery query) {
-		
-		 List<Boolean> result = query.accept(new QueryVisitorAdapter<Boolean>() {
-			
-			@Override
-			public Boolean visit(MatchesNothing nothing) {
-				return true;
-			}
-			
-			@Override
-			protected Boolean defaultValue(AtomicQuery query) {
-				return false;
-			}
-		});
-		 
-		return result.contains(Boolean.TRUE);
+		return query.canonical().matchesNothing();
 	}
 }
@@ -0,0 +1,117 @@
+package org.atlasapi.equiv;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.atlasapi.media.entity.Described;
+import org.atlasapi.media.entity.LookupRef;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+/**
+ * Index over a list of content, by canonical URI and by the {@link LookupRef}s
+ * each piece of content declares itself equivalent to. Finding the content
+ * directly equivalent to a member of the list is then a couple of hash lookups
+ * rather than a pairwise {@link Described#isEquivalentTo(Described)} scan.
+ * <p>
+ * Matches are exactly those of {@code isEquivalentTo}: equivalence is not
+ * closed transitively, so broken equivalence sets merge as they always have.
+ */
+class EquivalentContentIndex<T extends Described> {
+
+    private final List<T> contents;
+    private final Map<String, Positions> positionsByUri;
+    private final Map<LookupRef, Positions> positionsByEquivalentRef;
+
+    EquivalentContentIndex(List<T> contents) {
+        this.contents = contents;
+        this.positionsByUri = Maps.newHashMapWithExpectedSize(contents.size());
+        this.positionsByEquivalentRef = Maps.newHashMap();
+        for (int i = 0; i < contents.size(); i++) {
+            T content = contents.get(i);
+            put(positionsByUri, content.getCanonicalUri(), i);
+            for (LookupRef ref : content.getEquivalentTo()) {
+                put(positionsByEquivalentRef, ref, i);
+            }
+        }
+    }
+
+    private static <K> void put(Map<K, Positions> index, K key, int position) {
+        Positions positions = index.get(key);
+        if (positions == null) {
+            positions = new Positions();
+            index.put(key, positions);
+        }
+        positions.add(position);
+    }
+
+    /**
+     * Returns {@code content} followed by every other member of the list which
+     * is equivalent to it, in list order.
+     */
+    List<T> findSame(T content) {
+        Positions referring = null;
+        if (content.getCanonicalUri() != null) {
+            // equality of LookupRefs is on URI and publisher only
+            LookupRef ref = new LookupRef(content.getCanonicalUri(), null, content.getPublisher(), null);
+            referring = positionsByEquivalentRef.get(ref);
+        }
+        int candidates = sizeOf(referring);
+        for (LookupRef ref : content.getEquivalentTo()) {
+            candidates += sizeOf(positionsByUri.get(ref.uri()));
+        }
+        if (candidates == 0) {
+            return Lists.newArrayList(content);
+        }
+        
+        int[] positions = new int[candidates];
+        int size = copyInto(referring, positions, 0);
+        for (LookupRef ref : content.getEquivalentTo()) {
+            size = copyInto(positionsByUri.get(ref.uri()), positions, size);
+        }
+        Arrays.sort(positions);
+        
+        List<T> same = Lists.newArrayListWithCapacity(candidates + 1);
+        same.add(content);
+        for (int i = 0; i < positions.length; i++) {
+            if (i > 0 && positions[i] == positions[i - 1]) {
+                continue;
+            }
+            T possiblyEquivalent = contents.get(positions[i]);
+            if (!content.equals(possiblyEquivalent)) {
+                same.add(possiblyEquivalent);
+            }
+        }
+        return same;
+    }
+
+    private static int sizeOf(Positions positions) {
+        return positions == null ? 0 : positions.size;
+    }
+
+    private static int copyInto(Positions positions, int[] into, int offset) {
+        if (positions == null) {
+            return offset;
+        }
+        System.arraycopy(positions.values, 0, into, offset, positions.size);
+        return offset + positions.size;
+    }
+
+    /**
+     * A growable list of positions in the content list, in ascending order.
+     */
+    private static final class Positions {
+
+        private int[] values = new int[1];
+        private int size;
+
+        void add(int position) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = position;
+        }
+    }
+}
@@ -0,0 +1,360 @@
+package org.atlasapi.equiv;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.atlasapi.media.entity.Publisher;
+
+import com.google.common.base.Objects;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.metabroadcast.common.collect.ImmutableOptionalMap;
+import com.metabroadcast.common.collect.OptionalMap;
+
+/**
+ * An {@link EquivalenceSummaryStore} held in memory. Every URI is stored once
+ * and given an int id, and each summary is held as arrays of those ids, so
+ * summaries repeating the same candidates and equivalents take little more
+ * space than the ids.
+ * <p>
+ * Writes are serialized; lookups don't lock and see each summary as it was
+ * when stored. The store can be written to a snapshot file and loaded from
+ * one by memory-mapping it a segment at a time, so snapshots may be larger
+ * than a single mapping's 2GB limit.
+ */
+public final class InMemoryEquivalenceSummaryStore implements EquivalenceSummaryStore {
+
+    private static final int SNAPSHOT_MAGIC = 0x45515353;
+    private static final int SNAPSHOT_VERSION = 1;
+    private static final int NONE = -1;
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int SEGMENT_SIZE = 1 << 30;
+
+    /* an equivalent is held as its uri id, publisher ordinal and parent id. */
+    private static final int EQUIVALENT_STRIDE = 3;
+
+    private static final Publisher[] PUBLISHERS = Publisher.values();
+
+    private final ConcurrentMap<String, Integer> ids = new ConcurrentHashMap<>();
+    private volatile String[] uris = new String[INITIAL_CAPACITY];
+    private volatile AtomicReferenceArray<Summary> summaries = new AtomicReferenceArray<>(INITIAL_CAPACITY);
+    private int size;
+
+    private final Object writeLock = new Object();
+
+    @Override
+    public void store(EquivalenceSummary summary) {
+        checkNotNull(summary);
+        synchronized (writeLock) {
+            int subject = intern(summary.getSubject());
+            int parent = summary.getParent() == null ? NONE : intern(summary.getParent());
+            int[] candidates = new int[summary.getCandidates().size()];
+            for (int i = 0; i < candidates.length; i++) {
+                candidates[i] = intern(summary.getCandidates().get(i));
+            }
+            int[] equivalents = new int[summary.getEquivalents().size() * EQUIVALENT_STRIDE];
+            int i = 0;
+            for (ContentRef equivalent : summary.getEquivalents().values()) {
+                equivalents[i++] = intern(equivalent.getCanonicalUri());
+                equivalents[i++] = equivalent.getPublisher().ordinal();
+                equivalents[i++] = equivalent.getParentUri() == null ? NONE : intern(equivalent.getParentUri());
+            }
+            put(subject, new Summary(parent, candidates, equivalents));
+        }
+    }
+
+    @Override
+    public OptionalMap<String, EquivalenceSummary> summariesForUris(Iterable<String> uris) {
+        Map<String, EquivalenceSummary> found = Maps.newLinkedHashMap();
+        for (String uri : uris) {
+            Integer id = ids.get(uri);
+            if (id == null) {
+                continue;
+            }
+            AtomicReferenceArray<Summary> summaries = this.summaries;
+            Summary summary = id < summaries.length() ? summaries.get(id) : null;
+            if (summary != null) {
+                // read after the summary so that every id it holds is present
+                found.put(uri, summary.toSummary(uri, this.uris));
+            }
+        }
+        return ImmutableOptionalMap.fromMap(found);
+    }
+
+    /**
+     * The number of summaries stored.
+     */
+    public int size() {
+        synchronized (writeLock) {
+            return size;
+        }
+    }
+
+    private int intern(String uri) {
+        Integer id = ids.get(uri);
+        if (id != null) {
+            return id;
+        }
+        int next = ids.size();
+        if (next == uris.length) {
+            uris = Arrays.copyOf(uris, next * 2);
+        }
+        // the uri is in place before its id is published
+        uris[next] = uri;
+        ids.put(uri, next);
+        return next;
+    }
+
+    private void put(int subject, Summary summary) {
+        AtomicReferenceArray<Summary> current = summaries;
+        if (subject >= current.length()) {
+            AtomicReferenceArray<Summary> grown = new AtomicReferenceArray<>(Math.max(subject + 1, current.length() * 2));
+            for (int i = 0; i < current.length(); i++) {
+                grown.set(i, current.get(i));
+            }
+            summaries = grown;
+            current = grown;
+        }
+        if (current.getAndSet(subject, summary) == null) {
+            size++;
+        }
+    }
+
+    /**
+     * Writes every stored URI and summary to {@code file}, replacing it.
+     */
+    public void snapshot(Path file) throws IOException {
+        snapshot(file, SEGMENT_SIZE);
+    }
+
+    void snapshot(Path file, int segmentSize) throws IOException {
+        synchronized (writeLock) {
+            String[] uris = this.uris;
+            List<byte[]> encoded = Lists.newArrayListWithCapacity(ids.size());
+            long bytes = 4 * 4 + 4;
+            for (Publisher publisher : PUBLISHERS) {
+                bytes += 4 + publisher.name().getBytes(StandardCharsets.UTF_8).length;
+            }
+            for (int i = 0; i < ids.size(); i++) {
+                byte[] uri = uris[i].getBytes(StandardCharsets.UTF_8);
+                encoded.add(uri);
+                bytes += 4 + uri.length;
+            }
+            for (int i = 0; i < summaries.length(); i++) {
+                Summary summary = summaries.get(i);
+                if (summary != null) {
+                    bytes += 4 * 4 + 4 * (summary.candidates.length + summary.equivalents.length);
+                }
+            }
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                Segments out = new Segments(channel, MapMode.READ_WRITE, bytes, segmentSize);
+                out.next(4 * 3).putInt(SNAPSHOT_MAGIC).putInt(SNAPSHOT_VERSION).putInt(PUBLISHERS.length);
+                for (Publisher publisher : PUBLISHERS) {
+                    putBytes(out, publisher.name().getBytes(StandardCharsets.UTF_8));
+                }
+                out.next(4).putInt(encoded.size());
+                for (byte[] uri : encoded) {
+                    putBytes(out, uri);
+                }
+                out.next(4).putInt(size);
+                for (int i = 0; i < summaries.length(); i++) {
+                    Summary summary = summaries.get(i);
+                    if (summary != null) {
+                        out.next(4 * 2).putInt(i).putInt(summary.parent);
+                        putInts(out, summary.candidates);
+                        putInts(out, summary.equivalents);
+                    }
+                }
+                out.force();
+            }
+        }
+    }
+
+    /**
+     * A store holding the URIs and summaries in the snapshot {@code file}.
+     * Equivalents from publishers which no longer exist are left out.
+     */
+    public static InMemoryEquivalenceSummaryStore load(Path file) throws IOException {
+        return load(file, SEGMENT_SIZE);
+    }
+
+    static InMemoryEquivalenceSummaryStore load(Path file, int segmentSize) throws IOException {
+        InMemoryEquivalenceSummaryStore store = new InMemoryEquivalenceSummaryStore();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            Segments in = new Segments(channel, MapMode.READ_ONLY, channel.size(), segmentSize);
+            ByteBuffer header = in.next(4 * 3);
+            if (header.getInt() != SNAPSHOT_MAGIC || header.getInt() != SNAPSHOT_VERSION) {
+                throw new IOException(file + " is not an equivalence summary snapshot");
+            }
+            /* publisher ordinals in the snapshot, mapped to those of this build. */
+            int[] publishers = new int[header.getInt()];
+            for (int i = 0; i < publishers.length; i++) {
+                publishers[i] = ordinalOf(getString(in));
+            }
+            synchronized (store.writeLock) {
+                int uriCount = in.next(4).getInt();
+                for (int i = 0; i < uriCount; i++) {
+                    store.intern(getString(in));
+                }
+                int summaryCount = in.next(4).getInt();
+                for (int i = 0; i < summaryCount; i++) {
+                    ByteBuffer ids = in.next(4 * 2);
+                    int subject = ids.getInt();
+                    int parent = ids.getInt();
+                    int[] candidates = getInts(in);
+                    int[] equivalents = currentEquivalents(getInts(in), publishers);
+                    store.put(subject, new Summary(parent, candidates, equivalents));
+                }
+            }
+        }
+        return store;
+    }
+
+    private static int ordinalOf(String publisher) {
+        for (Publisher current : PUBLISHERS) {
+            if (current.name().equals(publisher)) {
+                return current.ordinal();
+            }
+        }
+        return NONE;
+    }
+
+    /* equivalents with publisher ordinals of this build, less those whose publisher has gone. */
+    private static int[] currentEquivalents(int[] equivalents, int[] publishers) {
+        int kept = 0;
+        for (int e = 0; e < equivalents.length; e += EQUIVALENT_STRIDE) {
+            int publisher = publishers[equivalents[e + 1]];
+            if (publisher != NONE) {
+                equivalents[kept] = equivalents[e];
+                equivalents[kept + 1] = publisher;
+                equivalents[kept + 2] = equivalents[e + 2];
+                kept += EQUIVALENT_STRIDE;
+            }
+        }
+        return kept == equivalents.length ? equivalents : Arrays.copyOf(equivalents, kept);
+    }
+
+    private static void putBytes(Segments out, byte[] bytes) throws IOException {
+        out.next(4 + bytes.length).putInt(bytes.length).put(bytes);
+    }
+
+    private static void putInts(Segments out, int[] values) throws IOException {
+        ByteBuffer buffer = out.next(4 + 4 * values.length).putInt(values.length);
+        for (int value : values) {
+            buffer.putInt(value);
+        }
+    }
+
+    private static String getString(Segments in) throws IOException {
+        int length = in.next(4).getInt();
+        byte[] bytes = new byte[length];
+        in.next(length).get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int[] getInts(Segments in) throws IOException {
+        int length = in.next(4).getInt();
+        ByteBuffer buffer = in.next(4 * length);
+        int[] values = new int[length];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = buffer.getInt();
+        }
+        return values;
+    }
+
+    /**
+     * A file mapped one segment at a time. Each read or write asks for the
+     * bytes it needs, and a new segment is mapped from there if the current
+     * one hasn't that many left, so no value spans two segments.
+     */
+    private static final class Segments {
+
+        private final FileChannel channel;
+        private final MapMode mode;
+        private final long size;
+        private final int segmentSize;
+        private long segmentStart;
+        private MappedByteBuffer segment;
+
+        private Segments(FileChannel channel, MapMode mode, long size, int segmentSize) {
+            this.channel = channel;
+            this.mode = mode;
+            this.size = size;
+            this.segmentSize = segmentSize;
+        }
+
+        private ByteBuffer next(int bytes) throws IOException {
+            if (segment == null || segment.remaining() < bytes) {
+                if (segment != null) {
+                    force();
+                    segmentStart += segment.position();
+                }
+                long length = Math.min(Math.max(segmentSize, bytes), size - segmentStart);
+                if (length < bytes) {
+                    throw new IOException("snapshot ends " + (bytes - length) + " bytes early");
+                }
+                segment = channel.map(mode, segmentStart, length);
+            }
+            return segment;
+        }
+
+        private void force() {
+            if (mode == MapMode.READ_WRITE && segment != null) {
+                segment.force();
+            }
+        }
+    }
+
+    private static final class Summary {
+
+        private final int parent;
+        private final int[] candidates;
+        private final int[] equivalents;
+
+        private Summary(int parent, int[] candidates, int[] equivalents) {
+            this.parent = parent;
+            this.candidates = candidates;
+            this.equivalents = equivalents;
+        }
+
+        private EquivalenceSummary toSummary(String subject, String[] uris) {
+            ImmutableList.Builder<String> candidates = ImmutableList.builder();
+            for (int candidate : this.candidates) {
+                candidates.add(uris[candidate]);
+            }
+            ImmutableListMultimap.Builder<Publisher, ContentRef> equivalents = ImmutableListMultimap.builder();
+            for (int i = 0; i < this.equivalents.length; i += EQUIVALENT_STRIDE) {
+                Publisher publisher = PUBLISHERS[this.equivalents[i + 1]];
+                String parent = this.equivalents[i + 2] == NONE ? null : uris[this.equivalents[i + 2]];
+                equivalents.put(publisher, new ContentRef(uris[this.equivalents[i]], publisher, parent));
+            }
+            return new EquivalenceSummary(subject, parent == NONE ? null : uris[parent],
+                    candidates.build(), equivalents.build());
+        }
+    }
+
+    @Override
+    public String toString() {
+        return Objects.toStringHelper(this)
+                .add("uris", ids.size())
+                .add("summaries", size())
+                .toString();
+    }
+}
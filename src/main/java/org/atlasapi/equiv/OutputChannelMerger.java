@@ -2,12 +2,12 @@ package org.atlasapi.equiv;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Maps;
-import com.google.common.collect.Ordering;
 import com.metabroadcast.applications.client.model.internal.Application;
-import com.metabroadcast.common.stream.MoreCollectors;
+import org.atlasapi.application.v3.CompiledReadPolicy;
 import org.atlasapi.media.channel.Channel;
 import org.atlasapi.media.entity.Alias;
 import org.atlasapi.media.entity.Publisher;
+import org.atlasapi.media.entity.PublisherPrecedence;
 
 import java.util.List;
 import java.util.Map;
@@ -24,20 +24,19 @@ public class OutputChannelMerger {
 
     public Channel merge(Application application, Channel channel, Iterable<Channel> equivalents) {
 
-        if (!application.getConfiguration().isPrecedenceEnabled()
+        CompiledReadPolicy readPolicy = CompiledReadPolicy.forApplication(application);
+        if (!readPolicy.isPrecedenceEnabled()
                 || channel.getSource() != Publisher.METABROADCAST) {
             return channel;
         }
 
-        Map<Publisher, Channel> channelMap = Maps.newHashMap();
+        PublisherPrecedence readPrecedence = readPolicy.readPrecedence();
+        Map<Publisher, Channel> channelMap = Maps.newEnumMap(Publisher.class);
 
         channelMap.put(channel.getSource(), channel);
 
         StreamSupport.stream(equivalents.spliterator(), false)
-                .filter(equivalentChannel -> application.getConfiguration()
-                        .getEnabledReadSources()
-                        .contains(equivalentChannel.getSource())
-                )
+                .filter(equivalentChannel -> readPrecedence.contains(equivalentChannel.getSource()))
                 .forEach(equivalentChannel ->
                         channelMap.put(equivalentChannel.getSource(), equivalentChannel)
                 );
@@ -45,7 +44,7 @@ public class OutputChannelMerger {
         Channel mergedChannel = Channel.builder(channel).build();
         mergedChannel.setId(channel.getId());
 
-        ImmutableList<Publisher> orderedPublishers = getOrderedPublishers(application);
+        ImmutableList<Publisher> orderedPublishers = readPrecedence.inOrder();
 
         mergeAdvertiseFrom(orderedPublishers, channelMap, mergedChannel);
         mergeAdvertiseTo(orderedPublishers, channelMap, mergedChannel);
@@ -54,18 +53,6 @@ public class OutputChannelMerger {
         return mergedChannel;
     }
 
-    private ImmutableList<Publisher> getOrderedPublishers(Application application) {
-        Ordering<Publisher> ordering = application.getConfiguration()
-                .getReadPrecedenceOrdering();
-
-        return application.getConfiguration()
-                .getEnabledReadSources()
-                .stream()
-                .sorted(ordering)
-                .collect(MoreCollectors.toImmutableList());
-
-    }
-
     private void mergeAdvertiseFrom(
             List<Publisher> publishers,
             Map<Publisher, Channel> channelMap,
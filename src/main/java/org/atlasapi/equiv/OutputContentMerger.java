@@ -1,19 +1,22 @@
 package org.atlasapi.equiv;
 
 import com.google.common.base.Function;
-import com.google.common.base.Optional;
+import com.google.common.base.Objects;
 import com.google.common.base.Predicate;
 import com.google.common.base.Predicates;
 import com.google.common.base.Strings;
+import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.ImmutableSet.Builder;
 import com.google.common.collect.Iterables;
+import com.google.common.collect.ListMultimap;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Ordering;
 import com.google.common.collect.Sets;
 import com.metabroadcast.applications.client.model.internal.Application;
+import org.atlasapi.application.v3.CompiledReadPolicy;
 import org.atlasapi.media.entity.AudienceStatistics;
 import org.atlasapi.media.entity.Broadcast;
 import org.atlasapi.media.entity.Certificate;
@@ -37,6 +40,7 @@ import org.atlasapi.media.entity.SimilarContentRef;
 import org.atlasapi.media.entity.Subtitles;
 import org.atlasapi.media.entity.TopicRef;
 import org.atlasapi.media.entity.Version;
+import org.joda.time.DateTime;
 
 import java.util.List;
 import java.util.Map;
@@ -50,25 +54,26 @@ public class OutputContentMerger {
     @SuppressWarnings("unchecked")
     public <T extends Described> List<T> merge(Application application, List<T> contents) {
         Ordering<Described> contentComparator = toContentOrdering(
-                application.getConfiguration()
-                        .getReadPrecedenceOrdering()
+                CompiledReadPolicy.forApplication(application).readPrecedence().ordering()
         );
 
+        EquivalentContentIndex<T> index = new EquivalentContentIndex<>(contents);
         List<T> merged = Lists.newArrayListWithCapacity(contents.size());
+        Set<T> mergedSet = Sets.newHashSetWithExpectedSize(contents.size());
         Set<T> processed = Sets.newHashSet();
 
         for (T content : contents) {
             if (processed.contains(content)) {
                 continue;
             }
-            List<T> same = contentComparator.sortedCopy(findSame(content, contents));
+            List<T> same = contentComparator.sortedCopy(index.findSame(content));
             processed.addAll(same);
 
             T chosen = same.get(0); //precedent publisher with lowest id.
             chosen.setId(lowestId(same));
 
             // defend against broken transitive equivalence
-            if (merged.contains(chosen)) {
+            if (!mergedSet.add(chosen)) {
                 continue;
             }
 
@@ -99,17 +104,6 @@ public class OutputContentMerger {
         return lowest;
     }
 
-    @SuppressWarnings("unchecked")
-    private <T extends Described> List<T> findSame(T brand, Iterable<T> contents) {
-        List<T> same = Lists.newArrayList(brand);
-        for (T possiblyEquivalent : contents) {
-            if (!brand.equals(possiblyEquivalent) && possiblyEquivalent.isEquivalentTo(brand)) {
-                same.add(possiblyEquivalent);
-            }
-        }
-        return same;
-    }
-
     private static Ordering<Described> toContentOrdering(final Ordering<Publisher> byPublisher) {
         return new Ordering<Described>() {
             @Override
@@ -308,10 +302,11 @@ public class OutputContentMerger {
         chosen.setLanguages(languages.build());
 
 
-        if (application.getConfiguration().isPeoplePrecedenceEnabled()) {
+        CompiledReadPolicy readPolicy = CompiledReadPolicy.forApplication(application);
+        if (readPolicy.isPeoplePrecedenceEnabled()) {
             Iterable<Film> all = Iterables.concat(ImmutableList.of(chosen), notChosen);
             List<Film> topFilmMatches =
-                    toContentOrdering(application.getConfiguration().getPeopleReadPrecedenceOrdering())
+                    toContentOrdering(readPolicy.peoplePrecedence().ordering())
                             .leastOf(Iterables.filter(all, HAS_PEOPLE), 1);
 
             if (!topFilmMatches.isEmpty()) {
@@ -322,10 +317,11 @@ public class OutputContentMerger {
     }
 
     private <T extends Described> void applyImagePrefs(Application application, T chosen, Iterable<T> notChosen) {
-        if (application.getConfiguration().isImagePrecedenceEnabled()) {
+        CompiledReadPolicy readPolicy = CompiledReadPolicy.forApplication(application);
+        if (readPolicy.isImagePrecedenceEnabled()) {
             Iterable<T> all = Iterables.concat(ImmutableList.of(chosen), notChosen);
             List<T> topImageMatches =
-                    toContentOrdering(application.getConfiguration().getImageReadPrecedenceOrdering())
+                    toContentOrdering(readPolicy.imagePrecedence().ordering())
                             .leastOf(Iterables.filter(
                                     all,
                                     HAS_AVAILABLE_AND_NOT_GENERIC_IMAGE_CONTENT_PLAYER_SET),
@@ -347,10 +343,14 @@ public class OutputContentMerger {
         Set<Broadcast> chosenBroadcasts = Sets.newHashSet(Iterables.concat(Iterables.transform(chosen.getVersions(), Version.TO_BROADCASTS)));
         if (!chosenBroadcasts.isEmpty()) {
             List<T> notChosenOrdered =
-                    toContentOrdering(application.getConfiguration().getReadPrecedenceOrdering())
+                    toContentOrdering(CompiledReadPolicy.forApplication(application).readPrecedence().ordering())
                             .sortedCopy(notChosen);
+            ListMultimap<BroadcastSlot, Broadcast> equivBroadcasts = indexBroadcasts(notChosenOrdered);
             for (Broadcast chosenBroadcast : chosenBroadcasts) {
-                matchAndMerge(chosenBroadcast, notChosenOrdered);
+                // equivB'casts for a slot are ordered by precedence
+                for (Broadcast equiv : equivBroadcasts.get(new BroadcastSlot(chosenBroadcast))) {
+                    mergeBroadcast(chosenBroadcast, equiv);
+                }
             }
         }
         for (T notChosenItem : notChosen) {
@@ -362,23 +362,24 @@ public class OutputContentMerger {
         }
     }
 
-    private <T extends Item> void matchAndMerge(final Broadcast chosenBroadcast, List<T> notChosen) {
-        List<Broadcast> equivBroadcasts = Lists.newArrayList();
-        for (T notChosenItem : notChosen) {
-            Iterable<Broadcast> notChosenBroadcasts = Iterables.concat(
-                    Iterables.transform(notChosenItem.getVersions(), Version.TO_BROADCASTS)
-            );
-            Optional<Broadcast> matched = Iterables.tryFind(notChosenBroadcasts,
-                    input -> chosenBroadcast.getBroadcastOn().equals(input.getBroadcastOn())
-                            && chosenBroadcast.getTransmissionTime().equals(input.getTransmissionTime()));
-            if (matched.isPresent()) {
-                equivBroadcasts.add(matched.get());
+    /**
+     * Indexes the first broadcast of each item in each slot, keeping the
+     * items' order within a slot.
+     */
+    private <T extends Item> ListMultimap<BroadcastSlot, Broadcast> indexBroadcasts(List<T> items) {
+        ListMultimap<BroadcastSlot, Broadcast> index = ArrayListMultimap.create();
+        for (T item : items) {
+            Set<BroadcastSlot> itemSlots = Sets.newHashSet();
+            for (Version version : item.getVersions()) {
+                for (Broadcast broadcast : version.getBroadcasts()) {
+                    BroadcastSlot slot = new BroadcastSlot(broadcast);
+                    if (itemSlots.add(slot)) {
+                        index.put(slot, broadcast);
+                    }
+                }
             }
         }
-        // equivB'casts = list of matched broadcasts, ordered by precedence
-        for (Broadcast equiv : equivBroadcasts) {
-            mergeBroadcast(chosenBroadcast, equiv);
-        }
+        return index;
     }
 
     protected void mergeBroadcast(Broadcast chosen, Broadcast toMerge) {
@@ -524,6 +525,39 @@ public class OutputContentMerger {
         public abstract <T extends Item> Iterable<T> merge(List<T> items, List<T> matches);
     }
 
+    /**
+     * The channel and transmission time on which broadcasts of equivalent
+     * items are matched.
+     */
+    private static final class BroadcastSlot {
+
+        private final String broadcastOn;
+        private final DateTime transmissionTime;
+
+        BroadcastSlot(Broadcast broadcast) {
+            this.broadcastOn = broadcast.getBroadcastOn();
+            this.transmissionTime = broadcast.getTransmissionTime();
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(broadcastOn, transmissionTime);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (obj instanceof BroadcastSlot) {
+                BroadcastSlot other = (BroadcastSlot) obj;
+                return Objects.equal(broadcastOn, other.broadcastOn)
+                        && Objects.equal(transmissionTime, other.transmissionTime);
+            }
+            return false;
+        }
+    }
+
     private final static class TopicPublisherSetter implements Function<TopicRef, TopicRef> {
 
         private final Content publishedContent;
@@ -0,0 +1,168 @@
+package org.atlasapi.genres;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Maps;
+
+/**
+ * An immutable mapping of source genres to {@link AtlasGenre}s, with the same
+ * results as {@link GenreMap} but safe to share between threads.
+ * <p>
+ * As in {@link GenreMap}, a genre is looked up in lower case against the
+ * source genres as they were given, so a source genre which is not all lower
+ * case never matches and is dropped. Lookups of a genre already in lower case
+ * don't allocate; the result for a single recognised genre is shared between
+ * calls.
+ */
+public final class CompiledGenreMap {
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static CompiledGenreMap copyOf(Map<String, AtlasGenre> genres) {
+        return builder().putAll(genres).build();
+    }
+
+    public static final class Builder {
+
+        private final Map<String, AtlasGenre> genres = Maps.newLinkedHashMap();
+
+        private Builder() {
+        }
+
+        public Builder put(String sourceGenre, AtlasGenre genre) {
+            genres.put(checkNotNull(sourceGenre), checkNotNull(genre));
+            return this;
+        }
+
+        public Builder putAll(Map<String, AtlasGenre> genres) {
+            for (Entry<String, AtlasGenre> genre : genres.entrySet()) {
+                put(genre.getKey(), genre.getValue());
+            }
+            return this;
+        }
+
+        public CompiledGenreMap build() {
+            return new CompiledGenreMap(genres);
+        }
+    }
+
+    private static final class Mapping {
+
+        private final String sourceGenre;
+        private final AtlasGenre genre;
+        /* the result of mapping sourceGenre alone. */
+        private final ImmutableSet<String> single;
+
+        private Mapping(String sourceGenre, AtlasGenre genre) {
+            this.sourceGenre = sourceGenre;
+            this.genre = genre;
+            this.single = ImmutableSet.of(sourceGenre, genre.getUri());
+        }
+    }
+
+    private final ImmutableMap<String, Mapping> byGenre;
+
+    private CompiledGenreMap(Map<String, AtlasGenre> genres) {
+        ImmutableMap.Builder<String, Mapping> byGenre = ImmutableMap.builder();
+        for (Entry<String, AtlasGenre> genre : genres.entrySet()) {
+            String sourceGenre = genre.getKey();
+            if (sourceGenre.equals(sourceGenre.toLowerCase())) {
+                byGenre.put(sourceGenre, new Mapping(sourceGenre, genre.getValue()));
+            }
+        }
+        this.byGenre = byGenre.build();
+    }
+
+    /**
+     * The number of source genres which can be matched.
+     */
+    public int size() {
+        return byGenre.size();
+    }
+
+    /**
+     * The genre {@code sourceGenre} maps to, or null if it is not
+     * recognised.
+     */
+    public AtlasGenre genreFor(String sourceGenre) {
+        Mapping mapping = mappingFor(sourceGenre);
+        return mapping == null ? null : mapping.genre;
+    }
+
+    /**
+     * The source genres with the uris of the genres they map to.
+     */
+    public ImmutableSet<String> map(Set<String> sourceGenres) {
+        if (sourceGenres == null || sourceGenres.isEmpty()) {
+            return ImmutableSet.of();
+        }
+        ImmutableSet.Builder<String> mapped = null;
+        for (String sourceGenre : sourceGenres) {
+            Mapping mapping = mappingFor(sourceGenre);
+            if (mapping != null) {
+                if (sourceGenres.size() == 1) {
+                    return singleFor(sourceGenre, mapping);
+                }
+                if (mapped == null) {
+                    mapped = ImmutableSet.builder();
+                }
+                mapped.add(mapping.genre.getUri());
+            }
+        }
+        if (mapped == null) {
+            return ImmutableSet.copyOf(sourceGenres);
+        }
+        return mapped.addAll(sourceGenres).build();
+    }
+
+    /**
+     * The recognised source genres with the uris of the genres they map to.
+     */
+    public ImmutableSet<String> mapRecognised(Set<String> sourceGenres) {
+        if (sourceGenres == null || sourceGenres.isEmpty()) {
+            return ImmutableSet.of();
+        }
+        ImmutableSet.Builder<String> mapped = null;
+        for (String sourceGenre : sourceGenres) {
+            Mapping mapping = mappingFor(sourceGenre);
+            if (mapping != null) {
+                if (sourceGenres.size() == 1) {
+                    return singleFor(sourceGenre, mapping);
+                }
+                if (mapped == null) {
+                    mapped = ImmutableSet.builder();
+                }
+                mapped.add(sourceGenre).add(mapping.genre.getUri());
+            }
+        }
+        return mapped == null ? ImmutableSet.<String>of() : mapped.build();
+    }
+
+    private ImmutableSet<String> singleFor(String sourceGenre, Mapping mapping) {
+        if (mapping.sourceGenre.equals(sourceGenre)) {
+            return mapping.single;
+        }
+        return ImmutableSet.of(sourceGenre, mapping.genre.getUri());
+    }
+
+    private Mapping mappingFor(String sourceGenre) {
+        // every key is lower case, so a hit here is a hit for the lower case genre
+        Mapping mapping = byGenre.get(sourceGenre);
+        if (mapping == null) {
+            String lowerCase = sourceGenre.toLowerCase();
+            // toLowerCase returns the same string if it is already lower case
+            if (lowerCase != sourceGenre) {
+                mapping = byGenre.get(lowerCase);
+            }
+        }
+        return mapping;
+    }
+}
@@ -66,4 +66,15 @@ public abstract class GenreMap {
         return mappedGenres;
 	}
 
+	/**
+	 * An immutable snapshot of the mapping, for sharing between ingest
+	 * threads. Take it once the mapping is initialised.
+	 * <p>
+	 * The mappings of every source are held in one static map, so, as with
+	 * {@link #map(Set)}, the snapshot includes the mappings of every
+	 * {@code GenreMap} initialised so far, not just this one's.
+	 */
+	public CompiledGenreMap compile() {
+	    return CompiledGenreMap.copyOf(genres);
+	}
 }
\ No newline at end of file
@@ -13,8 +13,6 @@ import org.atlasapi.media.entity.MediaType;
 import org.atlasapi.media.entity.Publisher;
 import org.atlasapi.media.entity.RelatedLink;
 
-import com.metabroadcast.common.base.MorePredicates;
-
 import com.google.common.base.Function;
 import com.google.common.base.Objects;
 import com.google.common.base.Predicate;
@@ -58,6 +56,11 @@ public class Channel extends Identified {
     private Set<String> targetRegions = Sets.newHashSet();
     private Boolean interactive;
     private Set<ChannelRef> sameAs;
+
+    /* derived from titles and images, rebuilt on first read after they change. */
+    private transient TemporalFieldIndex<String> titleIndex;
+    private transient TemporalFieldIndex<Image> imageIndex;
+    private transient TemporalFieldIndex<Image> primaryImageIndex;
     
     public static final Predicate<Image> IS_PRIMARY_IMAGE = input -> input != null &&
             input.getTheme() != null &&
@@ -228,12 +231,12 @@ public class Channel extends Identified {
      */
     @Nullable
     public String getTitle() {
-        return TemporalField.currentOrFutureValue(titles);
+        return titleIndex().currentOrFutureValue();
     }
 
     @Nullable
     public String getTitleForDate(LocalDate date) {
-        return Iterables.getOnlyElement(TemporalField.valuesForDate(titles, date), null);
+        return Iterables.getOnlyElement(titleIndex().valuesForDate(date), null);
     }
 
     public Iterable<TemporalField<String>> getAllTitles() {
@@ -315,19 +318,15 @@ public class Channel extends Identified {
      */
     @Nullable
     public Image getImage() {
-        Iterable<TemporalField<Image>> primaryImages = Iterables.filter(
-            images,
-            MorePredicates.transformingPredicate(TemporalField.toValueFunction(), IS_PRIMARY_IMAGE)
-        );
-        return TemporalField.currentOrFutureValue(primaryImages);
+        return primaryImageIndex().currentOrFutureValue();
     }
     
     public Set<Image> getImages() {
-        return TemporalField.currentValues(images);
+        return imageIndex().currentValues();
     }
     
     public Set<Image> getImagesForDate(LocalDate date) {
-        return TemporalField.valuesForDate(images, date);
+        return imageIndex().valuesForDate(date);
     }
     
     public Iterable<TemporalField<Image>> getAllImages() {
@@ -371,14 +370,17 @@ public class Channel extends Identified {
             @Nullable LocalDate endDate
     ) {
         this.titles.add(new TemporalField<>(title, startDate, endDate));
+        this.titleIndex = null;
     }
     
     public void addTitle(@Nullable TemporalField<String> title) {
         this.titles.add(title);
+        this.titleIndex = null;
     }
     
     public void setTitles(Iterable<TemporalField<String>> titles) {
         this.titles = Sets.newHashSet(titles);
+        this.titleIndex = null;
     }
     
     public void setMediaType(@Nullable MediaType mediaType) {
@@ -503,14 +505,49 @@ public class Channel extends Identified {
             @Nullable LocalDate endDate
     ) {
         this.images.add(new TemporalField<>(image, startDate, endDate));
+        resetImageIndexes();
     }
     
     public void addImage(@Nullable TemporalField<Image> image) {
         this.images.add(image);
+        resetImageIndexes();
     }
     
     public void setImages(Iterable<TemporalField<Image>> images) {
         this.images = Sets.newHashSet(images);
+        resetImageIndexes();
+    }
+
+    private void resetImageIndexes() {
+        this.imageIndex = null;
+        this.primaryImageIndex = null;
+    }
+
+    private TemporalFieldIndex<String> titleIndex() {
+        TemporalFieldIndex<String> index = titleIndex;
+        if (index == null) {
+            index = TemporalFieldIndex.index(titles);
+            titleIndex = index;
+        }
+        return index;
+    }
+
+    private TemporalFieldIndex<Image> imageIndex() {
+        TemporalFieldIndex<Image> index = imageIndex;
+        if (index == null) {
+            index = TemporalFieldIndex.index(images);
+            imageIndex = index;
+        }
+        return index;
+    }
+
+    private TemporalFieldIndex<Image> primaryImageIndex() {
+        TemporalFieldIndex<Image> index = primaryImageIndex;
+        if (index == null) {
+            index = TemporalFieldIndex.index(images, IS_PRIMARY_IMAGE);
+            primaryImageIndex = index;
+        }
+        return index;
     }
     
     public void addRelatedLink(@Nullable RelatedLink relatedLink) {
@@ -18,6 +18,9 @@ public abstract class ChannelGroup extends Identified {
     private Set<TemporalField<String>> titles = Sets.newHashSet();
     private Set<Country> availableCountries = Sets.newHashSet();
     private Set<ChannelNumbering> channelNumberings = ImmutableSet.of();
+
+    /* derived from titles, rebuilt on first read after they change. */
+    private transient TemporalFieldIndex<String> titleIndex;
     
     public abstract ChannelGroup copy();
 
@@ -30,11 +33,11 @@ public abstract class ChannelGroup extends Identified {
     }
     
     public String getTitle() {
-        return TemporalField.currentOrFutureValue(titles);
+        return titleIndex().currentOrFutureValue();
     }
     
     public String getTitleForDate(LocalDate date) {
-        return Iterables.getOnlyElement(TemporalField.valuesForDate(titles, date), null);
+        return Iterables.getOnlyElement(titleIndex().valuesForDate(date), null);
     }
     
     public Iterable<TemporalField<String>> getAllTitles() {
@@ -51,14 +54,26 @@ public abstract class ChannelGroup extends Identified {
 
     public void addTitle(String title, LocalDate startDate, LocalDate endDate) {
         this.titles.add(new TemporalField<String>(title, startDate, endDate));
+        this.titleIndex = null;
     }
 
     public void addTitle(TemporalField<String> title) {
         this.titles.add(title);
+        this.titleIndex = null;
     }
 
     public void setTitles(Iterable<TemporalField<String>> titles) {
         this.titles = Sets.newHashSet(titles);
+        this.titleIndex = null;
+    }
+
+    private TemporalFieldIndex<String> titleIndex() {
+        TemporalFieldIndex<String> index = titleIndex;
+        if (index == null) {
+            index = TemporalFieldIndex.index(titles);
+            titleIndex = index;
+        }
+        return index;
     }
 
     public Set<Country> getAvailableCountries() {
@@ -113,6 +128,7 @@ public abstract class ChannelGroup extends Identified {
     public static void copyTo(ChannelGroup from, ChannelGroup to) {
         to.publisher = from.publisher;
         to.titles = Sets.newHashSet(from.titles);
+        to.titleIndex = null;
         to.availableCountries = Sets.newHashSet(from.availableCountries);
         to.channelNumberings = ImmutableSet.copyOf(from.channelNumberings);
     }
@@ -0,0 +1,159 @@
+package org.atlasapi.media.channel;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.joda.time.LocalDate;
+
+import com.google.common.base.Objects;
+import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Maps;
+
+/**
+ * The {@link ChannelNumbering}s of a set of channel groups, indexed by group
+ * and number and by channel, so lineup lookups for a date are map lookups and
+ * a binary search over the few numberings of a key rather than scans of every
+ * group's numberings.
+ * <p>
+ * Numberings without a channel or number are not indexed, and those without
+ * a channel group are indexed by channel only. Where more than one
+ * numbering is valid on a date, the earliest starting comes first.
+ */
+public final class ChannelLineupIndex {
+
+    public static ChannelLineupIndex fromChannelGroups(Iterable<? extends ChannelGroup> channelGroups) {
+        ImmutableList.Builder<ChannelNumbering> numberings = ImmutableList.builder();
+        for (ChannelGroup channelGroup : channelGroups) {
+            numberings.addAll(channelGroup.getChannelNumberings());
+        }
+        return fromNumberings(numberings.build());
+    }
+
+    public static ChannelLineupIndex fromNumberings(Iterable<ChannelNumbering> numberings) {
+        ImmutableListMultimap.Builder<Long, TemporalField<ChannelNumbering>> byGroup
+                = ImmutableListMultimap.builder();
+        ImmutableListMultimap.Builder<Long, TemporalField<ChannelNumbering>> byChannel
+                = ImmutableListMultimap.builder();
+        for (ChannelNumbering numbering : numberings) {
+            if (numbering.getChannel() == null || numbering.getChannelNumber() == null) {
+                continue;
+            }
+            TemporalField<ChannelNumbering> field = new TemporalField<ChannelNumbering>(
+                    numbering, numbering.getStartDate(), numbering.getEndDate());
+            if (numbering.getChannelGroup() != null) {
+                byGroup.put(numbering.getChannelGroup(), field);
+            }
+            byChannel.put(numbering.getChannel(), field);
+        }
+        return new ChannelLineupIndex(byGroup.build(), byChannel.build());
+    }
+
+    private final ImmutableMap<Long, GroupLineup> groups;
+    private final ImmutableMap<Long, TemporalFieldIndex<ChannelNumbering>> channels;
+
+    private ChannelLineupIndex(ImmutableListMultimap<Long, TemporalField<ChannelNumbering>> byGroup,
+            ImmutableListMultimap<Long, TemporalField<ChannelNumbering>> byChannel) {
+        ImmutableMap.Builder<Long, GroupLineup> groups = ImmutableMap.builder();
+        for (Entry<Long, Collection<TemporalField<ChannelNumbering>>> group : byGroup.asMap().entrySet()) {
+            groups.put(group.getKey(), new GroupLineup(group.getValue()));
+        }
+        this.groups = groups.build();
+        ImmutableMap.Builder<Long, TemporalFieldIndex<ChannelNumbering>> channels = ImmutableMap.builder();
+        for (Entry<Long, Collection<TemporalField<ChannelNumbering>>> channel : byChannel.asMap().entrySet()) {
+            channels.put(channel.getKey(), TemporalFieldIndex.index(channel.getValue()));
+        }
+        this.channels = channels.build();
+    }
+
+    /**
+     * The id of the channel numbered {@code number} in the channel group on
+     * {@code date}.
+     */
+    public Optional<Long> channelFor(long channelGroup, String number, LocalDate date) {
+        GroupLineup lineup = groups.get(channelGroup);
+        if (lineup == null) {
+            return Optional.absent();
+        }
+        TemporalFieldIndex<ChannelNumbering> numberings = lineup.byNumber.get(number);
+        if (numberings == null) {
+            return Optional.absent();
+        }
+        ChannelNumbering numbering = Iterables.getFirst(numberings.valuesForDate(date), null);
+        return numbering == null ? Optional.<Long>absent() : Optional.of(numbering.getChannel());
+    }
+
+    /**
+     * The numberings of the channel group valid on {@code date}.
+     */
+    public ImmutableSet<ChannelNumbering> lineup(long channelGroup, LocalDate date) {
+        GroupLineup lineup = groups.get(channelGroup);
+        return lineup == null ? ImmutableSet.<ChannelNumbering>of() : lineup.all.valuesForDate(date);
+    }
+
+    /**
+     * Every numbering of the channel, across all groups and dates.
+     */
+    public ImmutableSet<ChannelNumbering> numberingsFor(long channel) {
+        TemporalFieldIndex<ChannelNumbering> numberings = channels.get(channel);
+        if (numberings == null) {
+            return ImmutableSet.of();
+        }
+        ImmutableSet.Builder<ChannelNumbering> all = ImmutableSet.builder();
+        for (TemporalField<ChannelNumbering> numbering : numberings.fields()) {
+            all.add(numbering.getValue());
+        }
+        return all.build();
+    }
+
+    /**
+     * The numberings of the channel, across all groups, valid on {@code date}.
+     */
+    public ImmutableSet<ChannelNumbering> numberingsFor(long channel, LocalDate date) {
+        TemporalFieldIndex<ChannelNumbering> numberings = channels.get(channel);
+        return numberings == null ? ImmutableSet.<ChannelNumbering>of() : numberings.valuesForDate(date);
+    }
+
+    public ImmutableSet<Long> channelGroups() {
+        return groups.keySet();
+    }
+
+    @Override
+    public String toString() {
+        return Objects.toStringHelper(this)
+                .add("channelGroups", groups.size())
+                .add("channels", channels.size())
+                .toString();
+    }
+
+    private static final class GroupLineup {
+
+        private final TemporalFieldIndex<ChannelNumbering> all;
+        private final ImmutableMap<String, TemporalFieldIndex<ChannelNumbering>> byNumber;
+
+        private GroupLineup(Collection<TemporalField<ChannelNumbering>> numberings) {
+            this.all = TemporalFieldIndex.index(numberings);
+            Map<String, ImmutableList.Builder<TemporalField<ChannelNumbering>>> byNumber
+                    = Maps.newHashMap();
+            for (TemporalField<ChannelNumbering> numbering : numberings) {
+                String number = numbering.getValue().getChannelNumber();
+                ImmutableList.Builder<TemporalField<ChannelNumbering>> forNumber = byNumber.get(number);
+                if (forNumber == null) {
+                    forNumber = ImmutableList.builder();
+                    byNumber.put(number, forNumber);
+                }
+                forNumber.add(numbering);
+            }
+            ImmutableMap.Builder<String, TemporalFieldIndex<ChannelNumbering>> indexes = ImmutableMap.builder();
+            for (Entry<String, ImmutableList.Builder<TemporalField<ChannelNumbering>>> number : byNumber.entrySet()) {
+                indexes.put(number.getKey(), TemporalFieldIndex.index(number.getValue().build()));
+            }
+            this.byNumber = indexes.build();
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package org.atlasapi.media.channel;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+
+import javax.annotation.Nullable;
+
+import com.google.common.base.Function;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
+
+/**
+ * A fixed set of channels, each given a dense int id in the order they were
+ * registered, with constant-time lookups by id, uri and key.
+ * <p>
+ * Bulk conversions between keys, ids and channels write into arrays given by
+ * the caller so they can be reused across calls. {@link #toChannel(int)}
+ * bridges a registered channel to a {@link Channel}.
+ */
+public final class ChannelRegistry<C> {
+
+    /**
+     * The id of a uri or key which is not registered.
+     */
+    public static final int NO_ID = -1;
+
+    public static <C> ChannelRegistry<C> of(
+            Iterable<? extends C> channels,
+            Function<? super C, String> toUri,
+            Function<? super C, String> toKey,
+            Function<? super C, String> toTitle
+    ) {
+        return new ChannelRegistry<C>(ImmutableList.copyOf(channels), toUri, toKey, toTitle);
+    }
+
+    /**
+     * The public static final fields of {@code declaringClass} holding a
+     * {@code type}, by field name, in the order reflection returns them.
+     */
+    public static <C> ImmutableMap<String, C> constants(Class<?> declaringClass, Class<C> type) {
+        ImmutableMap.Builder<String, C> constants = ImmutableMap.builder();
+        for (Field field : declaringClass.getFields()) {
+            int modifiers = field.getModifiers();
+            if (Modifier.isStatic(modifiers) && Modifier.isFinal(modifiers)
+                    && type.isAssignableFrom(field.getType())) {
+                try {
+                    Object value = field.get(null);
+                    if (type.isInstance(value)) {
+                        constants.put(field.getName(), type.cast(value));
+                    }
+                } catch (IllegalAccessException e) {
+                    throw new IllegalStateException("Can't read channel " + field.getName(), e);
+                }
+            }
+        }
+        return constants.build();
+    }
+
+    private final ImmutableList<C> channels;
+    private final String[] uris;
+    private final String[] keys;
+    private final String[] titles;
+    private final ImmutableMap<String, Integer> idsByUri;
+    private final ImmutableMap<String, Integer> idsByKey;
+
+    private ChannelRegistry(
+            ImmutableList<C> channels,
+            Function<? super C, String> toUri,
+            Function<? super C, String> toKey,
+            Function<? super C, String> toTitle
+    ) {
+        this.channels = channels;
+        this.uris = new String[channels.size()];
+        this.keys = new String[channels.size()];
+        this.titles = new String[channels.size()];
+        Map<String, Integer> idsByUri = Maps.newHashMapWithExpectedSize(channels.size());
+        Map<String, Integer> idsByKey = Maps.newHashMapWithExpectedSize(channels.size());
+        for (int id = 0; id < channels.size(); id++) {
+            C channel = channels.get(id);
+            uris[id] = checkNotNull(toUri.apply(channel));
+            keys[id] = checkNotNull(toKey.apply(channel));
+            titles[id] = toTitle.apply(channel);
+            checkArgument(idsByUri.put(uris[id], id) == null, "Duplicate channel uri %s", uris[id]);
+            checkArgument(idsByKey.put(keys[id], id) == null, "Duplicate channel key %s", keys[id]);
+        }
+        this.idsByUri = ImmutableMap.copyOf(idsByUri);
+        this.idsByKey = ImmutableMap.copyOf(idsByKey);
+    }
+
+    public int size() {
+        return channels.size();
+    }
+
+    /**
+     * The registered channels, in id order.
+     */
+    public ImmutableList<C> all() {
+        return channels;
+    }
+
+    public C channel(int id) {
+        return channels.get(id);
+    }
+
+    public String uri(int id) {
+        return uris[id];
+    }
+
+    public String key(int id) {
+        return keys[id];
+    }
+
+    public String title(int id) {
+        return titles[id];
+    }
+
+    /**
+     * The id of the channel with {@code uri}, or {@link #NO_ID}.
+     */
+    public int idForUri(String uri) {
+        Integer id = idsByUri.get(uri);
+        return id == null ? NO_ID : id;
+    }
+
+    /**
+     * The id of the channel with {@code key}, or {@link #NO_ID}.
+     */
+    public int idForKey(String key) {
+        Integer id = idsByKey.get(key);
+        return id == null ? NO_ID : id;
+    }
+
+    @Nullable
+    public C forUri(String uri) {
+        int id = idForUri(uri);
+        return id == NO_ID ? null : channels.get(id);
+    }
+
+    @Nullable
+    public C forKey(String key) {
+        int id = idForKey(key);
+        return id == NO_ID ? null : channels.get(id);
+    }
+
+    /**
+     * The id of the registered channel with the uri of {@code channel}, or
+     * failing that its key, or {@link #NO_ID}.
+     */
+    public int idFor(Channel channel) {
+        int id = channel.getUri() == null ? NO_ID : idForUri(channel.getUri());
+        if (id == NO_ID && channel.getKey() != null) {
+            id = idForKey(channel.getKey());
+        }
+        return id;
+    }
+
+    /**
+     * A new {@link Channel} with the uri, key and title of the channel with
+     * {@code id}.
+     */
+    public Channel toChannel(int id) {
+        Channel.Builder channel = Channel.builder()
+                .withUri(uris[id])
+                .withKey(keys[id]);
+        if (titles[id] != null) {
+            channel.withTitle(titles[id]);
+        }
+        return channel.build();
+    }
+
+    /**
+     * Writes the id of each of {@code keys}, or {@link #NO_ID}, to
+     * {@code ids} from index 0.
+     *
+     * @return the number of ids written.
+     */
+    public int idsForKeys(Iterable<String> keys, int[] ids) {
+        int count = 0;
+        for (String key : keys) {
+            ids[count++] = idForKey(key);
+        }
+        return count;
+    }
+
+    /**
+     * Writes the keys of the first {@code count} of {@code ids} to
+     * {@code keys} from index 0.
+     */
+    public void keysForIds(int[] ids, int count, String[] keys) {
+        for (int i = 0; i < count; i++) {
+            keys[i] = this.keys[ids[i]];
+        }
+    }
+
+    /**
+     * Writes the channels of the first {@code count} of {@code ids} to
+     * {@code channels} from index 0.
+     */
+    public void channelsForIds(int[] ids, int count, C[] channels) {
+        for (int i = 0; i < count; i++) {
+            channels[i] = this.channels.get(ids[i]);
+        }
+    }
+}
@@ -1,7 +1,5 @@
 package org.atlasapi.media.channel;
 
-import java.lang.reflect.Field;
-import java.lang.reflect.Modifier;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
@@ -11,7 +9,6 @@ import java.util.regex.Pattern;
 import com.google.common.base.Objects;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
-import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Lists;
 import com.metabroadcast.common.base.Maybe;
 import com.metabroadcast.common.model.SelfModelling;
@@ -1031,31 +1028,17 @@ public class OldChannel extends Channel implements SelfModelling {
     private final static List<OldChannel> VOD_SERVICES = ImmutableList.of(BBC_IPLAYER, HULU, C4_4OD, YOUTUBE, SEESAW);
     private final String key;
     
-    private final static Map<String, OldChannel> uriMap;
-    private final static Map<String, OldChannel> keyMap;
+    private final static ChannelRegistry<OldChannel> registry;
     
     private final static Pattern uriPattern = Pattern.compile("^.*\\/(.+?)\\/?$");
     
     static {
-        ImmutableMap.Builder<String, OldChannel> uriMapBuilder = ImmutableMap.builder();
-        ImmutableMap.Builder<String, OldChannel> keyMapBuilder = ImmutableMap.builder();
-        for (Field field: Channel.getClass().getFields()) {
-            if (isPublicStaticFinal(field)) {
-                try {
-                    Object object = field.get(null);
-                    if (object instanceof OldChannel) {
-                        OldChannel channel = (OldChannel) object;
-                        
-                        uriMapBuilder.put(channel.getUri(), channel);
-                        keyMapBuilder.put(channel.getKey(), channel);
-                    }
-                } catch (Exception e) {
-                    e.printStackTrace();
-                }
-            }
-        }
-        uriMap = uriMapBuilder.build();
-        keyMap = keyMapBuilder.build();
+        registry = ChannelRegistry.of(
+                ChannelRegistry.constants(OldChannel.class, OldChannel.class).values(),
+                OldChannel::getUri,
+                OldChannel::getKey,
+                OldChannel::getTitle
+        );
     }
 
     public OldChannel(String title, String uri, String key) {
@@ -1078,7 +1061,7 @@ public class OldChannel extends Channel implements SelfModelling {
     }
 
     public static Maybe<OldChannel> fromUri(String uri) {
-        OldChannel channel = uriMap.get(uri);
+        OldChannel channel = registry.forUri(uri);
         if (channel == null) {
             Matcher matcher = uriPattern.matcher(uri);
             if (matcher.matches()) {
@@ -1089,7 +1072,7 @@ public class OldChannel extends Channel implements SelfModelling {
     }
 
     public static Maybe<OldChannel> fromKey(String key) {
-        OldChannel channel = keyMap.get(key);
+        OldChannel channel = registry.forKey(key);
         if (channel == null) {
             channel = new OldChannel(key, CHANNEL_URI_PREFIX+key, key);
         }
@@ -1120,20 +1103,27 @@ public class OldChannel extends Channel implements SelfModelling {
     }
     
     public static Collection<OldChannel> all() {
-    	return keyMap.values();
+    	return registry.all();
 	}
+    
+    /**
+     * The channels declared here, with dense ids for bulk conversions.
+     */
+    public static ChannelRegistry<OldChannel> registry() {
+        return registry;
+    }
 
     public static List<Map<String, ?>> mapList() {
-        List<Map<String, ?>> channelList = Lists.newArrayList();
-        for (OldChannel channel : keyMap.values()) {
+        List<Map<String, ?>> channelList = Lists.newArrayListWithCapacity(registry.size());
+        for (OldChannel channel : registry.all()) {
             channelList.add(channel.toSimpleModel().asMap());
         }
         return channelList;
     }
 
     public static List<Map<String, ?>> mapListWithoutVodServices() {
-        List<Map<String, ?>> channelList = Lists.newArrayList();
-        for (OldChannel channel : keyMap.values()) {
+        List<Map<String, ?>> channelList = Lists.newArrayListWithCapacity(registry.size());
+        for (OldChannel channel : registry.all()) {
             if (!VOD_SERVICES.contains(channel)) {
                 channelList.add(channel.toSimpleModel().asMap());
             }
@@ -1151,11 +1141,6 @@ public class OldChannel extends Channel implements SelfModelling {
         return model;
     }
     
-    private static boolean isPublicStaticFinal(Field field) {
-        int modifiers = field.getModifiers();
-        return (Modifier.isPublic(modifiers) && Modifier.isStatic(modifiers) && Modifier.isFinal(modifiers));
-    }
-    
     @Override
     public boolean equals(Object obj) {
         if (obj instanceof OldChannel) {
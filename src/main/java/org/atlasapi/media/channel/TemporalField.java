@@ -73,7 +73,7 @@ public class TemporalField<T> implements Comparable<TemporalField<T>> {
     
     public static <T> T currentOrFutureValue(Iterable<TemporalField<T>> values) {
         final LocalDate now = new LocalDate();
-        Set<T> currentValues = TemporalField.currentValues(values);
+        Set<T> currentValues = TemporalField.valuesForDate(values, now);
         if (!currentValues.isEmpty()) {
             return Iterables.getFirst(currentValues, null);
         }
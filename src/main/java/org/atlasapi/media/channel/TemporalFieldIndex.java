@@ -0,0 +1,172 @@
+package org.atlasapi.media.channel;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import javax.annotation.Nullable;
+
+import org.joda.time.LocalDate;
+
+import com.google.common.base.Objects;
+import com.google.common.base.Predicate;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Ordering;
+
+/**
+ * An immutable set of {@link TemporalField}s sorted once by start date, so the
+ * values for a date and the current or next value are found by binary search
+ * rather than by filtering, and sorting, every field on each call.
+ * <p>
+ * Fields without a start date are treated as having started before any date.
+ * Values are returned in start date order.
+ */
+public final class TemporalFieldIndex<T> {
+
+    private static final Comparator<TemporalField<?>> BY_START
+            = new Comparator<TemporalField<?>>() {
+                @Override
+                public int compare(TemporalField<?> left, TemporalField<?> right) {
+                    return Ordering.natural().nullsFirst()
+                            .compare(left.getStartDate(), right.getStartDate());
+                }
+            };
+
+    private static final TemporalFieldIndex<Object> EMPTY
+            = new TemporalFieldIndex<Object>(new TemporalField<?>[0]);
+
+    @SuppressWarnings("unchecked")
+    public static <T> TemporalFieldIndex<T> empty() {
+        return (TemporalFieldIndex<T>) EMPTY;
+    }
+
+    public static <T> TemporalFieldIndex<T> index(Iterable<TemporalField<T>> fields) {
+        TemporalField<?>[] sorted = Iterables.toArray(fields, TemporalField.class);
+        if (sorted.length == 0) {
+            return empty();
+        }
+        // stable, so fields starting together keep their iteration order
+        Arrays.sort(sorted, BY_START);
+        return new TemporalFieldIndex<T>(sorted);
+    }
+
+    public static <T> TemporalFieldIndex<T> index(Iterable<TemporalField<T>> fields,
+            Predicate<? super T> valuePredicate) {
+        ImmutableList.Builder<TemporalField<T>> matching = ImmutableList.builder();
+        for (TemporalField<T> field : fields) {
+            if (valuePredicate.apply(field.getValue())) {
+                matching.add(field);
+            }
+        }
+        return index(matching.build());
+    }
+
+    private final TemporalField<?>[] fields;
+
+    private TemporalFieldIndex(TemporalField<?>[] fields) {
+        this.fields = fields;
+    }
+
+    public int size() {
+        return fields.length;
+    }
+
+    public boolean isEmpty() {
+        return fields.length == 0;
+    }
+
+    /**
+     * Every field, in start date order.
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public List<TemporalField<T>> fields() {
+        return (List) ImmutableList.copyOf(fields);
+    }
+
+    /**
+     * The values of the fields valid on {@code date}: those starting on or
+     * before it and ending after it.
+     */
+    public ImmutableSet<T> valuesForDate(LocalDate date) {
+        ImmutableSet.Builder<T> values = ImmutableSet.builder();
+        for (int i = 0, upper = firstStartAfter(date); i < upper; i++) {
+            if (isValidOn(i, date)) {
+                values.add(value(i));
+            }
+        }
+        return values.build();
+    }
+
+    public ImmutableSet<T> currentValues() {
+        return valuesForDate(new LocalDate());
+    }
+
+    /**
+     * The first value valid on {@code date}, otherwise the value of the first
+     * field starting after it.
+     */
+    @Nullable
+    public T valueOrNextForDate(LocalDate date) {
+        int upper = firstStartAfter(date);
+        for (int i = 0; i < upper; i++) {
+            if (isValidOn(i, date)) {
+                return value(i);
+            }
+        }
+        return nextValue(upper);
+    }
+
+    @Nullable
+    public T currentOrFutureValue() {
+        return valueOrNextForDate(new LocalDate());
+    }
+
+    /**
+     * The value of the first field starting after {@code date}.
+     */
+    @Nullable
+    public T nextValueAfter(LocalDate date) {
+        return nextValue(firstStartAfter(date));
+    }
+
+    private T nextValue(int index) {
+        return index < fields.length ? value(index) : null;
+    }
+
+    private boolean isValidOn(int index, LocalDate date) {
+        LocalDate end = fields[index].getEndDate();
+        return end == null || end.compareTo(date) > 0
+            // fields without a start are valid regardless of their end
+            || fields[index].getStartDate() == null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private T value(int index) {
+        return (T) fields[index].getValue();
+    }
+
+    /* fields before this index have no start date or start on or before date. */
+    private int firstStartAfter(LocalDate date) {
+        int low = 0;
+        int high = fields.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            LocalDate start = fields[mid].getStartDate();
+            if (start == null || start.compareTo(date) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    @Override
+    public String toString() {
+        return Objects.toStringHelper(this)
+                .addValue(Arrays.toString(fields))
+                .toString();
+    }
+}
@@ -1,7 +1,5 @@
 package org.atlasapi.media.entity;
 
-import java.lang.reflect.Field;
-import java.lang.reflect.Modifier;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
@@ -13,11 +11,11 @@ import com.google.common.base.Optional;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableList.Builder;
-import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Lists;
 import com.metabroadcast.common.base.Maybe;
 import com.metabroadcast.common.model.SelfModelling;
 import com.metabroadcast.common.model.SimpleModel;
+import org.atlasapi.media.channel.ChannelRegistry;
 
 /**
  * This class has been deprecated, however it still might be used by some servies.
@@ -1244,36 +1242,15 @@ public class Channel implements SelfModelling {
     private final static List<Channel> VOD_SERVICES = ImmutableList.of(BBC_IPLAYER, HULU, C4_4OD, YOUTUBE, SEESAW);
     private final String key;
     
-    private final static Map<String, Channel> uriMap;
-    private final static Map<String, Channel> keyMap;
+    private final static ChannelRegistry<Channel> registry;
     private final static Map<String, Channel> fieldNameMap;
     
     private final static Pattern uriPattern = Pattern.compile("^.*\\/(.+?)\\/?$");
     
     static {
-        ImmutableMap.Builder<String, Channel> uriMapBuilder = ImmutableMap.builder();
-        ImmutableMap.Builder<String, Channel> keyMapBuilder = ImmutableMap.builder();
-        ImmutableMap.Builder<String, Channel> fieldNameMapBuilder = ImmutableMap.builder();
-        
-        for (Field field: Channel.getClass().getFields()) {
-            if (isPublicStaticFinal(field)) {
-                try {
-                    Object object = field.get(null);
-                    if (object instanceof Channel) {
-                        Channel channel = (Channel) object;
-                        
-                        uriMapBuilder.put(channel.uri(), channel);
-                        keyMapBuilder.put(channel.key(), channel);
-                        fieldNameMapBuilder.put(field.getName(), channel);
-                    }
-                } catch (Exception e) {
-                    e.printStackTrace();
-                }
-            }
-        }
-        uriMap = uriMapBuilder.build();
-        keyMap = keyMapBuilder.build();
-        fieldNameMap = fieldNameMapBuilder.build();
+        fieldNameMap = ChannelRegistry.constants(Channel.class, Channel.class);
+        registry = ChannelRegistry.of(fieldNameMap.values(),
+                channel -> channel.uri(), channel -> channel.key(), channel -> channel.title());
     }
 
     public Channel(String title, String uri, String key, Boolean highDefinition) {
@@ -1301,7 +1278,7 @@ public class Channel implements SelfModelling {
     }
 
     public static Maybe<Channel> fromUri(String uri) {
-        Channel channel = uriMap.get(uri);
+        Channel channel = registry.forUri(uri);
         if (channel == null) {
             Matcher matcher = uriPattern.matcher(uri);
             if (matcher.matches()) {
@@ -1312,7 +1289,7 @@ public class Channel implements SelfModelling {
     }
 
     public static Maybe<Channel> fromKey(String key) {
-        Channel channel = keyMap.get(key);
+        Channel channel = registry.forKey(key);
         if (channel == null) {
             channel = new Channel(key, CHANNEL_URI_PREFIX+key, key, false);
         }
@@ -1347,20 +1324,27 @@ public class Channel implements SelfModelling {
     }
     
     public static Collection<Channel> all() {
-    	return keyMap.values();
+    	return registry.all();
 	}
+    
+    /**
+     * The channels declared here, with dense ids for bulk conversions.
+     */
+    public static ChannelRegistry<Channel> registry() {
+        return registry;
+    }
 
     public static List<Map<String, ?>> mapList() {
-        List<Map<String, ?>> channelList = Lists.newArrayList();
-        for (Channel channel : keyMap.values()) {
+        List<Map<String, ?>> channelList = Lists.newArrayListWithCapacity(registry.size());
+        for (Channel channel : registry.all()) {
             channelList.add(channel.toSimpleModel().asMap());
         }
         return channelList;
     }
 
     public static List<Map<String, ?>> mapListWithoutVodServices() {
-        List<Map<String, ?>> channelList = Lists.newArrayList();
-        for (Channel channel : keyMap.values()) {
+        List<Map<String, ?>> channelList = Lists.newArrayListWithCapacity(registry.size());
+        for (Channel channel : registry.all()) {
             if (!VOD_SERVICES.contains(channel)) {
                 channelList.add(channel.toSimpleModel().asMap());
             }
@@ -1379,11 +1363,6 @@ public class Channel implements SelfModelling {
         return model;
     }
     
-    private static boolean isPublicStaticFinal(Field field) {
-        int modifiers = field.getModifiers();
-        return (Modifier.isPublic(modifiers) && Modifier.isStatic(modifiers) && Modifier.isFinal(modifiers));
-    }
-    
     @Override
     public boolean equals(Object obj) {
         if (obj instanceof Channel) {
@@ -208,6 +208,10 @@ public abstract class Content extends Described {
         this.readHash = readHash;
     }
 
+    public String getReadHash() {
+        return readHash;
+    }
+
     public boolean hashChanged(String newHash) {
         return readHash == null || !this.readHash.equals(newHash);
     }
@@ -0,0 +1,397 @@
+package org.atlasapi.media.entity;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import org.joda.time.DateTime;
+import org.joda.time.ReadableInstant;
+
+import com.google.common.base.Charsets;
+import com.google.common.base.Objects;
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+
+/**
+ * Computes a stable fingerprint of an entity graph, suitable as the
+ * {@link Content#getReadHash() read hash} of content, by streaming the
+ * entities' fields into a hash rather than serializing them.
+ * <p>
+ * Every non-static, non-transient field is included, as the JSON mapper
+ * persists them, apart from the timestamps that record when an entity was
+ * fetched or updated rather than what it is. Sets and maps are hashed
+ * independently of iteration order; enums are hashed by name, so
+ * fingerprints are stable across JVMs.
+ * <p>
+ * A {@link #memoising(long) memoising} fingerprinter remembers the
+ * fingerprints of the {@link Version}s, {@link Broadcast}s, {@link Encoding}s
+ * and {@link Location}s it has seen by a stable identity (the canonical URI,
+ * else the id, else a broadcast's source id or a location's URI) rather than
+ * by object, so the fresh objects of each ingest write reuse them. A
+ * remembered fingerprint is reused while the entity's
+ * {@link Identified#getLastUpdated() last updated} time, and the identity and
+ * time of each of those entities held in its fields, are unchanged. So writers
+ * using one must update that time when they change such an entity. Entities
+ * without an identity or a last updated time, or holding such an entity, are
+ * always hashed.
+ */
+public final class ContentFingerprinter {
+
+    private static final HashFunction HASH = Hashing.murmur3_128();
+
+    /* hashed separately and included by hash. */
+    private static final ImmutableSet<Class<? extends Identified>> SUBTREE_TYPES
+            = ImmutableSet.of(Version.class, Broadcast.class, Encoding.class, Location.class);
+
+    private static final ImmutableSet<String> EXCLUDED_FIELDS = ImmutableSet.of(
+            field(Identified.class, "lastUpdated"),
+            field(Identified.class, "equivalenceUpdate"),
+            field(Described.class, "firstSeen"),
+            field(Described.class, "lastFetched"),
+            field(Described.class, "thisOrChildLastUpdated")
+    );
+
+    private static final byte NULL = 0;
+    private static final byte VALUE = 1;
+    private static final byte SEEN = 2;
+
+    private static final LoadingCache<Class<?>, ImmutableList<Field>> FIELDS
+            = CacheBuilder.newBuilder()
+                .build(new CacheLoader<Class<?>, ImmutableList<Field>>() {
+                    @Override
+                    public ImmutableList<Field> load(Class<?> type) {
+                        return fieldsOf(type);
+                    }
+                });
+
+    public static ContentFingerprinter create() {
+        return new ContentFingerprinter(null);
+    }
+
+    /**
+     * @param maximumSize
+     *            - the most entity fingerprints to remember.
+     */
+    public static ContentFingerprinter memoising(long maximumSize) {
+        checkArgument(maximumSize > 0, "maximum size %s must be positive", maximumSize);
+        Cache<MemoKey, Memo> memos = CacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .build();
+        return new ContentFingerprinter(memos);
+    }
+
+    private final Cache<MemoKey, Memo> memos;
+
+    private ContentFingerprinter(Cache<MemoKey, Memo> memos) {
+        this.memos = memos;
+    }
+
+    public HashCode fingerprint(Identified entity) {
+        return hash(checkNotNull(entity), new IdentityHashMap<Object, Boolean>());
+    }
+
+    /**
+     * The fingerprint of {@code content} in the form used for its read hash.
+     */
+    public String readHash(Content content) {
+        return fingerprint(content).toString();
+    }
+
+    /**
+     * Whether {@code content} differs from the content its read hash was
+     * taken from.
+     */
+    public boolean hashChanged(Content content) {
+        return content.hashChanged(readHash(content));
+    }
+
+    private HashCode hash(Object value, IdentityHashMap<Object, Boolean> path) {
+        Hasher hasher = HASH.newHasher();
+        put(hasher, value, path);
+        return hasher.hash();
+    }
+
+    private void put(Hasher hasher, Object value, IdentityHashMap<Object, Boolean> path) {
+        if (value == null) {
+            hasher.putByte(NULL);
+        } else if (SUBTREE_TYPES.contains(value.getClass())) {
+            hasher.putBytes(subtree((Identified) value, path).asBytes());
+        } else {
+            hasher.putByte(VALUE);
+            putValue(hasher, value, path);
+        }
+    }
+
+    private HashCode subtree(Identified entity, IdentityHashMap<Object, Boolean> path) {
+        MemoKey key = null;
+        HashCode stamp = null;
+        if (memos != null) {
+            key = MemoKey.of(entity);
+            stamp = key == null ? null : stamp(entity);
+            Memo memo = stamp == null ? null : memos.getIfPresent(key);
+            if (memo != null && memo.stamp.equals(stamp)) {
+                return memo.hash;
+            }
+        }
+        Hasher hasher = HASH.newHasher();
+        putValue(hasher, entity, path);
+        HashCode hash = hasher.hash();
+        if (stamp != null) {
+            memos.put(key, new Memo(stamp, hash));
+        }
+        return hash;
+    }
+
+    /**
+     * Hashes the identity and last updated time of a subtree and, in turn,
+     * of the subtrees held in its fields, or returns null if any of them
+     * lacks either.
+     */
+    private HashCode stamp(Identified entity) {
+        String identity = identityOf(entity);
+        DateTime lastUpdated = entity.getLastUpdated();
+        if (identity == null || lastUpdated == null) {
+            return null;
+        }
+        Hasher hasher = HASH.newHasher();
+        putString(hasher, identity);
+        hasher.putLong(lastUpdated.getMillis());
+        for (Field field : FIELDS.getUnchecked(entity.getClass())) {
+            Object value;
+            try {
+                value = field.get(entity);
+            } catch (IllegalAccessException e) {
+                throw Throwables.propagate(e);
+            }
+            if (value instanceof Collection) {
+                List<HashCode> stamps = Lists.newArrayList();
+                for (Object element : (Collection<?>) value) {
+                    if (element != null && SUBTREE_TYPES.contains(element.getClass())) {
+                        HashCode stamp = stamp((Identified) element);
+                        if (stamp == null) {
+                            return null;
+                        }
+                        stamps.add(stamp);
+                    }
+                }
+                hasher.putInt(stamps.size());
+                if (!stamps.isEmpty()) {
+                    hasher.putBytes((value instanceof Set ? Hashing.combineUnordered(stamps)
+                                                          : Hashing.combineOrdered(stamps)).asBytes());
+                }
+            } else if (value != null && SUBTREE_TYPES.contains(value.getClass())) {
+                HashCode stamp = stamp((Identified) value);
+                if (stamp == null) {
+                    return null;
+                }
+                hasher.putBytes(stamp.asBytes());
+            }
+        }
+        return hasher.hash();
+    }
+
+    private static String identityOf(Identified entity) {
+        if (entity.getCanonicalUri() != null) {
+            return "uri:" + entity.getCanonicalUri();
+        }
+        if (entity.getId() != null) {
+            return "id:" + entity.getId();
+        }
+        if (entity instanceof Broadcast && ((Broadcast) entity).getSourceId() != null) {
+            return "source:" + ((Broadcast) entity).getSourceId();
+        }
+        if (entity instanceof Location && ((Location) entity).getUri() != null) {
+            return "location:" + ((Location) entity).getUri();
+        }
+        return null;
+    }
+
+    private void putValue(Hasher hasher, Object value, IdentityHashMap<Object, Boolean> path) {
+        if (value instanceof CharSequence) {
+            putString(hasher, value.toString());
+        } else if (value instanceof Boolean) {
+            hasher.putBoolean((Boolean) value);
+        } else if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            hasher.putInt(((Number) value).intValue());
+        } else if (value instanceof Long) {
+            hasher.putLong((Long) value);
+        } else if (value instanceof Float) {
+            hasher.putFloat((Float) value);
+        } else if (value instanceof Double) {
+            hasher.putDouble((Double) value);
+        } else if (value instanceof Character) {
+            hasher.putChar((Character) value);
+        } else if (value instanceof Enum) {
+            putString(hasher, ((Enum<?>) value).name());
+        } else if (value instanceof ReadableInstant) {
+            hasher.putLong(((ReadableInstant) value).getMillis());
+        } else if (isLibraryType(value.getClass())) {
+            putString(hasher, value.toString());
+        } else if (path.containsKey(value)) {
+            // a reference back up the graph
+            hasher.putByte(SEEN);
+        } else {
+            path.put(value, Boolean.TRUE);
+            if (value instanceof Set) {
+                putUnordered(hasher, (Set<?>) value, path);
+            } else if (value instanceof Map) {
+                putUnordered(hasher, ((Map<?, ?>) value).entrySet(), path);
+            } else if (value instanceof Entry) {
+                put(hasher, ((Entry<?, ?>) value).getKey(), path);
+                put(hasher, ((Entry<?, ?>) value).getValue(), path);
+            } else if (value instanceof Collection) {
+                putOrdered(hasher, (Collection<?>) value, path);
+            } else if (value.getClass().isArray()) {
+                putArray(hasher, value, path);
+            } else {
+                putFields(hasher, value, path);
+            }
+            path.remove(value);
+        }
+    }
+
+    private void putString(Hasher hasher, String value) {
+        hasher.putInt(value.length());
+        hasher.putString(value, Charsets.UTF_8);
+    }
+
+    private void putOrdered(Hasher hasher, Collection<?> values, IdentityHashMap<Object, Boolean> path) {
+        hasher.putInt(values.size());
+        for (Object value : values) {
+            put(hasher, value, path);
+        }
+    }
+
+    private void putUnordered(Hasher hasher, Collection<?> values, IdentityHashMap<Object, Boolean> path) {
+        hasher.putInt(values.size());
+        if (values.isEmpty()) {
+            return;
+        }
+        List<HashCode> hashes = Lists.newArrayListWithCapacity(values.size());
+        for (Object value : values) {
+            hashes.add(hash(value, path));
+        }
+        hasher.putBytes(Hashing.combineUnordered(hashes).asBytes());
+    }
+
+    private void putArray(Hasher hasher, Object array, IdentityHashMap<Object, Boolean> path) {
+        int length = Array.getLength(array);
+        hasher.putInt(length);
+        for (int i = 0; i < length; i++) {
+            put(hasher, Array.get(array, i), path);
+        }
+    }
+
+    private void putFields(Hasher hasher, Object value, IdentityHashMap<Object, Boolean> path) {
+        putString(hasher, value.getClass().getName());
+        for (Field field : FIELDS.getUnchecked(value.getClass())) {
+            try {
+                put(hasher, field.get(value), path);
+            } catch (IllegalAccessException e) {
+                throw Throwables.propagate(e);
+            }
+        }
+    }
+
+    private static boolean isLibraryType(Class<?> type) {
+        String name = type.getName();
+        return !type.isArray()
+            && !Collection.class.isAssignableFrom(type)
+            && !Map.class.isAssignableFrom(type)
+            && (name.startsWith("java.") || name.startsWith("org.joda."));
+    }
+
+    /* declared fields, superclass first, excluding static, transient and excluded fields. */
+    private static ImmutableList<Field> fieldsOf(Class<?> type) {
+        ImmutableList.Builder<Field> fields = ImmutableList.builder();
+        if (type.getSuperclass() != null) {
+            fields.addAll(FIELDS.getUnchecked(type.getSuperclass()));
+        }
+        for (Field field : type.getDeclaredFields()) {
+            int modifiers = field.getModifiers();
+            if (Modifier.isStatic(modifiers)
+                || Modifier.isTransient(modifiers)
+                || field.isSynthetic()
+                || EXCLUDED_FIELDS.contains(field(type, field.getName()))) {
+                continue;
+            }
+            field.setAccessible(true);
+            fields.add(field);
+        }
+        return fields.build();
+    }
+
+    private static String field(Class<?> type, String name) {
+        return type.getName() + "#" + name;
+    }
+
+    @Override
+    public String toString() {
+        return Objects.toStringHelper(this)
+                .add("memoising", memos != null)
+                .toString();
+    }
+
+    private static final class MemoKey {
+
+        private static MemoKey of(Identified entity) {
+            String identity = identityOf(entity);
+            return identity == null ? null : new MemoKey(entity.getClass(), identity);
+        }
+
+        private final Class<?> type;
+        private final String identity;
+
+        private MemoKey(Class<?> type, String identity) {
+            this.type = type;
+            this.identity = identity;
+        }
+
+        @Override
+        public boolean equals(Object that) {
+            if (this == that) {
+                return true;
+            }
+            if (that instanceof MemoKey) {
+                MemoKey other = (MemoKey) that;
+                return type.equals(other.type) && identity.equals(other.identity);
+            }
+            return false;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(type, identity);
+        }
+    }
+
+    private static final class Memo {
+
+        private final HashCode stamp;
+        private final HashCode hash;
+
+        private Memo(HashCode stamp, HashCode hash) {
+            this.stamp = stamp;
+            this.hash = hash;
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package org.atlasapi.media.entity;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Set;
+
+import com.google.common.collect.ForwardingSet;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
+
+/**
+ * A mutable set that shares its elements with the sets it was copied from or
+ * to until one of them is changed, at which point the changed set takes a
+ * private copy. Copying one is constant time, so the entity {@code copyTo}
+ * methods can use these for the collections they would otherwise copy
+ * element by element.
+ * <p>
+ * Not thread-safe for writes, as the {@link java.util.HashSet}s these replace
+ * were not. Reading and copying a set are safe from any number of threads at
+ * once, so a cached entity can be copied by concurrent requests, but not
+ * while the set is being changed.
+ */
+final class CopyOnWriteSet<E> extends ForwardingSet<E> {
+
+    public static <E> CopyOnWriteSet<E> create() {
+        return new CopyOnWriteSet<E>(Sets.<E>newHashSet(), false);
+    }
+
+    public static <E> CopyOnWriteSet<E> create(Iterable<? extends E> elements) {
+        return new CopyOnWriteSet<E>(Sets.newHashSet(elements), false);
+    }
+
+    /**
+     * A mutable copy of {@code set}. Immutable sets and other
+     * {@link CopyOnWriteSet}s are shared rather than copied, in constant time;
+     * any other set, such as a {@link java.util.HashSet} given to a setter or
+     * read from JSON, is copied element by element.
+     */
+    public static <E> CopyOnWriteSet<E> copyOf(Set<E> set) {
+        checkNotNull(set);
+        if (set instanceof CopyOnWriteSet) {
+            return ((CopyOnWriteSet<E>) set).share();
+        }
+        if (set instanceof ImmutableSet) {
+            return new CopyOnWriteSet<E>(set, true);
+        }
+        return create(set);
+    }
+
+    private Set<E> delegate;
+    /* whether delegate may be read by another set, so must be copied before a
+     * write. Volatile as it is set by copies made on other threads. */
+    private volatile boolean shared;
+    private int version;
+
+    private CopyOnWriteSet(Set<E> delegate, boolean shared) {
+        this.delegate = delegate;
+        this.shared = shared;
+    }
+
+    private CopyOnWriteSet<E> share() {
+        if (!shared) {
+            shared = true;
+        }
+        return new CopyOnWriteSet<E>(delegate, true);
+    }
+
+    @Override
+    protected Set<E> delegate() {
+        return delegate;
+    }
+
+    /**
+     * Changes whenever an element is added to or removed from this set, so a
+     * value derived from the set can tell whether it is still current.
+     */
+    int version() {
+        return version;
+    }
+
+    private boolean changed(boolean changed) {
+        if (changed) {
+            version++;
+        }
+        return changed;
+    }
+
+    private Set<E> writable() {
+        if (shared) {
+            delegate = Sets.newHashSet(delegate);
+            shared = false;
+        }
+        return delegate;
+    }
+
+    @Override
+    public boolean add(E element) {
+        if (shared && delegate.contains(element)) {
+            return false;
+        }
+        return changed(writable().add(element));
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends E> collection) {
+        return changed(writable().addAll(collection));
+    }
+
+    @Override
+    public boolean remove(Object object) {
+        if (shared && !delegate.contains(object)) {
+            return false;
+        }
+        return changed(writable().remove(object));
+    }
+
+    @Override
+    public boolean removeAll(Collection<?> collection) {
+        return changed(writable().removeAll(collection));
+    }
+
+    @Override
+    public boolean retainAll(Collection<?> collection) {
+        return changed(writable().retainAll(collection));
+    }
+
+    @Override
+    public void clear() {
+        version++;
+        if (shared) {
+            delegate = Sets.newHashSet();
+            shared = false;
+        } else {
+            delegate.clear();
+        }
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        final Iterator<E> iterator = delegate.iterator();
+        return new Iterator<E>() {
+
+            private final Set<E> iterated = delegate;
+            private E last;
+            private boolean removable;
+
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public E next() {
+                last = iterator.next();
+                removable = true;
+                return last;
+            }
+
+            @Override
+            public void remove() {
+                checkState(removable, "no element to remove");
+                removable = false;
+                version++;
+                if (delegate == iterated && !shared) {
+                    iterator.remove();
+                } else {
+                    writable().remove(last);
+                }
+            }
+        };
+    }
+}
@@ -29,7 +29,6 @@ import com.google.common.base.Predicate;
 import com.google.common.collect.FluentIterable;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
-import com.google.common.collect.Sets;
 import com.metabroadcast.common.collect.MoreSets;
 import com.metabroadcast.common.text.MoreStrings;
 
@@ -51,7 +50,7 @@ public abstract class Described extends Identified {
 	private Specialization specialization;
 	
 	private ImmutableSet<String> genres = ImmutableSet.of();
-	private Set<String> tags = Sets.newHashSet();
+	private Set<String> tags = CopyOnWriteSet.create();
 	
 	protected Publisher publisher;
 	private String image;
@@ -167,7 +166,7 @@ public abstract class Described extends Identified {
 	
 	public void setTags(Set<String> tags) {
 	    if (tags != null && ! tags.isEmpty()) {
-	        this.tags = Sets.newHashSet(Iterables.transform(tags, MoreStrings.TO_LOWER));
+	        this.tags = CopyOnWriteSet.create(Iterables.transform(tags, MoreStrings.TO_LOWER));
 	    } else {
 	        this.tags = tags;
 	    }
@@ -358,7 +357,7 @@ public abstract class Described extends Identified {
         to.mediaType = from.mediaType;
         to.publisher = from.publisher;
         to.specialization = from.specialization;
-        to.tags = Sets.newHashSet(from.tags);
+        to.tags = CopyOnWriteSet.copyOf(from.tags);
         to.thisOrChildLastUpdated = from.thisOrChildLastUpdated;
         to.thumbnail = from.thumbnail;
         to.title = from.title;
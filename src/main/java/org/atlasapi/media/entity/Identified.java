@@ -8,7 +8,6 @@ import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
-import com.google.common.primitives.Ints;
 import org.atlasapi.content.rdf.annotations.RdfProperty;
 import org.atlasapi.media.vocabulary.OWL;
 import org.atlasapi.media.vocabulary.PLAY_USE_IN_RDF_FOR_BACKWARD_COMPATIBILITY;
@@ -18,6 +17,7 @@ import javax.annotation.Nullable;
 import javax.validation.constraints.NotNull;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -41,10 +41,16 @@ public class Identified {
 
 	private String curie;
 
-	private Set<String> aliasUrls = Sets.newHashSet();
-	private Set<Alias> aliases = Sets.newHashSet();
+	private Set<String> aliasUrls = CopyOnWriteSet.create();
+	private Set<Alias> aliases = CopyOnWriteSet.create();
 	
-	private Set<LookupRef> equivalentTo = Sets.newHashSet();
+	private CopyOnWriteSet<LookupRef> equivalentTo = CopyOnWriteSet.create();
+	
+	/**
+	 * Built lazily from {@link #equivalentTo} by {@link #isEquivalentTo(Described)}
+	 * and discarded whenever the equivalent set is replaced or added to.
+	 */
+	private transient EquivalenceIndex equivalenceIndex;
 	
 	/**
 	 * Records the time that the 3rd party reported that the
@@ -163,6 +169,7 @@ public class Identified {
 	public void addEquivalentTo(Described content) {
 		checkNotNull(content.getCanonicalUri());
 		this.equivalentTo.add(LookupRef.from(content));
+		this.equivalenceIndex = null;
 	}
 	
 	public Set<LookupRef> getEquivalentTo() {
@@ -256,8 +263,15 @@ public class Identified {
         }
     };
 
+	/**
+	 * Replaces the equivalent set with a copy of {@code uris}, so later
+	 * changes to {@code uris} are not seen here. The copy is constant time for
+	 * immutable sets and for sets from {@link #getEquivalentTo()}, and linear
+	 * for any other set.
+	 */
 	public void setEquivalentTo(Set<LookupRef> uris) {
-		this.equivalentTo = uris;
+		this.equivalentTo = CopyOnWriteSet.copyOf(uris);
+		this.equivalenceIndex = null;
 	}
 	
 	public static final Comparator<Identified> DESCENDING_LAST_UPDATED = new Comparator<Identified>() {
@@ -283,48 +297,124 @@ public class Identified {
      * there is often a window of inconsistency)
      */
 	public boolean isEquivalentTo(Described content) {
-		return equivalentTo.contains(LookupRef.from(content))
-	        || Iterables.contains(Iterables.transform(content.getEquivalentTo(), LookupRef.TO_URI), canonicalUri);
+		return (content.getCanonicalUri() != null
+		        && equivalenceIndex().contains(content.getCanonicalUri(), content.getPublisher()))
+	        || content.equivalenceIndex().containsUri(canonicalUri);
+	}
+	
+	EquivalenceIndex equivalenceIndex() {
+		EquivalenceIndex index = equivalenceIndex;
+		if (index == null || !index.isCurrentFor(equivalentTo)) {
+			index = new EquivalenceIndex(equivalentTo);
+			equivalenceIndex = index;
+		}
+		return index;
+	}
+	
+	/**
+	 * Immutable lookup of the URIs, and the publisher of each, in a set of
+	 * {@link LookupRef}s. Matches the equality of {@code LookupRef}, which
+	 * considers only URI and publisher, so there is no index of ids.
+	 * <p>
+	 * Changes made directly through {@link Identified#getEquivalentTo()} are
+	 * noticed by the version of the {@link CopyOnWriteSet} the index was built
+	 * from, so checking that an index is current is constant time.
+	 */
+	static final class EquivalenceIndex {
+		
+		private final CopyOnWriteSet<LookupRef> source;
+		private final int sourceVersion;
+		private final Map<String, Set<Publisher>> publishersByUri;
+		
+		EquivalenceIndex(CopyOnWriteSet<LookupRef> refs) {
+			this.source = refs;
+			this.sourceVersion = refs.version();
+			Map<String, Set<Publisher>> publishersByUri = Maps.newHashMapWithExpectedSize(refs.size());
+			for (LookupRef ref : refs) {
+				Set<Publisher> publishers = publishersByUri.get(ref.uri());
+				if (publishers == null) {
+					publishers = EnumSet.noneOf(Publisher.class);
+					publishersByUri.put(ref.uri(), publishers);
+				}
+				if (ref.publisher() != null) {
+					publishers.add(ref.publisher());
+				}
+			}
+			this.publishersByUri = publishersByUri;
+		}
+		
+		boolean isCurrentFor(CopyOnWriteSet<LookupRef> refs) {
+			return source == refs && sourceVersion == refs.version();
+		}
+		
+		boolean contains(String uri, Publisher publisher) {
+			Set<Publisher> publishers = publishersByUri.get(uri);
+			return publishers != null && publisher != null && publishers.contains(publisher);
+		}
+		
+		boolean containsUri(String uri) {
+			return publishersByUri.containsKey(uri);
+		}
 	}
 	
 	public static void copyTo(Identified from, Identified to) {
-	    to.aliases = Sets.newHashSet(from.aliases);
-	    to.aliasUrls = Sets.newHashSet(from.aliasUrls);
+	    to.aliases = CopyOnWriteSet.copyOf(from.aliases);
+	    to.aliasUrls = CopyOnWriteSet.copyOf(from.aliasUrls);
 	    to.canonicalUri = from.canonicalUri;
 	    to.curie = from.curie;
-	    to.equivalentTo = Sets.newHashSet(from.equivalentTo);
+	    to.equivalentTo = CopyOnWriteSet.copyOf(from.equivalentTo);
+	    to.equivalenceIndex = null;
 	    to.lastUpdated = from.lastUpdated;
 	    to.id = from.id;
 	    to.customFields = from.customFields;
 	}
 	
-	public static <T extends Identified> List<T> sort(List<T> content, final Iterable<String> orderIterable) {
-        
-        final ImmutableList<String> order = ImmutableList.copyOf(orderIterable);
-        
-        Comparator<Identified> byPositionInList = new Comparator<Identified>() {
-
-            @Override
-            public int compare(Identified c1, Identified c2) {
-                return Ints.compare(indexOf(c1), indexOf(c2));
-            }
-
-            private int indexOf(Identified content) {
-                for (String uri : content.getAllUris()) {
-                    int idx = order.indexOf(uri);
-                    if (idx != -1) {
-                        return idx;
-                    }
-                }
-                if (content.getCurie() != null) {
-                    return order.indexOf(content.getCurie());
-                }
-                return -1;
-            }
-        };
-        
-        List<T> toSort = Lists.newArrayList(content);
-        Collections.sort(toSort, byPositionInList);
-        return toSort;
-    }
-}
\ No newline at end of file
+	/**
+	 * Orders {@code content} by the position in {@code order} of the first of
+	 * each item's uris found there, or else of its curie. Items found in
+	 * neither come first; items at the same position keep their relative
+	 * order.
+	 */
+	public static <T extends Identified> List<T> sort(List<T> content, Iterable<String> order) {
+	    Map<String, Integer> positions = Maps.newHashMap();
+	    int size = 0;
+	    for (String uri : order) {
+	        // as with List.indexOf, a uri repeated in the order takes its first position
+	        positions.putIfAbsent(uri, size++);
+	    }
+	    
+	    /* a counting sort over positions, shifted by one so unmatched items are 0. */
+	    List<T> items = Lists.newArrayList(content);
+	    int[] itemPositions = new int[items.size()];
+	    int[] starts = new int[size + 2];
+	    for (int i = 0; i < itemPositions.length; i++) {
+	        itemPositions[i] = positionOf(items.get(i), positions) + 1;
+	        starts[itemPositions[i] + 1]++;
+	    }
+	    for (int i = 1; i < starts.length; i++) {
+	        starts[i] += starts[i - 1];
+	    }
+	    
+	    List<T> sorted = Lists.newArrayList(Collections.<T>nCopies(itemPositions.length, null));
+	    for (int i = 0; i < itemPositions.length; i++) {
+	        sorted.set(starts[itemPositions[i]]++, items.get(i));
+	    }
+	    return sorted;
+	}
+	
+	private static int positionOf(Identified content, Map<String, Integer> positions) {
+	    for (String uri : content.getAllUris()) {
+	        Integer position = positions.get(uri);
+	        if (position != null) {
+	            return position;
+	        }
+	    }
+	    if (content.getCurie() != null) {
+	        Integer position = positions.get(content.getCurie());
+	        if (position != null) {
+	            return position;
+	        }
+	    }
+	    return -1;
+	}
+}
@@ -0,0 +1,275 @@
+package org.atlasapi.media.entity;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import org.atlasapi.media.channel.Channel;
+import org.atlasapi.media.entity.Schedule.ScheduleChannel;
+import org.atlasapi.media.util.ItemAndBroadcast;
+import org.joda.time.DateTime;
+import org.joda.time.Interval;
+
+import com.google.common.base.Objects;
+import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import com.metabroadcast.common.base.Maybe;
+import com.metabroadcast.common.time.DateTimeZones;
+
+/**
+ * A {@link Schedule} with the broadcasts of each channel indexed by
+ * transmission time, so what is on at an instant, what is on next and what is
+ * on during an interval are found by binary search rather than by flattening
+ * and scanning every item's broadcasts.
+ * <p>
+ * Only broadcasts on the channel they are scheduled under, with both a
+ * transmission time and end time, are indexed. Malformed broadcasts, which end
+ * before they start, are not.
+ */
+public final class IndexedSchedule {
+
+    public static IndexedSchedule fromChannelMap(Map<Channel, List<Item>> channelMap, Interval interval) {
+        return index(Schedule.fromChannelMap(channelMap, interval));
+    }
+
+    public static IndexedSchedule index(Schedule schedule) {
+        return new IndexedSchedule(schedule);
+    }
+
+    private final Schedule schedule;
+    private final ImmutableMap<Channel, IndexedScheduleChannel> channels;
+
+    private IndexedSchedule(Schedule schedule) {
+        this.schedule = checkNotNull(schedule);
+        ImmutableMap.Builder<Channel, IndexedScheduleChannel> channels = ImmutableMap.builder();
+        for (ScheduleChannel scheduleChannel : schedule.scheduleChannels()) {
+            channels.put(scheduleChannel.channel(), new IndexedScheduleChannel(scheduleChannel));
+        }
+        this.channels = channels.build();
+    }
+
+    public Schedule schedule() {
+        return schedule;
+    }
+
+    public Interval interval() {
+        return schedule.interval();
+    }
+
+    public ImmutableList<IndexedScheduleChannel> channels() {
+        return channels.values().asList();
+    }
+
+    public Optional<IndexedScheduleChannel> channel(Channel channel) {
+        return Optional.fromNullable(channels.get(channel));
+    }
+
+    @Override
+    public String toString() {
+        return Objects.toStringHelper(this).addValue(schedule).toString();
+    }
+
+    public static final class IndexedScheduleChannel {
+
+        private static final Comparator<ItemAndBroadcast> BY_TRANSMISSION
+                = new Comparator<ItemAndBroadcast>() {
+                    @Override
+                    public int compare(ItemAndBroadcast left, ItemAndBroadcast right) {
+                        Broadcast l = left.getBroadcast().requireValue();
+                        Broadcast r = right.getBroadcast().requireValue();
+                        int cmp = l.getTransmissionTime().compareTo(r.getTransmissionTime());
+                        return cmp != 0 ? cmp : l.getTransmissionEndTime().compareTo(r.getTransmissionEndTime());
+                    }
+                };
+
+        private final Channel channel;
+        private final ItemAndBroadcast[] entries;
+        private final long[] starts;
+        private final long[] ends;
+        /* maxEnds[i] is the latest end of entries 0..i, so is non-decreasing. */
+        private final long[] maxEnds;
+
+        private IndexedScheduleChannel(ScheduleChannel scheduleChannel) {
+            this.channel = scheduleChannel.channel();
+            List<ItemAndBroadcast> entries = Lists.newArrayList();
+            for (Item item : scheduleChannel.items()) {
+                for (Broadcast broadcast : item.flattenBroadcasts()) {
+                    if (isIndexable(broadcast)) {
+                        entries.add(new ItemAndBroadcast(item, Maybe.just(broadcast)));
+                    }
+                }
+            }
+            this.entries = entries.toArray(new ItemAndBroadcast[entries.size()]);
+            Arrays.sort(this.entries, BY_TRANSMISSION);
+            this.starts = new long[this.entries.length];
+            this.ends = new long[this.entries.length];
+            this.maxEnds = new long[this.entries.length];
+            long maxEnd = Long.MIN_VALUE;
+            for (int i = 0; i < this.entries.length; i++) {
+                Broadcast broadcast = this.entries[i].getBroadcast().requireValue();
+                starts[i] = broadcast.getTransmissionTime().getMillis();
+                ends[i] = broadcast.getTransmissionEndTime().getMillis();
+                maxEnd = Math.max(maxEnd, ends[i]);
+                maxEnds[i] = maxEnd;
+            }
+        }
+
+        private boolean isIndexable(Broadcast broadcast) {
+            return broadcast.getTransmissionTime() != null
+                && broadcast.getTransmissionEndTime() != null
+                && !broadcast.getTransmissionEndTime().isBefore(broadcast.getTransmissionTime())
+                && (channel.getUri() == null || channel.getUri().equals(broadcast.getBroadcastOn()));
+        }
+
+        public Channel channel() {
+            return channel;
+        }
+
+        public int size() {
+            return entries.length;
+        }
+
+        /**
+         * Every entry, in transmission order.
+         */
+        public List<ItemAndBroadcast> entries() {
+            return ImmutableList.copyOf(entries);
+        }
+
+        /**
+         * The entries on air at {@code instant}, in transmission order.
+         */
+        public List<ItemAndBroadcast> at(DateTime instant) {
+            long millis = instant.getMillis();
+            return between(millis, millis + 1);
+        }
+
+        /**
+         * The latest starting entry on air at {@code instant}, if any.
+         */
+        public Optional<ItemAndBroadcast> now(DateTime instant) {
+            long millis = instant.getMillis();
+            for (int i = firstStartAfter(millis) - 1; i >= 0 && maxEnds[i] > millis; i--) {
+                if (ends[i] > millis) {
+                    return Optional.of(entries[i]);
+                }
+            }
+            return Optional.absent();
+        }
+
+        /**
+         * Up to {@code count} entries starting after {@code instant}, in
+         * transmission order.
+         */
+        public List<ItemAndBroadcast> next(DateTime instant, int count) {
+            checkArgument(count >= 0, "negative count %s", count);
+            int from = firstStartAfter(instant.getMillis());
+            int to = (int) Math.min((long) from + count, entries.length);
+            return ImmutableList.copyOf(Arrays.asList(entries).subList(from, to));
+        }
+
+        /**
+         * The entries on air at any time during {@code interval}, in
+         * transmission order.
+         */
+        public List<ItemAndBroadcast> during(Interval interval) {
+            return between(interval.getStartMillis(), interval.getEndMillis());
+        }
+
+        /**
+         * The periods within {@code interval} during which nothing is on air.
+         */
+        public List<Interval> gaps(Interval interval) {
+            long start = interval.getStartMillis();
+            long end = interval.getEndMillis();
+            ImmutableList.Builder<Interval> gaps = ImmutableList.builder();
+            long covered = start;
+            for (int i = firstEndingAfter(start), upper = firstStartAtOrAfter(end); i < upper; i++) {
+                if (starts[i] > covered) {
+                    gaps.add(interval(covered, starts[i]));
+                }
+                covered = Math.max(covered, ends[i]);
+            }
+            if (covered < end) {
+                gaps.add(interval(covered, end));
+            }
+            return gaps.build();
+        }
+
+        /**
+         * The periods during which more than one entry is on air, in
+         * transmission order.
+         */
+        public List<Interval> overlaps() {
+            ImmutableList.Builder<Interval> overlaps = ImmutableList.builder();
+            for (int i = 1; i < entries.length; i++) {
+                long end = Math.min(ends[i], maxEnds[i - 1]);
+                // a zero-length entry overlaps nothing
+                if (starts[i] < end) {
+                    overlaps.add(interval(starts[i], end));
+                }
+            }
+            return overlaps.build();
+        }
+
+        private List<ItemAndBroadcast> between(long start, long end) {
+            ImmutableList.Builder<ItemAndBroadcast> found = ImmutableList.builder();
+            for (int i = firstEndingAfter(start), upper = firstStartAtOrAfter(end); i < upper; i++) {
+                if (ends[i] > start) {
+                    found.add(entries[i]);
+                }
+            }
+            return found.build();
+        }
+
+        /* entries before this index all end at or before millis. */
+        private int firstEndingAfter(long millis) {
+            return search(maxEnds, millis, true);
+        }
+
+        private int firstStartAfter(long millis) {
+            return search(starts, millis, true);
+        }
+
+        private int firstStartAtOrAfter(long millis) {
+            return search(starts, millis, false);
+        }
+
+        /**
+         * Index of the first element of the sorted {@code values} greater
+         * than, or if {@code strictly} is false greater than or equal to,
+         * {@code millis}.
+         */
+        private static int search(long[] values, long millis, boolean strictly) {
+            int low = 0;
+            int high = values.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (values[mid] < millis || (strictly && values[mid] == millis)) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private static Interval interval(long start, long end) {
+            return new Interval(start, end, DateTimeZones.UTC);
+        }
+
+        @Override
+        public String toString() {
+            return Objects.toStringHelper(this)
+                    .addValue(channel)
+                    .add("entries", entries.length)
+                    .toString();
+        }
+    }
+}
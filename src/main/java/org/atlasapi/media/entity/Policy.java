@@ -40,7 +40,7 @@ public class Policy extends Identified {
 	
     private DateTime drmPlayableFrom;
     
-    private Set<Country> availableCountries = Sets.newHashSet();
+    private Set<Country> availableCountries = CopyOnWriteSet.create();
 
 	private Integer availabilityLength;
 	
@@ -75,7 +75,7 @@ public class Policy extends Identified {
 
 	public void addAvailableCountry(Country country) {
     	if (availableCountries == null) {
-    		availableCountries = Sets.newHashSet();
+    		availableCountries = CopyOnWriteSet.create();
     	}
     	availableCountries.add(country);
     }
@@ -293,7 +293,7 @@ public class Policy extends Identified {
 	    copy.availabilityEnd = availabilityEnd;
 	    copy.availabilityLength = availabilityLength;
 	    copy.availabilityStart = availabilityStart;
-	    copy.availableCountries = Sets.newHashSet(availableCountries);
+	    copy.availableCountries = CopyOnWriteSet.copyOf(availableCountries);
 	    copy.drmPlayableFrom = drmPlayableFrom;
 	    copy.price = price;
 	    copy.revenueContract = revenueContract;
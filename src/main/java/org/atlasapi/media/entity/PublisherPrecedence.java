@@ -0,0 +1,144 @@
+package org.atlasapi.media.entity;
+
+import java.util.Arrays;
+import java.util.List;
+
+import com.google.common.base.Objects;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Ordering;
+
+/**
+ * A precedence order over a set of {@link Publisher}s, held as an array of
+ * ranks indexed by ordinal. Publishers outside the set rank after every
+ * publisher in it. Two precedences are equal if they rank every publisher
+ * the same.
+ */
+public final class PublisherPrecedence {
+
+    private static final int UNRANKED = Integer.MAX_VALUE;
+
+    /**
+     * @param publishers
+     *            - highest precedence first.
+     */
+    public static PublisherPrecedence of(List<Publisher> publishers) {
+        ImmutableList<Publisher> inOrder = ImmutableList.copyOf(publishers);
+        int[] ranks = unranked();
+        for (int i = inOrder.size() - 1; i >= 0; i--) {
+            ranks[inOrder.get(i).ordinal()] = i;
+        }
+        return new PublisherPrecedence(inOrder, ranks);
+    }
+
+    /**
+     * Every publisher {@code ordering} can compare, ranked by it, with
+     * publishers it orders equally sharing a rank. Publishers it can't
+     * compare, such as those missing from an explicit ordering, are not
+     * included.
+     */
+    public static PublisherPrecedence ranking(Ordering<Publisher> ordering) {
+        List<Publisher> comparable = Lists.newArrayList();
+        for (Publisher publisher : Publisher.values()) {
+            if (canCompare(ordering, publisher)) {
+                comparable.add(publisher);
+            }
+        }
+        ImmutableList<Publisher> inOrder = ImmutableList.copyOf(ordering.sortedCopy(comparable));
+        int[] ranks = unranked();
+        int rank = 0;
+        for (int i = 0; i < inOrder.size(); i++) {
+            if (i > 0 && ordering.compare(inOrder.get(i - 1), inOrder.get(i)) != 0) {
+                rank = i;
+            }
+            ranks[inOrder.get(i).ordinal()] = rank;
+        }
+        return new PublisherPrecedence(inOrder, ranks);
+    }
+
+    private static boolean canCompare(Ordering<Publisher> ordering, Publisher publisher) {
+        try {
+            ordering.compare(publisher, publisher);
+            return true;
+        } catch (ClassCastException e) {
+            return false;
+        }
+    }
+
+    private static int[] unranked() {
+        int[] ranks = new int[Publisher.values().length];
+        Arrays.fill(ranks, UNRANKED);
+        return ranks;
+    }
+
+    private final ImmutableList<Publisher> publishers;
+    private final PublisherSet publisherSet;
+    private final int[] ranks;
+    private final Ordering<Publisher> ordering;
+
+    private PublisherPrecedence(ImmutableList<Publisher> publishers, int[] ranks) {
+        this.publishers = publishers;
+        this.publisherSet = PublisherSet.copyOf(publishers);
+        this.ranks = ranks;
+        this.ordering = new Ordering<Publisher>() {
+            @Override
+            public int compare(Publisher left, Publisher right) {
+                return PublisherPrecedence.this.compare(left, right);
+            }
+        };
+    }
+
+    /**
+     * The position of {@code publisher} in this order, or
+     * {@link Integer#MAX_VALUE} if it is not included.
+     */
+    public int rank(Publisher publisher) {
+        return ranks[publisher.ordinal()];
+    }
+
+    public int compare(Publisher left, Publisher right) {
+        return Integer.compare(rank(left), rank(right));
+    }
+
+    public boolean contains(Publisher publisher) {
+        return publisherSet.contains(publisher);
+    }
+
+    public PublisherSet publishers() {
+        return publisherSet;
+    }
+
+    /**
+     * The publishers included, highest precedence first.
+     */
+    public ImmutableList<Publisher> inOrder() {
+        return publishers;
+    }
+
+    public Ordering<Publisher> ordering() {
+        return ordering;
+    }
+
+    @Override
+    public boolean equals(Object that) {
+        if (this == that) {
+            return true;
+        }
+        if (that instanceof PublisherPrecedence) {
+            return Arrays.equals(ranks, ((PublisherPrecedence) that).ranks);
+        }
+        return false;
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(ranks);
+    }
+
+    @Override
+    public String toString() {
+        return Objects.toStringHelper(this)
+                .add("publishers", publishers)
+                .toString();
+    }
+}
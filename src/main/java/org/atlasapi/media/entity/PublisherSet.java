@@ -0,0 +1,94 @@
+package org.atlasapi.media.entity;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
+
+/**
+ * An immutable set of {@link Publisher}s held as a bitset over their ordinals,
+ * so membership is a single array lookup and mask.
+ */
+public final class PublisherSet {
+
+    private static final Publisher[] PUBLISHERS = Publisher.values();
+    private static final int WORDS = (PUBLISHERS.length + 63) >>> 6;
+
+    private static final PublisherSet NONE = new PublisherSet(new long[WORDS]);
+
+    public static PublisherSet none() {
+        return NONE;
+    }
+
+    public static PublisherSet of(Publisher... publishers) {
+        return copyOf(Arrays.asList(publishers));
+    }
+
+    public static PublisherSet copyOf(Iterable<Publisher> publishers) {
+        long[] words = new long[WORDS];
+        for (Publisher publisher : publishers) {
+            int ordinal = publisher.ordinal();
+            words[ordinal >>> 6] |= 1L << ordinal;
+        }
+        return new PublisherSet(words);
+    }
+
+    private final long[] words;
+    private final int size;
+
+    private PublisherSet(long[] words) {
+        this.words = words;
+        int size = 0;
+        for (long word : words) {
+            size += Long.bitCount(word);
+        }
+        this.size = size;
+    }
+
+    public boolean contains(Publisher publisher) {
+        int ordinal = publisher.ordinal();
+        return (words[ordinal >>> 6] & (1L << ordinal)) != 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public ImmutableSet<Publisher> asSet() {
+        EnumSet<Publisher> publishers = EnumSet.noneOf(Publisher.class);
+        for (int i = 0; i < words.length; i++) {
+            long word = words[i];
+            while (word != 0) {
+                publishers.add(PUBLISHERS[(i << 6) + Long.numberOfTrailingZeros(word)]);
+                word &= word - 1;
+            }
+        }
+        return Sets.immutableEnumSet(publishers);
+    }
+
+    @Override
+    public boolean equals(Object that) {
+        if (this == that) {
+            return true;
+        }
+        if (that instanceof PublisherSet) {
+            return Arrays.equals(words, ((PublisherSet) that).words);
+        }
+        return false;
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(words);
+    }
+
+    @Override
+    public String toString() {
+        return asSet().toString();
+    }
+}
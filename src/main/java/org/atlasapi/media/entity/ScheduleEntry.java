@@ -21,7 +21,7 @@ import com.metabroadcast.common.time.DateTimeZones;
 
 public class ScheduleEntry implements Comparable<ScheduleEntry> {
 
-    private static final long SECS_FROM_1900 = new Interval(new DateTime(1900, 1, 1, 0, 0, 0, 0, DateTimeZones.UTC), new DateTime(0,DateTimeZones.UTC)).toDurationMillis() / 1000;
+    static final long SECS_FROM_1900 = new Interval(new DateTime(1900, 1, 1, 0, 0, 0, 0, DateTimeZones.UTC), new DateTime(0,DateTimeZones.UTC)).toDurationMillis() / 1000;
     private final Interval interval;
     private final Channel channel;
     private final Publisher publisher;
@@ -0,0 +1,201 @@
+package org.atlasapi.media.entity;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import org.atlasapi.media.channel.Channel;
+import org.joda.time.DateTime;
+import org.joda.time.Interval;
+
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.primitives.UnsignedBytes;
+import com.metabroadcast.common.text.NumberPadder;
+import com.metabroadcast.common.time.DateTimeZones;
+
+/**
+ * Encodes the key of a {@link ScheduleEntry} as {@link #KEY_LENGTH} bytes:
+ * the start time as big-endian seconds since 1900, the channel key padded
+ * to {@link org.atlasapi.media.entity.Channel#MAX_KEY_LENGTH} bytes and the
+ * position of the publisher's key among all publisher keys.
+ * <p>
+ * Compared as unsigned bytes, by {@link #ORDERING}, binary keys sort exactly
+ * as the string keys of {@link ScheduleEntry#toKey()}, so the entries
+ * starting in {@code [from, to)} lie between {@link #lowerBound(DateTime,
+ * ByteBuffer)} of {@code from} and of {@code to}.
+ * <p>
+ * Only entries whose channel key is at most
+ * {@link org.atlasapi.media.entity.Channel#MAX_KEY_LENGTH} ASCII characters,
+ * none of them {@code '|'}, can be encoded. The deprecated
+ * {@link org.atlasapi.media.entity.Channel} enforces the length of its keys
+ * but {@link Channel} enforces neither restriction, so callers holding
+ * arbitrary channels must be ready for {@link IllegalArgumentException} or
+ * keep to the string keys. Start times must be no earlier than 1900.
+ * <p>
+ * As with the channel key length, adding a publisher can change publisher
+ * positions, so binary keys must be rebuilt, with
+ * {@link #fromStringKey(String, ByteBuffer)}, before they are read by a
+ * build with a new publisher.
+ */
+public final class ScheduleEntryKeyCodec {
+
+    private static final int TIME_LENGTH = 8;
+    private static final int CHANNEL_KEY_LENGTH = org.atlasapi.media.entity.Channel.MAX_KEY_LENGTH;
+    private static final int PUBLISHER_LENGTH = 2;
+
+    public static final int KEY_LENGTH = TIME_LENGTH + CHANNEL_KEY_LENGTH + PUBLISHER_LENGTH;
+
+    public static final Comparator<byte[]> ORDERING = UnsignedBytes.lexicographicalComparator();
+
+    /* the separator of string keys, so a shorter channel key sorts as it does there. */
+    private static final byte CHANNEL_KEY_PADDING = '|';
+
+    private static final Splitter STRING_KEY_SPLITTER = Splitter.on('|');
+
+    private static final Publisher[] PUBLISHERS_BY_KEY;
+    private static final int[] PUBLISHER_POSITIONS;
+    private static final ImmutableMap<String, Publisher> PUBLISHER_KEYS;
+
+    static {
+        PUBLISHERS_BY_KEY = Publisher.values();
+        Arrays.sort(PUBLISHERS_BY_KEY, (left, right) -> left.key().compareTo(right.key()));
+        PUBLISHER_POSITIONS = new int[PUBLISHERS_BY_KEY.length];
+        ImmutableMap.Builder<String, Publisher> keys = ImmutableMap.builder();
+        for (int i = 0; i < PUBLISHERS_BY_KEY.length; i++) {
+            PUBLISHER_POSITIONS[PUBLISHERS_BY_KEY[i].ordinal()] = i;
+            keys.put(PUBLISHERS_BY_KEY[i].key(), PUBLISHERS_BY_KEY[i]);
+        }
+        PUBLISHER_KEYS = keys.build();
+    }
+
+    private ScheduleEntryKeyCodec() {
+    }
+
+    /**
+     * The key of {@code entry}.
+     *
+     * @throws IllegalArgumentException
+     *             if the entry's channel has no key or a key which can't be
+     *             encoded, or the entry starts before 1900.
+     */
+    public static byte[] encode(ScheduleEntry entry) {
+        byte[] key = new byte[KEY_LENGTH];
+        encode(entry.interval(), entry.channel(), entry.publisher(), ByteBuffer.wrap(key));
+        return key;
+    }
+
+    /**
+     * Writes the key of the entry for {@code interval}, {@code channel} and
+     * {@code publisher} at the position of {@code out}, advancing it by
+     * {@link #KEY_LENGTH}.
+     *
+     * @throws IllegalArgumentException
+     *             if {@code channel} has no key or a key which can't be
+     *             encoded, or {@code interval} starts before 1900.
+     */
+    public static ByteBuffer encode(Interval interval, Channel channel, Publisher publisher, ByteBuffer out) {
+        return encode(secondsFrom1900(interval.getStart()), channel.getKey(), publisher, out);
+    }
+
+    /**
+     * Writes the lowest key of any entry starting at {@code time} at the
+     * position of {@code out}, advancing it by {@link #KEY_LENGTH}.
+     */
+    public static ByteBuffer lowerBound(DateTime time, ByteBuffer out) {
+        out.putLong(secondsFrom1900(time));
+        for (int i = TIME_LENGTH; i < KEY_LENGTH; i++) {
+            out.put((byte) 0);
+        }
+        return out;
+    }
+
+    /**
+     * The start time of the key at the position of {@code key}, to the
+     * second. The position is not changed.
+     */
+    public static DateTime startTime(ByteBuffer key) {
+        long seconds = key.getLong(key.position());
+        return new DateTime((seconds - ScheduleEntry.SECS_FROM_1900) * 1000, DateTimeZones.UTC);
+    }
+
+    /**
+     * The channel key of the key at the position of {@code key}. The
+     * position is not changed.
+     */
+    public static String channelKey(ByteBuffer key) {
+        int start = key.position() + TIME_LENGTH;
+        int end = start + CHANNEL_KEY_LENGTH;
+        while (end > start && key.get(end - 1) == CHANNEL_KEY_PADDING) {
+            end--;
+        }
+        char[] chars = new char[end - start];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = (char) key.get(start + i);
+        }
+        return new String(chars);
+    }
+
+    /**
+     * The publisher of the key at the position of {@code key}. The position
+     * is not changed.
+     */
+    public static Publisher publisher(ByteBuffer key) {
+        int position = key.getShort(key.position() + TIME_LENGTH + CHANNEL_KEY_LENGTH) & 0xFFFF;
+        checkArgument(position < PUBLISHERS_BY_KEY.length, "Unknown publisher position %s", position);
+        return PUBLISHERS_BY_KEY[position];
+    }
+
+    /**
+     * The string form, as {@link ScheduleEntry#toKey()}, of the key at the
+     * position of {@code key}. The position is not changed.
+     */
+    public static String toStringKey(ByteBuffer key) {
+        return NumberPadder.pad(key.getLong(key.position())) + "|" + channelKey(key) + "|" + publisher(key).key();
+    }
+
+    /**
+     * Writes the binary form of a key made by {@link ScheduleEntry#toKey()}
+     * at the position of {@code out}, advancing it by {@link #KEY_LENGTH}.
+     *
+     * @throws IllegalArgumentException
+     *             if {@code key} is malformed, its channel key can't be
+     *             encoded or it starts before 1900. Such keys have no binary
+     *             form and must be kept as strings.
+     */
+    public static ByteBuffer fromStringKey(String key, ByteBuffer out) {
+        List<String> parts = STRING_KEY_SPLITTER.splitToList(key);
+        checkArgument(parts.size() == 3, "Malformed schedule entry key %s", key);
+        long seconds = Long.parseLong(parts.get(0));
+        checkArgument(seconds >= 0, "Schedule entry key %s is before 1900", key);
+        Publisher publisher = PUBLISHER_KEYS.get(parts.get(2));
+        checkArgument(publisher != null, "Unknown publisher in schedule entry key %s", key);
+        return encode(seconds, parts.get(1), publisher, out);
+    }
+
+    private static ByteBuffer encode(long seconds, String channelKey, Publisher publisher, ByteBuffer out) {
+        checkNotNull(channelKey, "Channel has no key");
+        checkArgument(channelKey.length() <= CHANNEL_KEY_LENGTH, "Channel key %s is too long", channelKey);
+        out.putLong(seconds);
+        for (int i = 0; i < channelKey.length(); i++) {
+            char c = channelKey.charAt(i);
+            checkArgument(c < 0x80 && c != CHANNEL_KEY_PADDING, "Channel key %s can't be encoded", channelKey);
+            out.put((byte) c);
+        }
+        for (int i = channelKey.length(); i < CHANNEL_KEY_LENGTH; i++) {
+            out.put(CHANNEL_KEY_PADDING);
+        }
+        out.putShort((short) PUBLISHER_POSITIONS[publisher.ordinal()]);
+        return out;
+    }
+
+    private static long secondsFrom1900(DateTime time) {
+        long seconds = ScheduleEntry.SECS_FROM_1900 + time.getMillis() / 1000;
+        checkArgument(seconds >= 0, "%s is before 1900", time);
+        return seconds;
+    }
+}
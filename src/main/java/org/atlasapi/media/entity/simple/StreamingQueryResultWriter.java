@@ -0,0 +1,111 @@
+package org.atlasapi.media.entity.simple;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+
+import org.atlasapi.media.entity.simple.ContentQueryResult.Pagination;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Writes the envelope of a query result and then each of its elements as it
+ * is taken from an {@link Iterator}, so a result never has to be held in
+ * memory in full. The output has the same shape as the corresponding
+ * {@link ContentQueryResult}, {@link ScheduleQueryResult},
+ * {@link ChannelQueryResult} or {@link PeopleQueryResult}.
+ * <p>
+ * Elements are written by the given mapper, so they are serialized exactly as
+ * they would be inside a result object.
+ */
+public final class StreamingQueryResultWriter {
+
+    private final ObjectMapper mapper;
+    private final ObjectWriter writer;
+
+    public StreamingQueryResultWriter(ObjectMapper mapper) {
+        this.mapper = checkNotNull(mapper);
+        this.writer = mapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    /**
+     * @param pagination
+     *            - written ahead of the contents, omitted if null.
+     */
+    public void writeContents(Iterator<? extends Description> contents, Pagination pagination,
+            JsonGenerator out) throws IOException {
+        out.writeStartObject();
+        if (pagination != null) {
+            out.writeObjectFieldStart("pagination");
+            out.writeNumberField("limit", pagination.getLimit());
+            out.writeNumberField("offset", pagination.getOffset());
+            out.writeEndObject();
+        }
+        writeArrayField("contents", contents, out);
+        out.writeEndObject();
+    }
+
+    public void writeContents(Iterator<? extends Description> contents, Pagination pagination,
+            OutputStream out) throws IOException {
+        try (JsonGenerator generator = generator(out)) {
+            writeContents(contents, pagination, generator);
+        }
+    }
+
+    public void writeSchedule(Iterator<ScheduleChannel> channels, JsonGenerator out) throws IOException {
+        writeResult("channels", channels, out);
+    }
+
+    public void writeSchedule(Iterator<ScheduleChannel> channels, OutputStream out) throws IOException {
+        try (JsonGenerator generator = generator(out)) {
+            writeSchedule(channels, generator);
+        }
+    }
+
+    public void writeChannels(Iterator<Channel> channels, JsonGenerator out) throws IOException {
+        writeResult("channels", channels, out);
+    }
+
+    public void writeChannels(Iterator<Channel> channels, OutputStream out) throws IOException {
+        try (JsonGenerator generator = generator(out)) {
+            writeChannels(channels, generator);
+        }
+    }
+
+    public void writePeople(Iterator<Person> people, JsonGenerator out) throws IOException {
+        writeResult("people", people, out);
+    }
+
+    public void writePeople(Iterator<Person> people, OutputStream out) throws IOException {
+        try (JsonGenerator generator = generator(out)) {
+            writePeople(people, generator);
+        }
+    }
+
+    private JsonGenerator generator(OutputStream out) throws IOException {
+        JsonGenerator generator = mapper.getFactory().createGenerator(out, JsonEncoding.UTF8);
+        // the stream belongs to the caller
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        return generator;
+    }
+
+    private void writeResult(String field, Iterator<?> elements, JsonGenerator out) throws IOException {
+        out.writeStartObject();
+        writeArrayField(field, elements, out);
+        out.writeEndObject();
+    }
+
+    private void writeArrayField(String field, Iterator<?> elements, JsonGenerator out) throws IOException {
+        out.writeArrayFieldStart(field);
+        while (elements.hasNext()) {
+            writer.writeValue(out, elements.next());
+        }
+        out.writeEndArray();
+    }
+}
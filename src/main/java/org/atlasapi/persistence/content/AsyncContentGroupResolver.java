@@ -0,0 +1,18 @@
+package org.atlasapi.persistence.content;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.atlasapi.media.entity.ContentGroup;
+
+/**
+ * Asynchronous counterpart of {@link ContentGroupResolver}.
+ */
+public interface AsyncContentGroupResolver {
+
+    CompletableFuture<ResolvedContent> findByCanonicalUris(Iterable<String> canonicalUris);
+
+    CompletableFuture<ResolvedContent> findByIds(Iterable<Long> ids);
+
+    CompletableFuture<Iterable<ContentGroup>> findAll();
+
+}
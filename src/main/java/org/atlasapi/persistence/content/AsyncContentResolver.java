@@ -0,0 +1,14 @@
+package org.atlasapi.persistence.content;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Asynchronous counterpart of {@link ContentResolver}.
+ */
+public interface AsyncContentResolver {
+
+    CompletableFuture<ResolvedContent> findByCanonicalUris(Iterable<String> canonicalUris);
+
+    CompletableFuture<ResolvedContent> findByUris(Iterable<String> uris);
+
+}
@@ -0,0 +1,36 @@
+package org.atlasapi.persistence.content;
+
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import com.metabroadcast.applications.client.model.internal.Application;
+import org.atlasapi.output.Annotation;
+
+import com.google.common.base.Optional;
+
+/**
+ * Asynchronous counterpart of {@link EquivalentContentResolver}.
+ */
+public interface AsyncEquivalentContentResolver {
+
+    CompletableFuture<EquivalentContent> resolveUris(
+            Iterable<String> uris,
+            Application application,
+            Set<Annotation> activeAnnotations,
+            boolean withAliases
+    );
+
+    CompletableFuture<EquivalentContent> resolveIds(
+            Iterable<Long> ids,
+            Application application,
+            Set<Annotation> activeAnnotations
+    );
+
+    CompletableFuture<EquivalentContent> resolveAliases(
+            Optional<String> namespace,
+            Iterable<String> values,
+            Application application,
+            Set<Annotation> activeAnnotations
+    );
+
+}
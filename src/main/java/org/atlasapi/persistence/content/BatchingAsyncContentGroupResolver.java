@@ -0,0 +1,41 @@
+package org.atlasapi.persistence.content;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.atlasapi.media.entity.ContentGroup;
+
+/**
+ * Adapts a synchronous {@link ContentGroupResolver} to an
+ * {@link AsyncContentGroupResolver}, resolving batches of the requested
+ * identifiers on a {@link BatchingExecutor}.
+ */
+public class BatchingAsyncContentGroupResolver implements AsyncContentGroupResolver {
+
+    private final ContentGroupResolver delegate;
+    private final BatchingExecutor executor;
+
+    public BatchingAsyncContentGroupResolver(ContentGroupResolver delegate, BatchingExecutor executor) {
+        this.delegate = checkNotNull(delegate);
+        this.executor = checkNotNull(executor);
+    }
+
+    @Override
+    public CompletableFuture<ResolvedContent> findByCanonicalUris(Iterable<String> canonicalUris) {
+        return executor.submit(canonicalUris, delegate::findByCanonicalUris)
+                .thenApply(ResolvedContent::combine);
+    }
+
+    @Override
+    public CompletableFuture<ResolvedContent> findByIds(Iterable<Long> ids) {
+        return executor.submit(ids, delegate::findByIds)
+                .thenApply(ResolvedContent::combine);
+    }
+
+    @Override
+    public CompletableFuture<Iterable<ContentGroup>> findAll() {
+        return executor.submit(delegate::findAll);
+    }
+
+}
@@ -0,0 +1,34 @@
+package org.atlasapi.persistence.content;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Adapts a synchronous {@link ContentResolver} to an
+ * {@link AsyncContentResolver}, resolving batches of the requested URIs on a
+ * {@link BatchingExecutor}.
+ */
+public class BatchingAsyncContentResolver implements AsyncContentResolver {
+
+    private final ContentResolver delegate;
+    private final BatchingExecutor executor;
+
+    public BatchingAsyncContentResolver(ContentResolver delegate, BatchingExecutor executor) {
+        this.delegate = checkNotNull(delegate);
+        this.executor = checkNotNull(executor);
+    }
+
+    @Override
+    public CompletableFuture<ResolvedContent> findByCanonicalUris(Iterable<String> canonicalUris) {
+        return executor.submit(canonicalUris, delegate::findByCanonicalUris)
+                .thenApply(ResolvedContent::combine);
+    }
+
+    @Override
+    public CompletableFuture<ResolvedContent> findByUris(Iterable<String> uris) {
+        return executor.submit(uris, delegate::findByUris)
+                .thenApply(ResolvedContent::combine);
+    }
+
+}
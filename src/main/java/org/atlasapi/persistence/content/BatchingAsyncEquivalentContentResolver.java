@@ -0,0 +1,68 @@
+package org.atlasapi.persistence.content;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import com.metabroadcast.applications.client.model.internal.Application;
+import org.atlasapi.media.entity.Content;
+import org.atlasapi.output.Annotation;
+
+import com.google.common.base.Optional;
+
+/**
+ * Adapts a synchronous {@link EquivalentContentResolver} to an
+ * {@link AsyncEquivalentContentResolver}, resolving batches of the requested
+ * keys on a {@link BatchingExecutor}.
+ */
+public class BatchingAsyncEquivalentContentResolver implements AsyncEquivalentContentResolver {
+
+    private final EquivalentContentResolver delegate;
+    private final BatchingExecutor executor;
+
+    public BatchingAsyncEquivalentContentResolver(EquivalentContentResolver delegate, BatchingExecutor executor) {
+        this.delegate = checkNotNull(delegate);
+        this.executor = checkNotNull(executor);
+    }
+
+    @Override
+    public CompletableFuture<EquivalentContent> resolveUris(final Iterable<String> uris,
+            final Application application, final Set<Annotation> activeAnnotations,
+            final boolean withAliases) {
+        return executor.submit(uris,
+                batch -> delegate.resolveUris(batch, application, activeAnnotations, withAliases)
+        ).thenApply(BatchingAsyncEquivalentContentResolver::combine);
+    }
+
+    @Override
+    public CompletableFuture<EquivalentContent> resolveIds(final Iterable<Long> ids,
+            final Application application, final Set<Annotation> activeAnnotations) {
+        return executor.submit(ids,
+                batch -> delegate.resolveIds(batch, application, activeAnnotations)
+        ).thenApply(BatchingAsyncEquivalentContentResolver::combine);
+    }
+
+    @Override
+    public CompletableFuture<EquivalentContent> resolveAliases(final Optional<String> namespace,
+            final Iterable<String> values, final Application application,
+            final Set<Annotation> activeAnnotations) {
+        return executor.submit(values,
+                batch -> delegate.resolveAliases(namespace, batch, application, activeAnnotations)
+        ).thenApply(BatchingAsyncEquivalentContentResolver::combine);
+    }
+
+    private static EquivalentContent combine(List<EquivalentContent> parts) {
+        EquivalentContent.Builder combined = EquivalentContent.builder();
+        for (EquivalentContent part : parts) {
+            for (Map.Entry<String, Collection<Content>> equivalents : part.asMap().entrySet()) {
+                combined.putEquivalents(equivalents.getKey(), equivalents.getValue());
+            }
+        }
+        return combined.build();
+    }
+
+}
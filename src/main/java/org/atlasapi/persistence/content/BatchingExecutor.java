@@ -0,0 +1,81 @@
+package org.atlasapi.persistence.content;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterables;
+
+/**
+ * Runs synchronous resolution calls on an {@link Executor}, splitting the
+ * requested keys into batches of at most {@code batchSize}. The batches of a
+ * single request are spread over at most {@code parallelism} concurrent tasks,
+ * each working through its share of batches in turn.
+ */
+public class BatchingExecutor {
+
+    private final Executor executor;
+    private final int batchSize;
+    private final int parallelism;
+
+    public BatchingExecutor(Executor executor, int batchSize, int parallelism) {
+        checkArgument(batchSize > 0, "batch size must be positive");
+        checkArgument(parallelism > 0, "parallelism must be positive");
+        this.executor = checkNotNull(executor);
+        this.batchSize = batchSize;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Runs a single call which cannot be batched.
+     */
+    public <R> CompletableFuture<R> submit(Supplier<R> call) {
+        return CompletableFuture.supplyAsync(call, executor);
+    }
+
+    /**
+     * Runs {@code call} for each batch of the distinct {@code keys}, in
+     * request order. The future completes with one result per batch, in batch
+     * order, or exceptionally if any batch fails.
+     */
+    public <K, R> CompletableFuture<List<R>> submit(Iterable<K> keys, final Function<List<K>, R> call) {
+        final List<List<K>> batches = ImmutableList.copyOf(
+                Iterables.partition(ImmutableSet.copyOf(keys), batchSize)
+        );
+        if (batches.isEmpty()) {
+            return CompletableFuture.completedFuture(ImmutableList.<R>of());
+        }
+        final Object[] results = new Object[batches.size()];
+        final int lanes = Math.min(parallelism, batches.size());
+        CompletableFuture<?>[] tasks = new CompletableFuture<?>[lanes];
+        for (int lane = 0; lane < lanes; lane++) {
+            final int first = lane;
+            tasks[lane] = CompletableFuture.runAsync(() -> {
+                for (int batch = first; batch < batches.size(); batch += lanes) {
+                    results[batch] = call.apply(batches.get(batch));
+                }
+            }, executor);
+        }
+        return CompletableFuture.allOf(tasks).thenApply(done -> {
+            @SuppressWarnings("unchecked")
+            List<R> ordered = (List<R>) Arrays.asList(results);
+            return ordered;
+        });
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+}
@@ -0,0 +1,370 @@
+package org.atlasapi.persistence.content;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import com.metabroadcast.applications.client.model.internal.Application;
+import org.atlasapi.application.v3.CompiledReadPolicy;
+import org.atlasapi.media.entity.Content;
+import org.atlasapi.media.entity.Identified;
+import org.atlasapi.output.Annotation;
+
+import com.google.common.base.Objects;
+import com.google.common.base.Optional;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.LoadingCache;
+import com.google.common.cache.RemovalListener;
+import com.google.common.cache.RemovalNotification;
+import com.google.common.cache.Weigher;
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Multimaps;
+import com.google.common.collect.SetMultimap;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+/**
+ * Decorates an {@link EquivalentContentResolver}, caching the result of each
+ * request for the keys, annotations and read policy of the requesting
+ * {@link Application}. Concurrent identical requests are loaded only once.
+ * <p>
+ * Applications whose enabled sources and precedence orderings are the same
+ * share cache entries. Entries can be invalidated when a piece of content they
+ * contain is updated, via {@link #invalidate(Identified)}.
+ * <p>
+ * Content is mutable and callers, such as the output mergers, change what they
+ * are given, so each call returns its own {@link Content#copy() copy} of the
+ * cached content. The cached content itself is never handed out. A copy shares
+ * the content's alias, equivalence and tag sets until they are changed, but
+ * still copies its versions, clips, people and events, so each hit costs a
+ * copy of that object graph, which is far less than a backend request.
+ */
+public class CachingEquivalentContentResolver implements EquivalentContentResolver {
+
+    public static Builder builder(EquivalentContentResolver delegate) {
+        return new Builder(delegate);
+    }
+
+    public static final class Builder {
+
+        private final EquivalentContentResolver delegate;
+        private Long maximumSize;
+        private Long maximumWeight;
+        private long expireAfterWrite = 5;
+        private TimeUnit expireAfterWriteUnit = TimeUnit.MINUTES;
+
+        private Builder(EquivalentContentResolver delegate) {
+            this.delegate = checkNotNull(delegate);
+        }
+
+        /**
+         * Bound the number of requests cached.
+         */
+        public Builder withMaximumSize(long maximumSize) {
+            checkState(maximumWeight == null, "maximum weight already set");
+            this.maximumSize = maximumSize;
+            return this;
+        }
+
+        /**
+         * Bound the total number of pieces of content cached across all
+         * requests.
+         */
+        public Builder withMaximumWeight(long maximumWeight) {
+            checkState(maximumSize == null, "maximum size already set");
+            this.maximumWeight = maximumWeight;
+            return this;
+        }
+
+        public Builder withExpireAfterWrite(long duration, TimeUnit unit) {
+            checkArgument(duration >= 0, "negative expiry %s", duration);
+            this.expireAfterWrite = duration;
+            this.expireAfterWriteUnit = checkNotNull(unit);
+            return this;
+        }
+
+        public CachingEquivalentContentResolver build() {
+            return new CachingEquivalentContentResolver(this);
+        }
+    }
+
+    private enum KeyType {
+        URI,
+        ID,
+        ALIAS
+    }
+
+    private final EquivalentContentResolver delegate;
+    private final LoadingCache<RequestKey, EquivalentContent> cache;
+    private final SetMultimap<String, CachedResult> resultsByContentUri
+            = Multimaps.synchronizedSetMultimap(HashMultimap.<String, CachedResult>create());
+
+    private CachingEquivalentContentResolver(Builder builder) {
+        this.delegate = builder.delegate;
+        CacheBuilder<Object, Object> cacheBuilder = CacheBuilder.newBuilder()
+                .recordStats()
+                .expireAfterWrite(builder.expireAfterWrite, builder.expireAfterWriteUnit);
+        if (builder.maximumSize != null) {
+            cacheBuilder.maximumSize(builder.maximumSize);
+        }
+        if (builder.maximumWeight != null) {
+            cacheBuilder.maximumWeight(builder.maximumWeight)
+                    .weigher(new Weigher<RequestKey, EquivalentContent>() {
+                        @Override
+                        public int weigh(RequestKey key, EquivalentContent value) {
+                            return Math.max(1, value.size());
+                        }
+                    });
+        }
+        this.cache = cacheBuilder
+                .removalListener(new RemovalListener<RequestKey, EquivalentContent>() {
+                    @Override
+                    public void onRemoval(RemovalNotification<RequestKey, EquivalentContent> removal) {
+                        unindex(removal.getKey(), removal.getValue());
+                    }
+                })
+                .build(new CacheLoader<RequestKey, EquivalentContent>() {
+                    @Override
+                    public EquivalentContent load(RequestKey key) {
+                        EquivalentContent loaded = key.resolveWith(delegate);
+                        index(key, loaded);
+                        return loaded;
+                    }
+                });
+    }
+
+    @Override
+    public EquivalentContent resolveUris(Iterable<String> uris, Application application,
+            Set<Annotation> activeAnnotations, boolean withAliases) {
+        return get(new RequestKey(KeyType.URI, null, uris, application, activeAnnotations, withAliases));
+    }
+
+    @Override
+    public EquivalentContent resolveIds(Iterable<Long> ids, Application application,
+            Set<Annotation> activeAnnotations) {
+        return get(new RequestKey(KeyType.ID, null, ids, application, activeAnnotations, false));
+    }
+
+    @Override
+    public EquivalentContent resolveAliases(Optional<String> namespace, Iterable<String> values,
+            Application application, Set<Annotation> activeAnnotations) {
+        return get(new RequestKey(KeyType.ALIAS, namespace.orNull(), values, application,
+                activeAnnotations, false));
+    }
+
+    private EquivalentContent get(RequestKey key) {
+        try {
+            return copyOf(cache.get(key));
+        } catch (ExecutionException e) {
+            throw new UncheckedExecutionException(e.getCause());
+        }
+    }
+
+    /**
+     * Copies each piece of content once, however many keys it is held under.
+     */
+    private EquivalentContent copyOf(EquivalentContent cached) {
+        if (cached.isEmpty()) {
+            return cached;
+        }
+        Map<Content, Content> copies = Maps.newIdentityHashMap();
+        EquivalentContent.Builder builder = EquivalentContent.builder();
+        for (Map.Entry<String, Collection<Content>> entry : cached.asMap().entrySet()) {
+            List<Content> equivalents = Lists.newArrayListWithCapacity(entry.getValue().size());
+            for (Content content : entry.getValue()) {
+                Content copy = copies.get(content);
+                if (copy == null) {
+                    copy = (Content) content.copy();
+                    copies.put(content, copy);
+                }
+                equivalents.add(copy);
+            }
+            builder.putEquivalents(entry.getKey(), equivalents);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Discards every cached result holding a different version of
+     * {@code updated}, as judged by its last updated time and, for content, its
+     * read hash.
+     */
+    public void invalidate(Identified updated) {
+        ImmutableSet<CachedResult> results;
+        synchronized (resultsByContentUri) {
+            results = ImmutableSet.copyOf(resultsByContentUri.get(updated.getCanonicalUri()));
+        }
+        for (CachedResult result : results) {
+            EquivalentContent cached = cache.getIfPresent(result.key);
+            if (cached == result.content && holdsStaleVersion(cached, updated)) {
+                cache.invalidate(result.key);
+            }
+        }
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * Hit, miss, load and eviction counts since this resolver was created.
+     */
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    private boolean holdsStaleVersion(EquivalentContent cached, Identified updated) {
+        for (Content content : cached.values()) {
+            if (Objects.equal(content.getCanonicalUri(), updated.getCanonicalUri())
+                    && isStale(content, updated)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isStale(Content cached, Identified updated) {
+        if (!Objects.equal(cached.getLastUpdated(), updated.getLastUpdated())) {
+            return true;
+        }
+        return updated instanceof Content
+                && !Objects.equal(cached.getReadHash(), ((Content) updated).getReadHash());
+    }
+
+    /*
+     * Results are indexed by their content, not just their key: the removal
+     * of a key's previous result can be notified after its next result has
+     * been loaded and indexed, and must not unindex the new one.
+     */
+    private void index(RequestKey key, EquivalentContent loaded) {
+        CachedResult result = new CachedResult(key, loaded);
+        for (Content content : loaded.values()) {
+            resultsByContentUri.put(content.getCanonicalUri(), result);
+        }
+    }
+
+    private void unindex(RequestKey key, EquivalentContent removed) {
+        if (removed == null) {
+            return;
+        }
+        CachedResult result = new CachedResult(key, removed);
+        for (Content content : removed.values()) {
+            resultsByContentUri.remove(content.getCanonicalUri(), result);
+        }
+    }
+
+    /**
+     * A result loaded for a request, equal only to the same result.
+     */
+    private static final class CachedResult {
+
+        private final RequestKey key;
+        private final EquivalentContent content;
+
+        CachedResult(RequestKey key, EquivalentContent content) {
+            this.key = key;
+            this.content = content;
+        }
+
+        @Override
+        public boolean equals(Object that) {
+            if (this == that) {
+                return true;
+            }
+            if (that instanceof CachedResult) {
+                CachedResult other = (CachedResult) that;
+                return content == other.content && key.equals(other.key);
+            }
+            return false;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * key.hashCode() + System.identityHashCode(content);
+        }
+    }
+
+    /**
+     * A request, identified by its keys, annotations and read policy. The
+     * requesting application is carried along to load the entry but is not
+     * part of its identity.
+     */
+    private static final class RequestKey {
+
+        private final KeyType type;
+        private final String namespace;
+        private final ImmutableSet<?> keys;
+        private final CompiledReadPolicy readPolicy;
+        private final ImmutableSet<Annotation> annotations;
+        private final boolean withAliases;
+        private final Application application;
+
+        RequestKey(KeyType type, String namespace, Iterable<?> keys, Application application,
+                Set<Annotation> annotations, boolean withAliases) {
+            this.type = type;
+            this.namespace = namespace;
+            this.keys = ImmutableSet.copyOf(keys);
+            this.readPolicy = CompiledReadPolicy.forApplication(application);
+            this.annotations = ImmutableSet.copyOf(annotations);
+            this.withAliases = withAliases;
+            this.application = application;
+        }
+
+        @SuppressWarnings("unchecked")
+        EquivalentContent resolveWith(EquivalentContentResolver resolver) {
+            switch (type) {
+            case URI:
+                return resolver.resolveUris((Iterable<String>) keys, application, annotations, withAliases);
+            case ID:
+                return resolver.resolveIds((Iterable<Long>) keys, application, annotations);
+            default:
+                return resolver.resolveAliases(Optional.fromNullable(namespace),
+                        (Iterable<String>) keys, application, annotations);
+            }
+        }
+
+        @Override
+        public boolean equals(Object that) {
+            if (this == that) {
+                return true;
+            }
+            if (that instanceof RequestKey) {
+                RequestKey other = (RequestKey) that;
+                return type == other.type
+                        && withAliases == other.withAliases
+                        && Objects.equal(namespace, other.namespace)
+                        && keys.equals(other.keys)
+                        && annotations.equals(other.annotations)
+                        && readPolicy.equals(other.readPolicy);
+            }
+            return false;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(type, withAliases, namespace, keys, annotations, readPolicy);
+        }
+
+        @Override
+        public String toString() {
+            return Objects.toStringHelper(this)
+                    .add("type", type)
+                    .add("namespace", namespace)
+                    .add("keys", keys)
+                    .add("annotations", annotations)
+                    .toString();
+        }
+    }
+
+}
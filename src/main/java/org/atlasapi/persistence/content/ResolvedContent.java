@@ -44,6 +44,22 @@ public class ResolvedContent {
         return new ResolvedContentBuilder();
     }
 
+    /**
+     * Combines the results of several resolutions, e.g. of batches of a
+     * larger request. Where queries are repeated the first result is kept.
+     */
+    public static ResolvedContent combine(Iterable<ResolvedContent> parts) {
+        Map<String, Maybe<Identified>> combined = Maps.newLinkedHashMap();
+        for (ResolvedContent part : parts) {
+            for (Entry<String, Maybe<Identified>> result : part.map.entrySet()) {
+                if (!combined.containsKey(result.getKey())) {
+                    combined.put(result.getKey(), result.getValue());
+                }
+            }
+        }
+        return new ResolvedContent(ImmutableMap.copyOf(combined));
+    }
+
     private final Map<String, Maybe<Identified>> map;
 
     public ResolvedContent(Map<String, Maybe<Identified>> map) {
@@ -51,7 +67,12 @@ public class ResolvedContent {
     }
 
     public boolean resolvedAll() {
-        return Iterables.size(Maybe.filterValues(map.values())) == map.size();
+        for (Maybe<Identified> result : map.values()) {
+            if (!result.hasValue()) {
+                return false;
+            }
+        }
+        return true;
     }
     
     public boolean resolved(String query) {
@@ -123,7 +144,12 @@ public class ResolvedContent {
     }
 
     public boolean isEmpty() {
-        return map.isEmpty() || getAllResolvedResults().isEmpty();
+        for (Maybe<Identified> result : map.values()) {
+            if (result.hasValue()) {
+                return false;
+            }
+        }
+        return true;
     }
 
     @Override
@@ -0,0 +1,15 @@
+package org.atlasapi.persistence.content;
+
+import org.atlasapi.media.entity.Identified;
+
+/**
+ * Receives the results of a {@link StreamingContentResolver} one requested
+ * identifier at a time.
+ */
+public interface ResolvedContentListener {
+
+    void resolved(String query, Identified content);
+
+    void unresolved(String query);
+
+}
@@ -0,0 +1,104 @@
+package org.atlasapi.persistence.content;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.List;
+
+import org.atlasapi.media.entity.Identified;
+
+import com.google.common.base.Objects;
+import com.google.common.collect.Iterables;
+import com.metabroadcast.common.base.Maybe;
+
+/**
+ * Resolves large batches of URIs through a {@link ContentResolver} a chunk at
+ * a time, passing each result to a {@link ResolvedContentListener} rather than
+ * collecting them. Only one chunk's {@link ResolvedContent} is held at once,
+ * so memory use is bounded by the chunk size rather than the batch size.
+ */
+public class StreamingContentResolver {
+
+    private final ContentResolver delegate;
+    private final int chunkSize;
+
+    public StreamingContentResolver(ContentResolver delegate, int chunkSize) {
+        checkArgument(chunkSize > 0, "chunk size must be positive");
+        this.delegate = checkNotNull(delegate);
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Resolves content by canonical URI, reporting each requested URI to the
+     * listener in request order.
+     */
+    public ResolutionCount findByCanonicalUris(Iterable<String> canonicalUris, ResolvedContentListener listener) {
+        ResolutionCount count = new ResolutionCount();
+        for (List<String> chunk : Iterables.partition(canonicalUris, chunkSize)) {
+            report(chunk, delegate.findByCanonicalUris(chunk), listener, count);
+        }
+        return count;
+    }
+
+    /**
+     * Resolves content by canonical or alias URI, reporting each requested URI
+     * to the listener in request order.
+     */
+    public ResolutionCount findByUris(Iterable<String> uris, ResolvedContentListener listener) {
+        ResolutionCount count = new ResolutionCount();
+        for (List<String> chunk : Iterables.partition(uris, chunkSize)) {
+            report(chunk, delegate.findByUris(chunk), listener, count);
+        }
+        return count;
+    }
+
+    private void report(List<String> queries, ResolvedContent resolved,
+            ResolvedContentListener listener, ResolutionCount count) {
+        for (String query : queries) {
+            Maybe<Identified> result = resolved.get(query);
+            if (result.hasValue()) {
+                count.resolved++;
+                listener.resolved(query, result.requireValue());
+            } else {
+                count.unresolved++;
+                listener.unresolved(query);
+            }
+        }
+    }
+
+    /**
+     * Running totals of the URIs resolved, and not, by a streaming resolution.
+     */
+    public static final class ResolutionCount {
+
+        private long resolved;
+        private long unresolved;
+
+        private ResolutionCount() {
+        }
+
+        public long resolved() {
+            return resolved;
+        }
+
+        public long unresolved() {
+            return unresolved;
+        }
+
+        public long total() {
+            return resolved + unresolved;
+        }
+
+        public boolean resolvedAll() {
+            return unresolved == 0;
+        }
+
+        @Override
+        public String toString() {
+            return Objects.toStringHelper(this)
+                    .add("resolved", resolved)
+                    .add("unresolved", unresolved)
+                    .toString();
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package org.atlasapi.persistence.content.query;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import org.atlasapi.content.criteria.ContentQuery;
+import org.atlasapi.media.entity.Identified;
+import org.atlasapi.media.entity.Publisher;
+
+import com.google.common.base.Optional;
+
+/**
+ * Asynchronous counterpart of {@link KnownTypeQueryExecutor}.
+ */
+public interface AsyncKnownTypeQueryExecutor {
+
+    CompletableFuture<Map<String, List<Identified>>> executeUriQuery(Iterable<String> uris, ContentQuery query);
+
+    CompletableFuture<Map<String, List<Identified>>> executeIdQuery(Iterable<Long> ids, ContentQuery query);
+
+    CompletableFuture<Map<String, List<Identified>>> executeAliasQuery(Optional<String> namespace, Iterable<String> values, ContentQuery query);
+
+    CompletableFuture<Map<String, List<Identified>>> executePublisherQuery(Iterable<Publisher> publishers, ContentQuery query);
+
+}
@@ -0,0 +1,72 @@
+package org.atlasapi.persistence.content.query;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import org.atlasapi.content.criteria.ContentQuery;
+import org.atlasapi.media.entity.Identified;
+import org.atlasapi.media.entity.Publisher;
+import org.atlasapi.persistence.content.BatchingExecutor;
+
+import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
+
+/**
+ * Adapts a synchronous {@link KnownTypeQueryExecutor} to an
+ * {@link AsyncKnownTypeQueryExecutor}, executing batches of the requested keys
+ * on a {@link BatchingExecutor}. Publisher queries are not batched.
+ */
+public class BatchingAsyncKnownTypeQueryExecutor implements AsyncKnownTypeQueryExecutor {
+
+    private final KnownTypeQueryExecutor delegate;
+    private final BatchingExecutor executor;
+
+    public BatchingAsyncKnownTypeQueryExecutor(KnownTypeQueryExecutor delegate, BatchingExecutor executor) {
+        this.delegate = checkNotNull(delegate);
+        this.executor = checkNotNull(executor);
+    }
+
+    @Override
+    public CompletableFuture<Map<String, List<Identified>>> executeUriQuery(Iterable<String> uris,
+            final ContentQuery query) {
+        return executor.submit(uris, batch -> delegate.executeUriQuery(batch, query))
+                .thenApply(BatchingAsyncKnownTypeQueryExecutor::combine);
+    }
+
+    @Override
+    public CompletableFuture<Map<String, List<Identified>>> executeIdQuery(Iterable<Long> ids,
+            final ContentQuery query) {
+        return executor.submit(ids, batch -> delegate.executeIdQuery(batch, query))
+                .thenApply(BatchingAsyncKnownTypeQueryExecutor::combine);
+    }
+
+    @Override
+    public CompletableFuture<Map<String, List<Identified>>> executeAliasQuery(
+            final Optional<String> namespace, Iterable<String> values, final ContentQuery query) {
+        return executor.submit(values, batch -> delegate.executeAliasQuery(namespace, batch, query))
+                .thenApply(BatchingAsyncKnownTypeQueryExecutor::combine);
+    }
+
+    @Override
+    public CompletableFuture<Map<String, List<Identified>>> executePublisherQuery(
+            final Iterable<Publisher> publishers, final ContentQuery query) {
+        return executor.submit(() -> delegate.executePublisherQuery(publishers, query));
+    }
+
+    private static Map<String, List<Identified>> combine(List<Map<String, List<Identified>>> parts) {
+        Map<String, List<Identified>> combined = Maps.newLinkedHashMap();
+        for (Map<String, List<Identified>> part : parts) {
+            for (Map.Entry<String, List<Identified>> result : part.entrySet()) {
+                if (!combined.containsKey(result.getKey())) {
+                    combined.put(result.getKey(), result.getValue());
+                }
+            }
+        }
+        return ImmutableMap.copyOf(combined);
+    }
+
+}
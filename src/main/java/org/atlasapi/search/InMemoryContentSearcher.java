@@ -0,0 +1,415 @@
+package org.atlasapi.search;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.math.BigInteger;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import org.atlasapi.media.entity.Broadcast;
+import org.atlasapi.media.entity.Described;
+import org.atlasapi.media.entity.Encoding;
+import org.atlasapi.media.entity.EntityType;
+import org.atlasapi.media.entity.Item;
+import org.atlasapi.media.entity.Location;
+import org.atlasapi.media.entity.Publisher;
+import org.atlasapi.media.entity.Series;
+import org.atlasapi.media.entity.Specialization;
+import org.atlasapi.media.entity.Version;
+import org.atlasapi.media.entity.simple.ContentIdentifier;
+import org.atlasapi.search.model.SearchQuery;
+import org.atlasapi.search.model.SearchResults;
+import org.joda.time.DateTime;
+
+import com.google.common.base.Joiner;
+import com.google.common.base.Objects;
+import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.metabroadcast.common.ids.NumberToShortStringCodec;
+import com.metabroadcast.common.time.DateTimeZones;
+
+/**
+ * An in-process {@link ContentSearcher} over content indexed into it, for
+ * testing and load testing without the search service.
+ * <p>
+ * Titles are split into lower case words held in an inverted index. Every
+ * word of a query must match a title word, exactly or as a prefix. Matches
+ * are scored by the {@link SearchQuery} weightings of:
+ * <ul>
+ * <li>title - exact word matches over prefix matches, and the whole title
+ * over its words,</li>
+ * <li>broadcast - 1 for content broadcast now or later, falling away by week
+ * since its last broadcast, multiplied by the priority channel weighting for
+ * broadcasts on a priority channel, and</li>
+ * <li>catchup - 1 for content with an available location.</li>
+ * </ul>
+ * Content can be indexed and removed while searches are running.
+ */
+public class InMemoryContentSearcher implements DebuggableContentSearcher {
+
+    private static final ImmutableSet<EntityType> SEARCHABLE_TYPES = ImmutableSet.of(
+            EntityType.BRAND, EntityType.SERIES, EntityType.ITEM, EntityType.EPISODE,
+            EntityType.FILM, EntityType.SONG, EntityType.PERSON);
+
+    private static final float EXACT_WORD = 1.0f;
+    private static final float PREFIX_WORD = 0.5f;
+    private static final float WORDS_ONLY = 0.9f;
+    private static final long WEEK_MILLIS = 7 * 24 * 60 * 60 * 1000L;
+
+    private final NumberToShortStringCodec idCodec;
+    private final ImmutableSet<String> priorityChannels;
+
+    private final ConcurrentMap<String, Document> documents = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<String, Set<String>> postings = new ConcurrentSkipListMap<>();
+
+    public InMemoryContentSearcher(NumberToShortStringCodec idCodec) {
+        this(idCodec, ImmutableSet.<String>of());
+    }
+
+    /**
+     * @param priorityChannels
+     *            - uris of the channels whose broadcasts are weighted by
+     *            {@link SearchQuery#getPriorityChannelWeighting()}.
+     */
+    public InMemoryContentSearcher(NumberToShortStringCodec idCodec, Iterable<String> priorityChannels) {
+        this.idCodec = checkNotNull(idCodec);
+        this.priorityChannels = ImmutableSet.copyOf(priorityChannels);
+    }
+
+    /**
+     * Adds {@code content} to the index, replacing any content previously
+     * indexed with the same canonical URI.
+     */
+    public synchronized void index(Described content) {
+        EntityType type = EntityType.from(content);
+        checkArgument(SEARCHABLE_TYPES.contains(type), "can't search for %s", type);
+        Document document = new Document(content, type, idCodec, priorityChannels);
+        Document previous = documents.put(document.uri, document);
+        if (previous != null) {
+            removePostings(previous);
+        }
+        for (String word : document.words) {
+            Set<String> uris = postings.get(word);
+            if (uris == null) {
+                uris = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+                postings.put(word, uris);
+            }
+            uris.add(document.uri);
+        }
+    }
+
+    public void index(Iterable<? extends Described> contents) {
+        for (Described content : contents) {
+            index(content);
+        }
+    }
+
+    public synchronized void remove(String canonicalUri) {
+        Document removed = documents.remove(canonicalUri);
+        if (removed != null) {
+            removePostings(removed);
+        }
+    }
+
+    private void removePostings(Document document) {
+        for (String word : document.words) {
+            Set<String> uris = postings.get(word);
+            if (uris != null) {
+                uris.remove(document.uri);
+                if (uris.isEmpty()) {
+                    postings.remove(word);
+                }
+            }
+        }
+    }
+
+    public int size() {
+        return documents.size();
+    }
+
+    @Override
+    public SearchResults search(SearchQuery query) {
+        List<ScoredDocument> scored = score(query);
+        List<ContentIdentifier> identifiers = Lists.newArrayListWithCapacity(scored.size());
+        for (ScoredDocument document : scored) {
+            identifiers.add(document.document.identifier());
+        }
+        return new SearchResults(query.getSelection().applyTo(identifiers));
+    }
+
+    @Override
+    public String debug(SearchQuery query) {
+        return Joiner.on('\n').join(query.getSelection().applyTo(score(query)));
+    }
+
+    @Override
+    public Optional<String> document(String key) {
+        Document document = documents.get(key);
+        return document == null ? Optional.<String>absent() : Optional.of(document.toString());
+    }
+
+    private List<ScoredDocument> score(SearchQuery query) {
+        List<String> queryWords = words(query.getTerm());
+        if (queryWords.isEmpty()) {
+            return ImmutableList.of();
+        }
+        Filter filter = new Filter(query, new DateTime(DateTimeZones.UTC).getMillis());
+        Map<String, Float> wordScores = null;
+        for (String queryWord : queryWords) {
+            Map<String, Float> matches = matches(queryWord);
+            wordScores = wordScores == null ? matches : combine(wordScores, matches);
+            if (wordScores.isEmpty()) {
+                return ImmutableList.of();
+            }
+        }
+        String normalisedTerm = Joiner.on(' ').join(queryWords);
+        List<ScoredDocument> scored = Lists.newArrayList();
+        for (Map.Entry<String, Float> match : wordScores.entrySet()) {
+            Document document = documents.get(match.getKey());
+            if (document == null || !filter.apply(document)) {
+                continue;
+            }
+            float title = normalisedTerm.equals(document.normalisedTitle)
+                        ? 1.0f
+                        : WORDS_ONLY * match.getValue() / queryWords.size();
+            scored.add(new ScoredDocument(document, query, title, filter.now));
+        }
+        Collections.sort(scored, BY_SCORE);
+        return scored;
+    }
+
+    /* the uris of documents with a word matching queryWord, with the best match's score. */
+    private Map<String, Float> matches(String queryWord) {
+        Map<String, Float> matches = Maps.newHashMap();
+        Map<String, Set<String>> prefixed = postings.subMap(queryWord, queryWord + Character.MAX_VALUE);
+        for (Map.Entry<String, Set<String>> word : prefixed.entrySet()) {
+            float score = word.getKey().equals(queryWord) ? EXACT_WORD : PREFIX_WORD;
+            for (String uri : word.getValue()) {
+                Float current = matches.get(uri);
+                if (current == null || current < score) {
+                    matches.put(uri, score);
+                }
+            }
+        }
+        return matches;
+    }
+
+    private Map<String, Float> combine(Map<String, Float> scores, Map<String, Float> matches) {
+        Map<String, Float> combined = Maps.newHashMap();
+        for (Map.Entry<String, Float> score : scores.entrySet()) {
+            Float match = matches.get(score.getKey());
+            if (match != null) {
+                combined.put(score.getKey(), score.getValue() + match);
+            }
+        }
+        return combined;
+    }
+
+    /* the lower case runs of letters and digits in text. */
+    private static List<String> words(String text) {
+        if (text == null) {
+            return ImmutableList.of();
+        }
+        String lowerCase = text.toLowerCase();
+        ImmutableList.Builder<String> words = ImmutableList.builder();
+        int start = -1;
+        for (int i = 0; i <= lowerCase.length(); i++) {
+            boolean inWord = i < lowerCase.length() && Character.isLetterOrDigit(lowerCase.charAt(i));
+            if (inWord && start < 0) {
+                start = i;
+            } else if (!inWord && start >= 0) {
+                words.add(lowerCase.substring(start, i));
+                start = -1;
+            }
+        }
+        return words.build();
+    }
+
+    private static final Comparator<ScoredDocument> BY_SCORE = new Comparator<ScoredDocument>() {
+        @Override
+        public int compare(ScoredDocument left, ScoredDocument right) {
+            int cmp = Float.compare(right.score, left.score);
+            if (cmp == 0) {
+                cmp = Float.compare(right.title, left.title);
+            }
+            if (cmp == 0) {
+                cmp = left.document.normalisedTitle.compareTo(right.document.normalisedTitle);
+            }
+            return cmp != 0 ? cmp : left.document.uri.compareTo(right.document.uri);
+        }
+    };
+
+    private static final class Filter {
+
+        private final Set<Publisher> publishers;
+        private final Set<Specialization> specializations;
+        private final EntityType type;
+        private final boolean topLevelOnly;
+        private final boolean currentBroadcastsOnly;
+        private final long now;
+
+        private Filter(SearchQuery query, long now) {
+            this.publishers = query.getIncludedPublishers();
+            this.specializations = query.getIncludedSpecializations();
+            this.type = query.type() == null ? null : EntityType.from(query.type());
+            this.topLevelOnly = Boolean.TRUE.equals(query.topLevelOnly());
+            this.currentBroadcastsOnly = Boolean.TRUE.equals(query.currentBroadcastsOnly());
+            this.now = now;
+        }
+
+        private boolean apply(Document document) {
+            return (publishers.isEmpty() || publishers.contains(document.publisher))
+                && (specializations.isEmpty() || specializations.contains(document.specialization))
+                && (type == null || type == document.type)
+                && (!topLevelOnly || document.topLevel)
+                && (!currentBroadcastsOnly || document.lastBroadcastEnd >= now);
+        }
+    }
+
+    private static final class Document {
+
+        private final String uri;
+        private final String id;
+        private final EntityType type;
+        private final Integer seriesNumber;
+        private final String title;
+        private final String normalisedTitle;
+        private final ImmutableSet<String> words;
+        private final Publisher publisher;
+        private final Specialization specialization;
+        private final boolean topLevel;
+        /* millis, Long.MIN_VALUE if never broadcast or never available. */
+        private final long lastBroadcastEnd;
+        private final long availableUntil;
+        private final boolean onPriorityChannel;
+
+        private Document(Described content, EntityType type, NumberToShortStringCodec idCodec,
+                Set<String> priorityChannels) {
+            this.uri = checkNotNull(content.getCanonicalUri(), "content has no uri");
+            this.id = content.getId() == null ? null : idCodec.encode(BigInteger.valueOf(content.getId()));
+            this.type = type;
+            this.seriesNumber = content instanceof Series ? ((Series) content).getSeriesNumber() : null;
+            this.title = content.getTitle();
+            List<String> titleWords = words(title);
+            this.normalisedTitle = Joiner.on(' ').join(titleWords);
+            this.words = ImmutableSet.copyOf(titleWords);
+            this.publisher = content.getPublisher();
+            this.specialization = content.getSpecialization();
+            this.topLevel = isTopLevel(content);
+            long lastBroadcastEnd = Long.MIN_VALUE;
+            long availableUntil = Long.MIN_VALUE;
+            boolean onPriorityChannel = false;
+            if (content instanceof Item) {
+                for (Version version : ((Item) content).getVersions()) {
+                    for (Broadcast broadcast : version.getBroadcasts()) {
+                        if (broadcast.getTransmissionEndTime() != null) {
+                            lastBroadcastEnd = Math.max(lastBroadcastEnd, broadcast.getTransmissionEndTime().getMillis());
+                        }
+                        onPriorityChannel |= priorityChannels.contains(broadcast.getBroadcastOn());
+                    }
+                    for (Encoding encoding : version.getManifestedAs()) {
+                        for (Location location : encoding.getAvailableAt()) {
+                            availableUntil = Math.max(availableUntil, availableUntil(location));
+                        }
+                    }
+                }
+            }
+            this.lastBroadcastEnd = lastBroadcastEnd;
+            this.availableUntil = availableUntil;
+            this.onPriorityChannel = onPriorityChannel;
+        }
+
+        private static boolean isTopLevel(Described content) {
+            if (content instanceof Item) {
+                return ((Item) content).getContainer() == null;
+            }
+            if (content instanceof Series) {
+                return ((Series) content).getParent() == null;
+            }
+            return true;
+        }
+
+        private static long availableUntil(Location location) {
+            if (!location.getAvailable()) {
+                return Long.MIN_VALUE;
+            }
+            if (location.getPolicy() == null || location.getPolicy().getAvailabilityEnd() == null) {
+                return Long.MAX_VALUE;
+            }
+            return location.getPolicy().getAvailabilityEnd().getMillis();
+        }
+
+        private ContentIdentifier identifier() {
+            if (type == EntityType.SERIES) {
+                return ContentIdentifier.seriesIdentifierFrom(uri, id, seriesNumber);
+            }
+            return ContentIdentifier.identifierFrom(id, uri, type.toString());
+        }
+
+        @Override
+        public String toString() {
+            return Objects.toStringHelper(this)
+                    .add("uri", uri)
+                    .add("type", type)
+                    .add("title", title)
+                    .add("words", words)
+                    .add("publisher", publisher)
+                    .add("specialization", specialization)
+                    .add("topLevel", topLevel)
+                    .add("lastBroadcastEnd", lastBroadcastEnd == Long.MIN_VALUE ? null : lastBroadcastEnd)
+                    .add("availableUntil", availableUntil == Long.MIN_VALUE ? null : availableUntil)
+                    .add("onPriorityChannel", onPriorityChannel)
+                    .toString();
+        }
+    }
+
+    private static final class ScoredDocument {
+
+        private final Document document;
+        private final float title;
+        private final float broadcast;
+        private final float catchup;
+        private final float score;
+
+        private ScoredDocument(Document document, SearchQuery query, float title, long now) {
+            this.document = document;
+            this.title = title;
+            this.broadcast = broadcastScore(document, query, now);
+            this.catchup = document.availableUntil > now ? 1.0f : 0.0f;
+            this.score = query.getTitleWeighting() * title
+                    + query.getBroadcastWeighting() * broadcast
+                    + query.getCatchupWeighting() * catchup;
+        }
+
+        private static float broadcastScore(Document document, SearchQuery query, long now) {
+            if (document.lastBroadcastEnd == Long.MIN_VALUE) {
+                return 0.0f;
+            }
+            float recency = document.lastBroadcastEnd >= now
+                          ? 1.0f
+                          : 1.0f / (1 + (now - document.lastBroadcastEnd) / (float) WEEK_MILLIS);
+            return document.onPriorityChannel ? recency * query.getPriorityChannelWeighting() : recency;
+        }
+
+        @Override
+        public String toString() {
+            return Objects.toStringHelper(this)
+                    .add("score", score)
+                    .add("title", title)
+                    .add("broadcast", broadcast)
+                    .add("catchup", catchup)
+                    .addValue(document)
+                    .toString();
+        }
+    }
+}
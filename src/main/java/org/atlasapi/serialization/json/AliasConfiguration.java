@@ -0,0 +1,13 @@
+package org.atlasapi.serialization.json;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ */
+public abstract class AliasConfiguration {
+    
+    @JsonCreator
+    AliasConfiguration(@JsonProperty("namespace") String namespace, @JsonProperty("value") String value) {
+    }
+}
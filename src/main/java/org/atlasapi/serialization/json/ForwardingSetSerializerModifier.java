@@ -0,0 +1,63 @@
+package org.atlasapi.serialization.json;
+
+import java.util.Set;
+
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.ser.BeanSerializerModifier;
+import com.fasterxml.jackson.databind.ser.std.StdDelegatingSerializer;
+import com.fasterxml.jackson.databind.type.CollectionType;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import com.fasterxml.jackson.databind.util.Converter;
+import com.google.common.collect.ForwardingSet;
+import com.google.common.collect.Sets;
+
+/**
+ * Writes {@link ForwardingSet}s, such as the copy-on-write sets held by
+ * entities, as the {@link java.util.HashSet}s they stand in for, so their
+ * class name never reaches stored JSON and they read back as plain sets.
+ * <p>
+ * Sets whose elements carry type information are written by the serializer
+ * of the declared set type rather than of the runtime type, so every set
+ * serializer is wrapped rather than one registered for {@link ForwardingSet}.
+ */
+public class ForwardingSetSerializerModifier extends BeanSerializerModifier {
+
+    @Override
+    public JsonSerializer<?> modifyCollectionSerializer(SerializationConfig config,
+            CollectionType valueType, BeanDescription beanDesc, JsonSerializer<?> serializer) {
+        if (!Set.class.isAssignableFrom(valueType.getRawClass())) {
+            return serializer;
+        }
+        return new StdDelegatingSerializer(new ToHashSet(valueType), valueType, serializer);
+    }
+
+    private static final class ToHashSet implements Converter<Object, Object> {
+
+        private final JavaType type;
+
+        public ToHashSet(JavaType type) {
+            this.type = type;
+        }
+
+        @Override
+        public Object convert(Object value) {
+            if (value instanceof ForwardingSet) {
+                return Sets.newHashSet((ForwardingSet<?>) value);
+            }
+            return value;
+        }
+
+        @Override
+        public JavaType getInputType(TypeFactory typeFactory) {
+            return type;
+        }
+
+        @Override
+        public JavaType getOutputType(TypeFactory typeFactory) {
+            return type;
+        }
+    }
+}
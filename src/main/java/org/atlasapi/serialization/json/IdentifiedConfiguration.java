@@ -0,0 +1,17 @@
+package org.atlasapi.serialization.json;
+
+import java.util.Set;
+
+import org.atlasapi.media.entity.LookupRef;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Reads the equivalent set through its setter, which keeps it in the set type
+ * {@link org.atlasapi.media.entity.Identified} indexes.
+ */
+public abstract class IdentifiedConfiguration {
+
+    @JsonProperty("equivalentTo")
+    abstract void setEquivalentTo(Set<LookupRef> uris);
+}
@@ -0,0 +1,81 @@
+package org.atlasapi.serialization.json;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Collections;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.ser.FilterProvider;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Reads and writes values of a single type with a reader and writer bound to
+ * that type once, rather than resolving the type on every call to a shared
+ * {@link ObjectMapper}. Codecs are thread-safe and intended to be reused.
+ * <p>
+ * The {@link Format}s share one mapper each, configured as by
+ * {@link JsonFactory}, so the Smile encoding has the same field visibility and
+ * mix-ins as JSON. Unless other filters are given, the {@code Item} and
+ * {@code Container} filters serialize every field.
+ */
+public final class JsonCodec<T> {
+
+    public enum Format {
+
+        JSON(JsonFactory.makeJsonMapper()),
+        SMILE(JsonFactory.makeSmileMapper());
+
+        private final ObjectMapper mapper;
+
+        Format(ObjectMapper mapper) {
+            this.mapper = mapper;
+        }
+
+        public ObjectMapper mapper() {
+            return mapper;
+        }
+    }
+
+    private static final FilterProvider SERIALIZE_ALL = new SimpleFilterProvider()
+            .setDefaultFilter(SimpleBeanPropertyFilter.serializeAllExcept(Collections.<String>emptySet()));
+
+    public static <T> JsonCodec<T> create(Class<T> type, Format format) {
+        return create(type, format, SERIALIZE_ALL);
+    }
+
+    public static <T> JsonCodec<T> create(Class<T> type, Format format, FilterProvider filters) {
+        return new JsonCodec<T>(type, format.mapper(), filters);
+    }
+
+    private final Class<T> type;
+    private final ObjectReader reader;
+    private final ObjectWriter writer;
+
+    private JsonCodec(Class<T> type, ObjectMapper mapper, FilterProvider filters) {
+        this.type = checkNotNull(type);
+        this.reader = mapper.readerFor(type);
+        this.writer = mapper.writerFor(type).with(checkNotNull(filters));
+    }
+
+    public byte[] encode(T value) throws IOException {
+        return writer.writeValueAsBytes(value);
+    }
+
+    public void encode(T value, OutputStream out) throws IOException {
+        writer.writeValue(out, value);
+    }
+
+    public T decode(byte[] bytes) throws IOException {
+        return type.cast(reader.readValue(bytes));
+    }
+
+    public T decode(InputStream in) throws IOException {
+        return type.cast(reader.readValue(in));
+    }
+}
@@ -2,10 +2,13 @@ package org.atlasapi.serialization.json;
 
 import org.atlasapi.equiv.ContentRef;
 import org.atlasapi.equiv.EquivalenceSummary;
+import org.atlasapi.media.entity.Alias;
 import org.atlasapi.media.entity.Broadcast;
 import org.atlasapi.media.entity.ChildRef;
+import org.atlasapi.media.entity.Identified;
 import org.atlasapi.media.entity.Container;
 import org.atlasapi.media.entity.Item;
+import org.atlasapi.media.entity.LookupRef;
 import org.atlasapi.media.entity.ParentRef;
 import org.atlasapi.media.entity.Publisher;
 import org.atlasapi.media.entity.RelatedLink;
@@ -16,6 +19,7 @@ import com.fasterxml.jackson.annotation.PropertyAccessor;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import com.fasterxml.jackson.datatype.guava.GuavaModule;
 import com.metabroadcast.common.intl.Country;
 
@@ -24,7 +28,18 @@ import com.metabroadcast.common.intl.Country;
 public class JsonFactory {
 
     public static ObjectMapper makeJsonMapper() {
-        ObjectMapper mapper = new ObjectMapper();
+        return configure(new ObjectMapper());
+    }
+
+    /**
+     * A mapper with the same configuration as {@link #makeJsonMapper()} which
+     * reads and writes the binary Smile encoding of JSON.
+     */
+    public static ObjectMapper makeSmileMapper() {
+        return configure(new ObjectMapper(new SmileFactory()));
+    }
+
+    private static ObjectMapper configure(ObjectMapper mapper) {
         mapper.disable(SerializationFeature.WRITE_EMPTY_JSON_ARRAYS, SerializationFeature.WRITE_NULL_MAP_VALUES);
         mapper.registerModule(new AtlasModule());
         mapper.registerModule(new GuavaModule());
@@ -48,9 +63,11 @@ public class JsonFactory {
             addKeyDeserializer(Publisher.class, new PublisherConfiguration.PublisherKeyDeserializer());
             
             super.setupModule(context);
+            context.addBeanSerializerModifier(new ForwardingSetSerializerModifier());
             //
             context.setMixInAnnotations(Object.class, ObjectConfiguration.class);
             //
+            context.setMixInAnnotations(Identified.class, IdentifiedConfiguration.class);
             context.setMixInAnnotations(Container.class, ContainerConfiguration.class);
             context.setMixInAnnotations(Item.class, ItemConfiguration.class);
             context.setMixInAnnotations(Broadcast.class, BroadcastConfiguration.class);
@@ -59,6 +76,8 @@ public class JsonFactory {
             context.setMixInAnnotations(ParentRef.class, ParentRefConfiguration.class);
             context.setMixInAnnotations(ChildRef.class, ChildRefConfiguration.class);
             context.setMixInAnnotations(ContentRef.class, ContentRefConfiguration.class);
+            context.setMixInAnnotations(Alias.class, AliasConfiguration.class);
+            context.setMixInAnnotations(LookupRef.class, LookupRefConfiguration.class);
         }
     }
     
@@ -0,0 +1,17 @@
+package org.atlasapi.serialization.json;
+
+import org.atlasapi.media.entity.Publisher;
+import org.atlasapi.persistence.content.ContentCategory;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ */
+public abstract class LookupRefConfiguration {
+    
+    @JsonCreator
+    LookupRefConfiguration(@JsonProperty("uri") String uri, @JsonProperty("id") Long id,
+            @JsonProperty("publisher") Publisher publisher, @JsonProperty("category") ContentCategory category) {
+    }
+}
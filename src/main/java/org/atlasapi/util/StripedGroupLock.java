@@ -0,0 +1,301 @@
+package org.atlasapi.util;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.google.common.collect.Ordering;
+
+/**
+ * <p>
+ * Lock multiple values simultaneously, with the same contract as
+ * {@link GroupLock} but without a single shared monitor. Each value currently
+ * locked, or being waited on, has its own fair {@link ReentrantLock}, so
+ * threads contending for different values never contend with each other and
+ * releasing a value wakes only the next thread waiting for that value.
+ * </p>
+ *
+ * <p>
+ * Unlike {@link GroupLock} this is re-entrant: a thread which holds a value may
+ * lock it again, and must unlock it as many times as it locked it. Only the
+ * thread holding a value can release it, so, unlike {@link GroupLock}, a value
+ * can't be locked by one thread and unlocked by another. Unlocking a value held
+ * by another thread throws {@link IllegalMonitorStateException}; unlocking a
+ * value no thread holds has no effect.
+ * </p>
+ *
+ * <p>
+ * Per-value locks are discarded once no thread holds or waits on them, so the
+ * memory used is proportional to the number of values in use, not the number
+ * ever locked.
+ * </p>
+ *
+ * @param <T>
+ *            - the type on which the lock acts.
+ */
+public final class StripedGroupLock<T> {
+
+    /**
+     * Creates a new lock which uses the natural ordering of the value type to
+     * determine the order in which locks on the value are acquired.
+     *
+     * @return a new StripedGroupLock
+     */
+    public static final <C extends Comparable<? super C>> StripedGroupLock<C> natural() {
+        return new StripedGroupLock<C>(Ordering.natural());
+    }
+
+    /**
+     * Creates a new lock which uses the ordering of the provided comparator to
+     * determine the order in which locks on the value are acquired.
+     *
+     * @return a new StripedGroupLock
+     */
+    public static final <U> StripedGroupLock<U> fromComparator(Comparator<? super U> comparator) {
+        return new StripedGroupLock<U>(Ordering.from(comparator));
+    }
+
+    private static final class Stripe {
+
+        private final ReentrantLock lock = new ReentrantLock(true);
+        /* number of outstanding lock calls, successful or pending, on this value. */
+        private int users;
+
+    }
+
+    private final ConcurrentMap<T, Stripe> stripes = new ConcurrentHashMap<T, Stripe>();
+    private final Ordering<? super T> ordering;
+
+    private StripedGroupLock(Ordering<? super T> ordering) {
+        this.ordering = ordering;
+    }
+
+    private Stripe acquireStripe(T id) {
+        return stripes.compute(id, (key, stripe) -> {
+            Stripe acquired = stripe == null ? new Stripe() : stripe;
+            acquired.users++;
+            return acquired;
+        });
+    }
+
+    private void releaseStripe(T id) {
+        stripes.computeIfPresent(id, (key, stripe) -> --stripe.users == 0 ? null : stripe);
+    }
+
+    /**
+     * <p>
+     * Lock the provided {@code id} so no other thread may lock it. If the
+     * {@code id} is locked by another thread then this thread blocks until it
+     * is released.
+     * </p>
+     *
+     * <p>
+     * Whether or not this value has already been locked is determined by
+     * equality.
+     * </p>
+     *
+     * @param id
+     *            - the value on which to lock.
+     * @throws InterruptedException
+     *             thread was interrupted whilst waiting for the lock.
+     */
+    public void lock(T id) throws InterruptedException {
+        Stripe stripe = acquireStripe(id);
+        try {
+            stripe.lock.lockInterruptibly();
+        } catch (InterruptedException e) {
+            releaseStripe(id);
+            throw e;
+        }
+    }
+
+    /**
+     * <p>
+     * Release one hold on {@code id}. When the calling thread has released
+     * every hold it has on the value, the longest waiting thread, if any, is
+     * awoken.
+     * </p>
+     *
+     * <p>
+     * If the value is not locked then this call has no effect.
+     * </p>
+     *
+     * @param id
+     *            - the id to unlock
+     * @throws IllegalMonitorStateException
+     *             the value is locked by another thread.
+     */
+    public void unlock(T id) {
+        Stripe stripe = stripes.get(id);
+        if (stripe == null || !stripe.lock.isLocked()) {
+            return;
+        }
+        stripe.lock.unlock();
+        releaseStripe(id);
+    }
+
+    /**
+     * Attempt to lock {@code id}, if it is not already locked by another
+     * thread.
+     *
+     * @param id
+     *            - the value to attempt to lock
+     * @return true if the value was successfully locked, false otherwise.
+     * @throws InterruptedException
+     *             never; declared, as by {@link GroupLock#tryLock(Object)}, so
+     *             this can replace a {@link GroupLock}.
+     */
+    public boolean tryLock(T id) throws InterruptedException {
+        Stripe stripe = acquireStripe(id);
+        if (stripe.lock.tryLock()) {
+            return true;
+        }
+        releaseStripe(id);
+        return false;
+    }
+
+    /**
+     * Attempt to lock {@code id}, waiting up to {@code timeout} for it to be
+     * released if it is locked by another thread.
+     *
+     * @param id
+     *            - the value to attempt to lock
+     * @param timeout
+     *            - the maximum time to wait
+     * @param unit
+     *            - the unit of {@code timeout}
+     * @return true if the value was successfully locked, false if the timeout
+     *         elapsed first.
+     * @throws InterruptedException
+     *             thread was interrupted whilst waiting for the lock.
+     */
+    public boolean tryLock(T id, long timeout, TimeUnit unit) throws InterruptedException {
+        Stripe stripe = acquireStripe(id);
+        boolean locked = false;
+        try {
+            locked = stripe.lock.tryLock(timeout, unit);
+            return locked;
+        } finally {
+            if (!locked) {
+                releaseStripe(id);
+            }
+        }
+    }
+
+    /**
+     * <p>
+     * Acquires locks on a number of ids progressively, in order specified by
+     * this locks ordering.
+     * </p>
+     *
+     * <p>
+     * If the thread is interrupted whilst waiting, any locks acquired by this
+     * call are released before the exception is thrown.
+     * </p>
+     *
+     * @param ids
+     *            - the values to lock
+     * @throws InterruptedException
+     *             thread was interrupted whilst waiting for the lock.
+     */
+    public void lock(Set<T> ids) throws InterruptedException {
+        List<T> orderedIds = ordering.sortedCopy(ids);
+        for (int i = 0; i < orderedIds.size(); i++) {
+            try {
+                lock(orderedIds.get(i));
+            } catch (InterruptedException e) {
+                unlockFirst(orderedIds, i);
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Release locks on all the ids, if any were held.
+     *
+     * @param ids
+     *            = the values to unlock
+     * @throws IllegalMonitorStateException
+     *             one of the values is locked by another thread.
+     */
+    public void unlock(Set<T> ids) {
+        for (T id : ordering.sortedCopy(ids)) {
+            unlock(id);
+        }
+    }
+
+    /**
+     * Attempt to lock all the ids without waiting. If not all can be locked
+     * then none are.
+     *
+     * @param ids
+     *            - the values to attempt to lock
+     * @return true if all ids were locked, false otherwise.
+     * @throws InterruptedException
+     *             never; declared, as by {@link GroupLock#tryLock(Set)}, so
+     *             this can replace a {@link GroupLock}.
+     */
+    public boolean tryLock(Set<T> ids) throws InterruptedException {
+        List<T> orderedIds = ordering.sortedCopy(ids);
+        for (int i = 0; i < orderedIds.size(); i++) {
+            if (!tryLock(orderedIds.get(i))) {
+                unlockFirst(orderedIds, i);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Attempt to lock all the ids, in order specified by this locks ordering,
+     * waiting at most {@code timeout} in total. If not all can be locked in
+     * that time then none are.
+     *
+     * @param ids
+     *            - the values to attempt to lock
+     * @param timeout
+     *            - the maximum time to wait for all the values
+     * @param unit
+     *            - the unit of {@code timeout}
+     * @return true if all ids were locked, false otherwise.
+     * @throws InterruptedException
+     *             thread was interrupted whilst waiting for the lock.
+     */
+    public boolean tryLock(Set<T> ids, long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        List<T> orderedIds = ordering.sortedCopy(ids);
+        for (int i = 0; i < orderedIds.size(); i++) {
+            boolean locked = false;
+            try {
+                locked = tryLock(orderedIds.get(i), deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+            } finally {
+                if (!locked) {
+                    unlockFirst(orderedIds, i);
+                }
+            }
+            if (!locked) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Whether {@code id} is currently locked by the calling thread.
+     */
+    public boolean isHeldByCurrentThread(T id) {
+        Stripe stripe = stripes.get(id);
+        return stripe != null && stripe.lock.isHeldByCurrentThread();
+    }
+
+    private void unlockFirst(List<T> orderedIds, int count) {
+        for (int i = 0; i < count; i++) {
+            unlock(orderedIds.get(i));
+        }
+    }
+
+}
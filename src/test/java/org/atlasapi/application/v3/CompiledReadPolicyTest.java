@@ -0,0 +1,91 @@
+package org.atlasapi.application.v3;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Ordering;
+import com.metabroadcast.applications.client.model.internal.Application;
+import com.metabroadcast.applications.client.model.internal.ApplicationConfiguration;
+import org.atlasapi.media.entity.Publisher;
+import org.junit.Test;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsSame.sameInstance;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class CompiledReadPolicyTest {
+
+    @Test
+    public void compilesReadPrecedenceOfEnabledSources() throws Exception {
+        CompiledReadPolicy policy = CompiledReadPolicy.compile(ApplicationConfiguration.builder()
+                .withPrecedence(ImmutableList.of(Publisher.PA, Publisher.BBC))
+                .withEnabledWriteSources(ImmutableList.of())
+                .build());
+
+        assertTrue(policy.isPrecedenceEnabled());
+        assertTrue(policy.isReadEnabled(Publisher.BBC));
+        assertFalse(policy.isReadEnabled(Publisher.C4));
+        assertThat(policy.readPrecedence().inOrder(), is(ImmutableList.of(Publisher.PA, Publisher.BBC)));
+        assertThat(policy.readPrecedence().rank(Publisher.PA), is(0));
+        assertThat(policy.readPrecedence().rank(Publisher.C4), is(Integer.MAX_VALUE));
+    }
+
+    @Test
+    public void ranksTheFullImagePrecedenceOrdering() throws Exception {
+        // PA leads the image ordering though it is not read-enabled
+        ApplicationConfiguration configuration = mock(ApplicationConfiguration.class);
+        when(configuration.isPrecedenceEnabled()).thenReturn(true);
+        when(configuration.isImagePrecedenceEnabled()).thenReturn(true);
+        when(configuration.getEnabledReadSources())
+                .thenReturn(ImmutableSet.of(Publisher.BBC, Publisher.TED));
+        when(configuration.getReadPrecedenceOrdering())
+                .thenReturn(Ordering.explicit(Publisher.BBC, Publisher.TED, Publisher.PA));
+        when(configuration.getImageReadPrecedenceOrdering())
+                .thenReturn(Ordering.explicit(Publisher.PA, Publisher.TED, Publisher.BBC));
+
+        CompiledReadPolicy policy = CompiledReadPolicy.compile(configuration);
+
+        assertFalse(policy.isReadEnabled(Publisher.PA));
+        assertThat(policy.imagePrecedence().inOrder(),
+                is(ImmutableList.of(Publisher.PA, Publisher.TED, Publisher.BBC)));
+        assertThat(policy.imagePrecedence().rank(Publisher.C4), is(Integer.MAX_VALUE));
+    }
+
+    @Test
+    public void cachesPolicyPerConfiguration() throws Exception {
+        ApplicationConfiguration configuration = ApplicationConfiguration.builder()
+                .withPrecedence(ImmutableList.of(Publisher.BBC))
+                .withEnabledWriteSources(ImmutableList.of())
+                .build();
+        Application application = mock(Application.class);
+        when(application.getConfiguration()).thenReturn(configuration);
+
+        CompiledReadPolicy policy = CompiledReadPolicy.forApplication(application);
+
+        assertThat(CompiledReadPolicy.forApplication(application), sameInstance(policy));
+        assertThat(CompiledReadPolicy.compile(configuration), is(policy));
+    }
+
+    @Test
+    public void distinguishesPoliciesByPrecedence() throws Exception {
+        CompiledReadPolicy withPrecedence = CompiledReadPolicy.compile(ApplicationConfiguration.builder()
+                .withPrecedence(ImmutableList.of(Publisher.BBC, Publisher.PA))
+                .withEnabledWriteSources(ImmutableList.of())
+                .build());
+        CompiledReadPolicy reordered = CompiledReadPolicy.compile(ApplicationConfiguration.builder()
+                .withPrecedence(ImmutableList.of(Publisher.PA, Publisher.BBC))
+                .withEnabledWriteSources(ImmutableList.of())
+                .build());
+        CompiledReadPolicy withoutPrecedence = CompiledReadPolicy.compile(ApplicationConfiguration.builder()
+                .withNoPrecedence(ImmutableList.of(Publisher.BBC, Publisher.PA))
+                .withEnabledWriteSources(ImmutableList.of())
+                .build());
+
+        assertFalse(withPrecedence.equals(reordered));
+        assertFalse(withPrecedence.equals(withoutPrecedence));
+        assertFalse(withoutPrecedence.isPrecedenceEnabled());
+    }
+}
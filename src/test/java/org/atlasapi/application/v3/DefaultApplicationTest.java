@@ -0,0 +1,50 @@
+package org.atlasapi.application.v3;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.metabroadcast.applications.client.model.internal.Application;
+import com.metabroadcast.common.query.Selection;
+import org.atlasapi.content.criteria.AtomicQuery;
+import org.atlasapi.content.criteria.ContentQuery;
+import org.atlasapi.content.criteria.ContentQueryBuilder;
+import org.atlasapi.content.criteria.MatchesNothing;
+import org.atlasapi.output.Annotation;
+import org.junit.Test;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsSame.sameInstance;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertThat;
+
+public class DefaultApplicationTest {
+
+    @Test
+    public void sharesDefaultApplication() throws Exception {
+        Application application = DefaultApplication.getDefault();
+
+        assertThat(DefaultApplication.getDefault(), sameInstance(application));
+        assertThat(new ContentQuery(ImmutableList.<AtomicQuery>of()).getApplication(), sameInstance(application));
+        assertThat(ContentQueryBuilder.query().build().getApplication(), sameInstance(application));
+    }
+
+    @Test
+    public void queryUsesImmutableOperandsAndAnnotationsWithoutCopying() throws Exception {
+        ImmutableSet<AtomicQuery> operands = ImmutableSet.<AtomicQuery>of(MatchesNothing.get());
+        ImmutableSet<Annotation> annotations = ImmutableSet.of(Annotation.DESCRIPTION);
+        ContentQuery query = new ContentQuery(operands, annotations, Selection.ALL, DefaultApplication.getDefault());
+
+        assertThat(query.operands(), sameInstance(operands));
+        assertThat(query.getAnnotations(), sameInstance(annotations));
+    }
+
+    @Test
+    public void refreshReplacesDefaultApplication() throws Exception {
+        Application previous = DefaultApplication.getDefault();
+        Application refreshed = DefaultApplication.refreshDefault();
+
+        assertNotSame(previous, refreshed);
+        assertThat(DefaultApplication.getDefault(), sameInstance(refreshed));
+        assertThat(refreshed.getConfiguration().getEnabledReadSources(),
+                is(previous.getConfiguration().getEnabledReadSources()));
+    }
+}
@@ -0,0 +1,89 @@
+package org.atlasapi.content.criteria;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import com.metabroadcast.applications.client.model.internal.Application;
+import com.metabroadcast.common.query.Selection;
+import org.atlasapi.application.v3.DefaultApplication;
+import org.atlasapi.content.criteria.attribute.Attribute;
+import org.atlasapi.content.criteria.attribute.Attributes;
+import org.atlasapi.content.criteria.operator.Operators;
+import org.atlasapi.media.entity.Publisher;
+import org.atlasapi.output.Annotation;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
+public class CanonicalContentQueryTest {
+
+    private final Application application = DefaultApplication.createDefault();
+
+    private final AtomicQuery publishers = Attributes.DESCRIPTION_PUBLISHER.createQuery(
+            Operators.EQUALS, ImmutableList.of(Publisher.BBC, Publisher.PA));
+    private final AtomicQuery genre = Attributes.DESCRIPTION_GENRE.createQuery(
+            Operators.EQUALS, ImmutableList.of("drama"));
+    private final AtomicQuery tag = Attributes.DESCRIPTION_TAG.createQuery(
+            Operators.EQUALS, ImmutableList.of("news"));
+
+    @Test
+    public void testEqualityIsOrderIndependentAndCoversEveryField() {
+        ContentQuery query = query(ImmutableList.of(publishers, genre), ImmutableSet.of(Annotation.DESCRIPTION, Annotation.PEOPLE));
+        ContentQuery reordered = query(ImmutableList.of(genre, publishers), ImmutableSet.of(Annotation.PEOPLE, Annotation.DESCRIPTION));
+
+        assertTrue(query.equals(reordered));
+        assertThat(query.hashCode(), is(reordered.hashCode()));
+
+        assertFalse(query.equals(query(ImmutableList.of(publishers, genre), ImmutableSet.of(Annotation.DESCRIPTION))));
+        assertFalse(query.equals(query.copyWithSelection(Selection.limitedTo(10))));
+        assertFalse(query.equals(query.copyWithApplication(
+                DefaultApplication.createWithReads(ImmutableList.of(Publisher.C4)))));
+        assertFalse(query.equals("query"));
+
+        ContentQuery softened = query.copyWithSoftConstraints(ImmutableList.of(tag));
+        assertFalse(query.equals(softened));
+        assertTrue(query.equals(softened.copyWithSoftConstraints(ImmutableList.<AtomicQuery>of())));
+    }
+
+    @Test
+    public void testQueriesWithSeparatelyCreatedDefaultApplicationsAreEqual() {
+        ContentQuery query = new ContentQuery(ImmutableList.of(publishers, genre));
+        ContentQuery other = new ContentQuery(ImmutableList.of(publishers, genre), Selection.ALL,
+                DefaultApplication.createDefault());
+
+        assertTrue(query.equals(other));
+        assertThat(query.hashCode(), is(other.hashCode()));
+    }
+
+    @Test
+    public void testHashIsFixedOnceConstructed() {
+        ContentQuery query = query(ImmutableList.of(publishers, genre), Annotation.defaultAnnotations());
+        int hash = query.hashCode();
+        ContentQuery softened = query.copyWithSoftConstraints(ImmutableList.of(tag));
+
+        assertThat(query.hashCode(), is(hash));
+        assertThat(query.getSoftConstraints(), is(ImmutableSet.<AtomicQuery>of()));
+        assertThat(softened.getSoftConstraints(), is(ImmutableSet.of(tag)));
+        assertThat(softened.copyWithSelection(Selection.limitedTo(10)).getSoftConstraints(), is(ImmutableSet.of(tag)));
+    }
+
+    @Test
+    public void testDerivedFacts() {
+        ContentQuery query = query(ImmutableList.of(publishers, genre), Annotation.defaultAnnotations())
+                .copyWithSoftConstraints(ImmutableList.of(tag));
+
+        CanonicalContentQuery canonical = query.canonical();
+        assertThat(canonical.includedPublishers(), is(ImmutableSet.of(Publisher.BBC, Publisher.PA)));
+        assertThat(canonical.attributes(), is(ImmutableSet.<Attribute<?>>of(
+                Attributes.DESCRIPTION_PUBLISHER, Attributes.DESCRIPTION_GENRE, Attributes.DESCRIPTION_TAG)));
+        assertFalse(canonical.matchesNothing());
+        assertTrue(query.copyWithOperands(ImmutableList.<AtomicQuery>of(MatchesNothing.get())).canonical().matchesNothing());
+    }
+
+    private ContentQuery query(Iterable<AtomicQuery> operands, java.util.Set<Annotation> annotations) {
+        return new ContentQuery(operands, annotations, Selection.ALL, application);
+    }
+}
@@ -0,0 +1,155 @@
+package org.atlasapi.content.criteria;
+
+import static org.atlasapi.content.criteria.ContentQueryBuilder.query;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+import static org.mockito.Mockito.mock;
+
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+
+import com.metabroadcast.applications.client.model.internal.Application;
+import com.metabroadcast.common.query.Selection;
+import org.atlasapi.content.criteria.attribute.Attributes;
+import org.atlasapi.content.criteria.operator.Operators;
+import org.atlasapi.media.entity.Brand;
+import org.atlasapi.media.entity.Content;
+import org.atlasapi.media.entity.Publisher;
+import org.joda.time.DateTime;
+import org.junit.Test;
+
+import com.google.common.base.Predicate;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.sun.management.ThreadMXBean;
+
+public class ContentQueryPredicatesTest {
+
+    private final Application application = mock(Application.class);
+
+    @Test
+    public void testMatchesAnyValueOfEveryOperand() {
+        Predicate<Content> predicate = ContentQueryPredicates.compile(query()
+                .equalTo(Attributes.DESCRIPTION_PUBLISHER, Publisher.BBC)
+                .beginning(Attributes.DESCRIPTION_GENRE, "http://film", "http://drama")
+                .withApplication(application)
+                .build());
+
+        assertTrue(predicate.apply(brand(Publisher.BBC, "http://drama/crime")));
+        assertTrue(predicate.apply(brand(Publisher.BBC, "http://comedy", "http://film/action")));
+        assertFalse(predicate.apply(brand(Publisher.PA, "http://drama/crime")));
+        assertFalse(predicate.apply(brand(Publisher.BBC, "http://comedy")));
+        assertFalse(predicate.apply(brand(Publisher.BBC)));
+    }
+
+    @Test
+    public void testSoftConstraintsMatchContentWithoutTheAttribute() {
+        ContentQuery query = query()
+                .equalTo(Attributes.DESCRIPTION_PUBLISHER, Publisher.BBC)
+                .withApplication(application)
+                .build()
+                .copyWithSoftConstraints(ImmutableList.<AtomicQuery>of(
+                        Attributes.DESCRIPTION_TAG.createQuery(Operators.EQUALS, ImmutableList.of("news"))));
+        Predicate<Content> predicate = ContentQueryPredicates.compile(query);
+
+        Brand untagged = brand(Publisher.BBC);
+        Brand news = brand(Publisher.BBC);
+        news.setTags(ImmutableSet.of("news"));
+        Brand sport = brand(Publisher.BBC);
+        sport.setTags(ImmutableSet.of("sport"));
+
+        assertTrue(predicate.apply(untagged));
+        assertTrue(predicate.apply(news));
+        assertFalse(predicate.apply(sport));
+    }
+
+    @Test
+    public void testDateTimeOperators() {
+        DateTime now = new DateTime(2016, 1, 1, 0, 0, 0, 0);
+        Brand brand = brand(Publisher.BBC);
+        brand.setThisOrChildLastUpdated(now);
+
+        assertTrue(compile(query().after(Attributes.BRAND_THIS_OR_CHILD_LAST_UPDATED, now.minusDays(1))).apply(brand));
+        assertFalse(compile(query().after(Attributes.BRAND_THIS_OR_CHILD_LAST_UPDATED, now)).apply(brand));
+        assertTrue(compile(query().before(Attributes.BRAND_THIS_OR_CHILD_LAST_UPDATED, now.plusDays(1))).apply(brand));
+        assertTrue(compile(query().equalTo(Attributes.BRAND_THIS_OR_CHILD_LAST_UPDATED, now.minusDays(1), now)).apply(brand));
+    }
+
+    @Test
+    public void testMatchesNothing() {
+        Predicate<Content> predicate = ContentQueryPredicates.compile(new ContentQuery(
+                Collections.<AtomicQuery>singleton(MatchesNothing.get()), Selection.ALL, application));
+        assertFalse(predicate.apply(brand(Publisher.BBC)));
+    }
+
+    @Test
+    public void testEqualityOverTagsMatchesAnyTag() {
+        Predicate<Content> predicate = compile(query().equalTo(Attributes.DESCRIPTION_TAG, "news", "sport"));
+
+        Brand sport = brand(Publisher.BBC);
+        sport.setTags(ImmutableSet.of("sport", "football"));
+        Brand drama = brand(Publisher.BBC);
+        drama.setTags(ImmutableSet.of("drama"));
+
+        assertTrue(predicate.apply(sport));
+        assertFalse(predicate.apply(drama));
+        assertFalse(predicate.apply(brand(Publisher.BBC)));
+    }
+
+    @Test
+    public void testEvaluatingEqualityAllocatesNothing() {
+        ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled());
+
+        Predicate<Content> predicate = compile(query()
+                .isAnEnumIn(Attributes.DESCRIPTION_PUBLISHER, ImmutableList.<Enum<Publisher>>of(Publisher.BBC, Publisher.PA))
+                .equalTo(Attributes.DESCRIPTION_TAG, "news", "sport"));
+        Brand sport = brand(Publisher.BBC);
+        sport.setTags(ImmutableSet.of("sport", "football"));
+        Brand drama = brand(Publisher.BBC);
+        drama.setTags(ImmutableSet.of("drama"));
+        evaluate(predicate, sport, drama, 100000);
+
+        long threadId = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(threadId);
+        int matches = evaluate(predicate, sport, drama, 100000);
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+        assertEquals(100000, matches);
+        // allow for the measurement itself, which is far less than a byte an evaluation
+        assertTrue("allocated " + allocated + " bytes", allocated < 100000);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRejectsAttributesWhichCantBeEvaluatedInMemory() {
+        compile(query().equalTo(Attributes.TOPIC_VALUE, "value"));
+    }
+
+    @Test
+    public void testSupportsOnlyAttributesHeldOnContent() {
+        assertTrue(ContentQueryPredicates.supports(Attributes.DESCRIPTION_TAG));
+        assertFalse(ContentQueryPredicates.supports(Attributes.TOPICS));
+        assertFalse(ContentQueryPredicates.supports(Attributes.TOPIC_NAMESPACE));
+    }
+
+    private int evaluate(Predicate<Content> predicate, Content matching, Content other, int times) {
+        int matches = 0;
+        for (int i = 0; i < times; i++) {
+            matches += predicate.apply(matching) ? 1 : 0;
+            matches += predicate.apply(other) ? 1 : 0;
+        }
+        return matches;
+    }
+
+    private Predicate<Content> compile(ContentQueryBuilder builder) {
+        return ContentQueryPredicates.compile(builder.withApplication(application).build());
+    }
+
+    private Brand brand(Publisher publisher, String... genres) {
+        Brand brand = new Brand("uri", "curie", publisher);
+        brand.setGenres(ImmutableList.copyOf(genres));
+        return brand;
+    }
+}
@@ -196,4 +196,39 @@ public class BroadcastMergingTest {
         assertTrue(mergedBroadcast.getSubtitled());
         assertTrue(mergedBroadcast.getAliases().size() == 3);
     }
+
+    @Test
+    public void testBroadcastMergingUsesOneMatchingBroadcastPerItem() {
+        Item chosenItem = new Item();
+        chosenItem.setId(1L);
+        chosenItem.setCanonicalUri("chosenItem");
+        chosenItem.setPublisher(Publisher.BBC);
+        Version chosenVersion = new Version();
+        Broadcast chosenBroadcast = new Broadcast("www.bbc.co.uk/services/bbctwo", new DateTime(2012,1,1,0,0,0,UTC), new DateTime(2012,1,1,0,0,0,UTC));
+        chosenVersion.addBroadcast(chosenBroadcast);
+        chosenItem.addVersion(chosenVersion);
+
+        Item notChosenItem = new Item();
+        notChosenItem.setId(2L);
+        notChosenItem.setCanonicalUri("notChosenItem");
+        notChosenItem.setPublisher(Publisher.FACEBOOK);
+        for (int i = 0; i < 2; i++) {
+            Version version = new Version();
+            Broadcast broadcast = new Broadcast("www.bbc.co.uk/services/bbctwo", new DateTime(2012,1,1,0,0,0,UTC), new DateTime(2012,1,1,0,0,0,UTC));
+            broadcast.addAliasUrl("non-chosen alias " + i);
+            version.addBroadcast(broadcast);
+            notChosenItem.addVersion(version);
+        }
+        Version otherVersion = new Version();
+        otherVersion.addBroadcast(new Broadcast("www.bbc.co.uk/services/bbctwo", new DateTime(2012,1,2,0,0,0,UTC), new DateTime(2012,1,2,0,0,0,UTC)));
+        notChosenItem.addVersion(otherVersion);
+
+        chosenItem.addEquivalentTo(notChosenItem);
+        notChosenItem.addEquivalentTo(chosenItem);
+
+        executor.merge(application, ImmutableList.of(chosenItem, notChosenItem));
+
+        Broadcast mergedBroadcast = Iterables.getOnlyElement(chosenVersion.getBroadcasts());
+        assertTrue(mergedBroadcast.getAliasUrls().size() == 1);
+    }
 }
@@ -0,0 +1,167 @@
+package org.atlasapi.equiv;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.atlasapi.media.entity.Publisher;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
+import com.google.common.primitives.Bytes;
+import com.metabroadcast.common.collect.OptionalMap;
+
+public class InMemoryEquivalenceSummaryStoreTest {
+
+    private final InMemoryEquivalenceSummaryStore store = new InMemoryEquivalenceSummaryStore();
+
+    private final EquivalenceSummary brand = new EquivalenceSummary("brand", null,
+        ImmutableList.of("c4brand", "pabrand"),
+        ImmutableListMultimap.of(Publisher.C4, new ContentRef("c4brand", Publisher.C4, null)));
+    private final EquivalenceSummary episode = new EquivalenceSummary("episode", "brand",
+        ImmutableList.of("c4episode", "paepisode", "c4brand"),
+        ImmutableListMultimap.of(
+            Publisher.C4, new ContentRef("c4episode", Publisher.C4, "c4brand"),
+            Publisher.PA, new ContentRef("paepisode", Publisher.PA, null)
+        ));
+
+    @Test
+    public void testStoresAndResolvesSummaries() {
+        store.store(brand);
+        store.store(episode);
+
+        OptionalMap<String, EquivalenceSummary> summaries
+            = store.summariesForUris(ImmutableList.of("episode", "brand", "absent", "c4brand"));
+
+        assertEquals(ImmutableSet.of("episode", "brand"), summaries.keySet());
+        assertEquals(episode, summaries.get("episode").get());
+        assertEquals(brand, summaries.get("brand").get());
+        assertFalse(summaries.get("absent").isPresent());
+        assertFalse(summaries.get("c4brand").isPresent());
+        assertEquivalentRefs(episode, summaries.get("episode").get());
+        assertEquals(2, store.size());
+    }
+
+    @Test
+    public void testReplacesSummaryForSubject() {
+        store.store(episode);
+        EquivalenceSummary replacement = new EquivalenceSummary("episode",
+            ImmutableList.of("other"), ImmutableListMultimap.<Publisher, ContentRef>of());
+        store.store(replacement);
+
+        EquivalenceSummary resolved = store.summariesForUris(ImmutableList.of("episode")).get("episode").get();
+
+        assertEquals(replacement, resolved);
+        assertNull(resolved.getParent());
+        assertEquals(1, store.size());
+    }
+
+    @Test
+    public void testRestoresFromSnapshot() throws Exception {
+        store.store(brand);
+        store.store(episode);
+        File file = File.createTempFile("summaries", ".snapshot");
+        file.deleteOnExit();
+
+        store.snapshot(file.toPath());
+        InMemoryEquivalenceSummaryStore loaded = InMemoryEquivalenceSummaryStore.load(file.toPath());
+
+        OptionalMap<String, EquivalenceSummary> summaries
+            = loaded.summariesForUris(ImmutableList.of("brand", "episode"));
+        assertEquals(brand, summaries.get("brand").get());
+        assertEquals(episode, summaries.get("episode").get());
+        assertEquivalentRefs(episode, summaries.get("episode").get());
+        assertEquals(2, loaded.size());
+    }
+
+    @Test
+    public void testRestoresFromSnapshotMappedInSegments() throws Exception {
+        store.store(brand);
+        store.store(episode);
+        File file = File.createTempFile("summaries", ".snapshot");
+        file.deleteOnExit();
+
+        // segments smaller than some values, so values are mapped alone
+        store.snapshot(file.toPath(), 8);
+        InMemoryEquivalenceSummaryStore loaded = InMemoryEquivalenceSummaryStore.load(file.toPath(), 16);
+
+        OptionalMap<String, EquivalenceSummary> summaries
+            = loaded.summariesForUris(ImmutableList.of("brand", "episode"));
+        assertEquals(brand, summaries.get("brand").get());
+        assertEquivalentRefs(episode, summaries.get("episode").get());
+        assertEquals(2, loaded.size());
+    }
+
+    @Test
+    public void testLeavesOutEquivalentsFromPublishersNoLongerPresent() throws Exception {
+        store.store(episode);
+        File file = File.createTempFile("summaries", ".snapshot");
+        file.deleteOnExit();
+        store.snapshot(file.toPath());
+
+        // rename C4 in the snapshot's publisher table to a publisher this build doesn't have
+        byte[] bytes = Files.readAllBytes(file.toPath());
+        byte[] c4 = { 0, 0, 0, 2, 'C', '4' };
+        int at = Bytes.indexOf(bytes, c4);
+        bytes[at + 4] = 'X';
+        Files.write(file.toPath(), bytes);
+
+        EquivalenceSummary loaded = InMemoryEquivalenceSummaryStore.load(file.toPath())
+            .summariesForUris(ImmutableList.of("episode")).get("episode").get();
+
+        assertEquals(episode.getCandidates(), loaded.getCandidates());
+        assertEquals(ImmutableListMultimap.of(Publisher.PA, new ContentRef("paepisode", Publisher.PA, null)),
+            loaded.getEquivalents());
+    }
+
+    @Test
+    public void testStoresConcurrently() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<Void>> writes = Lists.newArrayList();
+        for (int t = 0; t < 4; t++) {
+            final int thread = t;
+            writes.add(executor.submit(new Callable<Void>() {
+                @Override
+                public Void call() {
+                    for (int i = 0; i < 500; i++) {
+                        String subject = "subject" + thread + "-" + i;
+                        store.store(new EquivalenceSummary(subject, ImmutableList.of("candidate" + i),
+                            ImmutableListMultimap.of(Publisher.PA, new ContentRef("candidate" + i, Publisher.PA, null))));
+                        store.summariesForUris(ImmutableList.of(subject, "subject0-" + i));
+                    }
+                    return null;
+                }
+            }));
+        }
+        for (Future<Void> write : writes) {
+            write.get();
+        }
+        executor.shutdown();
+
+        assertEquals(2000, store.size());
+        EquivalenceSummary summary = store.summariesForUris(ImmutableList.of("subject3-499")).get("subject3-499").get();
+        assertEquals(ImmutableList.of("candidate499"), summary.getCandidates());
+    }
+
+    private void assertEquivalentRefs(EquivalenceSummary expected, EquivalenceSummary actual) {
+        // ContentRef equality only compares uris
+        for (Publisher publisher : expected.getEquivalents().keySet()) {
+            ContentRef expectedRef = Iterables.getOnlyElement(expected.getEquivalents().get(publisher));
+            ContentRef actualRef = Iterables.getOnlyElement(actual.getEquivalents().get(publisher));
+            assertEquals(expectedRef.getPublisher(), actualRef.getPublisher());
+            assertEquals(expectedRef.getParentUri(), actualRef.getParentUri());
+        }
+    }
+}
@@ -113,6 +113,24 @@ public class OutputContentMergerTest {
         
     }
 
+    @Test
+    public void testEquivalenceIsNotClosedTransitively() {
+        Brand one = brand(1L, "one", Publisher.BBC);
+        Brand two = brand(2L, "two", Publisher.TED);
+        Brand three = brand(3L, "three", Publisher.PA);
+
+        setEquivalent(one, two);
+        setEquivalent(two, one, three);
+        setEquivalent(three, two);
+
+        when(application.getConfiguration())
+                .thenReturn(configWithReads(Publisher.BBC, Publisher.PA, Publisher.TED));
+
+        List<Brand> merged = merger.merge(application, ImmutableList.of(one, two, three));
+
+        assertThat(merged, is((List<Brand>) ImmutableList.of(one, three)));
+    }
+
     @Test
     public void testCustomFieldsMergeCorrectly() {
         Brand one = brand(1L, "one",Publisher.BBC);
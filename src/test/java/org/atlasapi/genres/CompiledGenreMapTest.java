@@ -0,0 +1,75 @@
+package org.atlasapi.genres;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Set;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableSet;
+
+public class CompiledGenreMapTest {
+
+    private static final String DRAMA = AtlasGenre.DRAMA.getUri();
+    private static final String FILM = AtlasGenre.FILM.getUri();
+
+    private static class TestGenreMap extends GenreMap {
+        static {
+            genres.put("drama", AtlasGenre.DRAMA);
+            genres.put("films", AtlasGenre.FILM);
+            genres.put("Science Fiction", AtlasGenre.DRAMA);
+        }
+    }
+
+    private final GenreMap genreMap = new TestGenreMap();
+    private final CompiledGenreMap compiled = genreMap.compile();
+
+    @Test
+    public void testMapsAsGenreMap() {
+        for (Set<String> sourceGenres : ImmutableSet.<Set<String>>of(
+                ImmutableSet.of("Drama"),
+                ImmutableSet.of("drama", "Films", "unknown"),
+                ImmutableSet.of("unknown"),
+                ImmutableSet.<String>of())) {
+            assertEquals(genreMap.map(sourceGenres), compiled.map(sourceGenres));
+            assertEquals(genreMap.mapRecognised(sourceGenres), compiled.mapRecognised(sourceGenres));
+        }
+        assertEquals(ImmutableSet.of("drama", DRAMA, "Films", FILM), compiled.mapRecognised(ImmutableSet.of("drama", "Films", "unknown")));
+        assertTrue(compiled.map(null).isEmpty());
+    }
+
+    @Test
+    public void testLooksUpGenresInLowerCase() {
+        assertEquals(AtlasGenre.DRAMA, compiled.genreFor("DRAMA"));
+        assertEquals(ImmutableSet.of("DRAMA", DRAMA), compiled.map(ImmutableSet.of("DRAMA")));
+        assertNull(compiled.genreFor("dram"));
+    }
+
+    @Test
+    public void testNeverMatchesMixedCaseSourceGenres() {
+        for (String sourceGenre : ImmutableSet.of("Science Fiction", "science fiction", "SCIENCE FICTION")) {
+            Set<String> sourceGenres = ImmutableSet.of(sourceGenre);
+            assertEquals(ImmutableSet.of(), genreMap.mapRecognised(sourceGenres));
+            assertEquals(ImmutableSet.of(), compiled.mapRecognised(sourceGenres));
+            assertNull(compiled.genreFor(sourceGenre));
+        }
+        assertEquals(2, CompiledGenreMap.builder()
+                .put("drama", AtlasGenre.DRAMA)
+                .put("Science Fiction", AtlasGenre.DRAMA)
+                .put("films", AtlasGenre.FILM)
+                .build()
+                .size());
+    }
+
+    @Test
+    public void testSharesResultsForSingleGenres() {
+        assertSame(compiled.map(ImmutableSet.of("drama")), compiled.map(ImmutableSet.of("drama")));
+        assertSame(compiled.map(ImmutableSet.of("drama")), compiled.mapRecognised(ImmutableSet.of("drama")));
+
+        ImmutableSet<String> unknown = ImmutableSet.of("unknown", "other");
+        assertSame(unknown, compiled.map(unknown));
+    }
+}
@@ -0,0 +1,85 @@
+package org.atlasapi.media.channel;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.joda.time.LocalDate;
+import org.junit.Test;
+
+import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
+public class ChannelLineupIndexTest {
+
+    private final LocalDate date = new LocalDate(2016, 6, 1);
+
+    private final ChannelNumbering bbcOne = numbering(1L, 10L, "101", null, null);
+    private final ChannelNumbering oldBbcTwo = numbering(2L, 10L, "102", date.minusYears(5), date);
+    private final ChannelNumbering newBbcTwo = numbering(3L, 10L, "102", date, null);
+    private final ChannelNumbering bbcOneRegion = numbering(1L, 20L, "1", date.minusYears(1), null);
+    private final ChannelNumbering unnumbered = numbering(4L, 20L, null, null, null);
+
+    private final ChannelLineupIndex index = ChannelLineupIndex.fromChannelGroups(ImmutableList.of(
+        group(10L, bbcOne, oldBbcTwo, newBbcTwo),
+        group(20L, bbcOneRegion, unnumbered)
+    ));
+
+    @Test
+    public void testResolvesChannelByGroupNumberAndDate() {
+        assertEquals(Optional.of(1L), index.channelFor(10L, "101", date));
+        assertEquals(Optional.of(2L), index.channelFor(10L, "102", date.minusDays(1)));
+        assertEquals(Optional.of(3L), index.channelFor(10L, "102", date));
+        assertEquals(Optional.of(1L), index.channelFor(20L, "1", date));
+        assertFalse(index.channelFor(20L, "1", date.minusYears(2)).isPresent());
+        assertFalse(index.channelFor(20L, "101", date).isPresent());
+        assertFalse(index.channelFor(30L, "101", date).isPresent());
+    }
+
+    @Test
+    public void testLineupForDate() {
+        assertEquals(ImmutableSet.of(bbcOne, oldBbcTwo), index.lineup(10L, date.minusDays(1)));
+        assertEquals(ImmutableSet.of(bbcOne, newBbcTwo), index.lineup(10L, date));
+        assertTrue(index.lineup(30L, date).isEmpty());
+    }
+
+    @Test
+    public void testNumberingsForChannel() {
+        assertEquals(ImmutableSet.of(bbcOne, bbcOneRegion), index.numberingsFor(1L));
+        assertEquals(ImmutableSet.of(bbcOne), index.numberingsFor(1L, date.minusYears(2)));
+        assertEquals(ImmutableSet.of(bbcOne, bbcOneRegion), index.numberingsFor(1L, date));
+        assertTrue(index.numberingsFor(4L).isEmpty());
+        assertEquals(ImmutableSet.of(10L, 20L), index.channelGroups());
+    }
+
+    @Test
+    public void testIndexesNumberingsWithoutAGroupByChannelOnly() {
+        ChannelNumbering ungrouped = numbering(1L, 30L, "101", null, null);
+        ungrouped.setChannelGroup(null);
+
+        ChannelLineupIndex index = ChannelLineupIndex.fromNumberings(ImmutableList.of(bbcOne, ungrouped));
+
+        assertEquals(ImmutableSet.of(bbcOne, ungrouped), index.numberingsFor(1L));
+        assertEquals(ImmutableSet.of(10L), index.channelGroups());
+        assertEquals(ImmutableSet.of(bbcOne), index.lineup(10L, date));
+    }
+
+    private ChannelGroup group(long id, ChannelNumbering... numberings) {
+        Platform group = new Platform();
+        group.setId(id);
+        group.setChannelNumberings(ImmutableList.copyOf(numberings));
+        return group;
+    }
+
+    private ChannelNumbering numbering(long channel, long group, String number,
+            LocalDate start, LocalDate end) {
+        return ChannelNumbering.builder()
+            .withChannel(channel)
+            .withChannelGroup(group)
+            .withChannelNumber(number)
+            .withStartDate(start)
+            .withEndDate(end)
+            .build();
+    }
+}
@@ -0,0 +1,75 @@
+package org.atlasapi.media.channel;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+
+public class ChannelRegistryTest {
+
+    private final ChannelRegistry<OldChannel> registry = OldChannel.registry();
+
+    @Test
+    public void testLooksUpDeclaredChannels() {
+        int id = registry.idForKey("bbcone");
+
+        assertThat(registry.channel(id), sameInstance(OldChannel.BBC_ONE));
+        assertThat(registry.idForUri(OldChannel.BBC_ONE.getUri()), is(id));
+        assertThat(registry.forKey("bbcone"), sameInstance(OldChannel.BBC_ONE));
+        assertThat(registry.forUri(OldChannel.BBC_ONE.getUri()), sameInstance(OldChannel.BBC_ONE));
+        assertThat(OldChannel.fromKey("bbcone").requireValue(), sameInstance(OldChannel.BBC_ONE));
+        assertThat(registry.idForKey("unknown"), is(ChannelRegistry.NO_ID));
+        assertThat(registry.forUri("unknown"), is(nullValue()));
+        assertThat(registry.all().size(), is(registry.size()));
+        assertThat(registry.channel(registry.size() - 1), is(registry.all().get(registry.size() - 1)));
+    }
+
+    @Test
+    public void testConvertsInBulk() {
+        int[] ids = new int[4];
+        String[] keys = new String[4];
+        OldChannel[] channels = new OldChannel[4];
+
+        int count = registry.idsForKeys(ImmutableList.of("bbcone", "bbctwo", "unknown"), ids);
+        assertThat(count, is(3));
+        assertThat(ids[2], is(ChannelRegistry.NO_ID));
+
+        registry.keysForIds(ids, 2, keys);
+        registry.channelsForIds(ids, 2, channels);
+        assertThat(Arrays.asList(keys), is(Arrays.asList("bbcone", "bbctwo", null, null)));
+        assertThat(Arrays.asList(channels), is(Arrays.asList(OldChannel.BBC_ONE, OldChannel.BBC_TWO, null, null)));
+    }
+
+    @Test
+    public void testBridgesToChannel() {
+        ChannelRegistry<org.atlasapi.media.entity.Channel> legacy = org.atlasapi.media.entity.Channel.registry();
+        int id = legacy.idForKey("bbcone");
+
+        Channel channel = legacy.toChannel(id);
+
+        assertThat(channel.getUri(), is(legacy.uri(id)));
+        assertThat(channel.getKey(), is("bbcone"));
+        assertThat(channel.getTitle(), is(legacy.title(id)));
+        assertThat(legacy.idFor(channel), is(id));
+        assertThat(legacy.idFor(Channel.builder().withKey("bbcone").build()), is(id));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRejectsDuplicateKeys() {
+        ChannelRegistry.of(
+                ImmutableList.of(
+                        new OldChannel("One", "http://example.com/one", "one"),
+                        new OldChannel("Other one", "http://example.com/other", "one")
+                ),
+                OldChannel::getUri,
+                OldChannel::getKey,
+                OldChannel::getTitle
+        );
+    }
+}
@@ -0,0 +1,107 @@
+package org.atlasapi.media.channel;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.atlasapi.media.entity.Image;
+import org.atlasapi.media.entity.ImageTheme;
+import org.joda.time.LocalDate;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
+public class TemporalFieldIndexTest {
+
+    private final LocalDate date = new LocalDate(2016, 6, 1);
+
+    @Test
+    public void testValuesForDateMatchesTemporalField() {
+        ImmutableList<TemporalField<String>> fields = ImmutableList.of(
+            new TemporalField<String>("future", date.plusDays(1), null),
+            new TemporalField<String>("ended", date.minusYears(1), date),
+            new TemporalField<String>("always", null, null),
+            new TemporalField<String>("undated ended", null, date.minusDays(1)),
+            new TemporalField<String>("current", date.minusDays(1), date.plusDays(1)),
+            new TemporalField<String>("starts today", date, null)
+        );
+        TemporalFieldIndex<String> index = TemporalFieldIndex.index(fields);
+
+        for (int offset = -400; offset <= 400; offset++) {
+            LocalDate day = date.plusDays(offset);
+            assertEquals(day.toString(), TemporalField.valuesForDate(fields, day), index.valuesForDate(day));
+        }
+        assertEquals(
+            ImmutableList.of("always", "undated ended", "current", "starts today"),
+            index.valuesForDate(date).asList()
+        );
+    }
+
+    @Test
+    public void testValueOrNextForDate() {
+        TemporalFieldIndex<String> index = TemporalFieldIndex.index(ImmutableList.of(
+            new TemporalField<String>("second", date.plusYears(2), null),
+            new TemporalField<String>("past", date.minusYears(3), date.minusYears(1)),
+            new TemporalField<String>("first", date.plusYears(1), date.plusYears(2))
+        ));
+
+        assertEquals("first", index.valueOrNextForDate(date));
+        assertEquals("first", index.valueOrNextForDate(date.plusYears(1)));
+        assertEquals("second", index.valueOrNextForDate(date.plusYears(2)));
+        assertEquals("past", index.valueOrNextForDate(date.minusYears(2)));
+        assertEquals("second", index.nextValueAfter(date.plusYears(1)));
+        assertNull(index.nextValueAfter(date.plusYears(2)));
+    }
+
+    @Test
+    public void testEmptyIndex() {
+        TemporalFieldIndex<String> index = TemporalFieldIndex.index(ImmutableList.<TemporalField<String>>of());
+
+        assertTrue(index.isEmpty());
+        assertTrue(index.valuesForDate(date).isEmpty());
+        assertNull(index.valueOrNextForDate(date));
+    }
+
+    @Test
+    public void testChannelIndexesFollowUpdates() {
+        LocalDate now = new LocalDate();
+        Channel channel = Channel.builder().build();
+        channel.addTitle("old", now.minusYears(2), now.minusYears(1));
+        assertNull(channel.getTitleForDate(now));
+        assertNull(channel.getTitle());
+
+        channel.addTitle("current", now.minusYears(1), null);
+        assertEquals("current", channel.getTitle());
+        assertEquals("current", channel.getTitleForDate(now));
+
+        channel.setTitles(ImmutableList.of(new TemporalField<String>("replaced", null, null)));
+        assertEquals("replaced", channel.getTitle());
+
+        Image secondary = new Image("secondary");
+        Image primary = new Image("primary");
+        primary.setTheme(ImageTheme.LIGHT_OPAQUE);
+        channel.addImage(secondary, now.minusDays(1));
+        assertNull(channel.getImage());
+        assertEquals(ImmutableSet.of(secondary), channel.getImages());
+
+        channel.addImage(primary, now.minusDays(1));
+        assertEquals(primary, channel.getImage());
+        assertEquals(ImmutableSet.of(secondary, primary), channel.getImages());
+    }
+
+    @Test
+    public void testChannelGroupTitleFollowsUpdates() {
+        LocalDate now = new LocalDate();
+        ChannelGroup group = new Platform();
+        group.addTitle("first", now.plusDays(1));
+        assertEquals("first", group.getTitle());
+
+        group.addTitle("current", now.minusDays(1), now.plusDays(1));
+        assertEquals("current", group.getTitle());
+
+        Platform copy = new Platform();
+        ChannelGroup.copyTo(group, copy);
+        assertEquals("current", copy.getTitle());
+    }
+}
@@ -0,0 +1,140 @@
+package org.atlasapi.media.entity;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.joda.time.DateTime;
+import org.joda.time.Duration;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableSet;
+import com.metabroadcast.common.time.DateTimeZones;
+
+public class ContentFingerprinterTest {
+
+    private final DateTime start = new DateTime(2016, 6, 1, 20, 0, 0, 0, DateTimeZones.UTC);
+    private final ContentFingerprinter fingerprinter = ContentFingerprinter.create();
+
+    @Test
+    public void testEqualGraphsHaveEqualFingerprints() {
+        Episode episode = episode("first", "second");
+        Episode sameEpisode = episode("second", "first");
+
+        assertEquals(fingerprinter.fingerprint(episode), fingerprinter.fingerprint(sameEpisode));
+        assertEquals(fingerprinter.fingerprint(episode), ContentFingerprinter.memoising(100).fingerprint(sameEpisode));
+    }
+
+    @Test
+    public void testFingerprintFollowsContentNotUpdateTimes() {
+        Episode episode = episode("first", "second");
+        String readHash = fingerprinter.readHash(episode);
+        episode.setReadHash(readHash);
+
+        episode.setLastUpdated(start);
+        episode.setThisOrChildLastUpdated(start);
+        assertFalse(fingerprinter.hashChanged(episode));
+
+        broadcastOf(episode).setRepeat(true);
+        assertTrue(fingerprinter.hashChanged(episode));
+
+        broadcastOf(episode).setRepeat(null);
+        episode.setTags(ImmutableSet.of("changed"));
+        assertTrue(fingerprinter.hashChanged(episode));
+    }
+
+    @Test
+    public void testMemoisedSubtreesAreRehashedWhenUpdated() {
+        ContentFingerprinter memoising = ContentFingerprinter.memoising(100);
+        Episode episode = episode("first", "second");
+        Broadcast broadcast = broadcastOf(episode);
+        broadcast.withId("broadcast");
+        broadcast.setLastUpdated(start);
+        String readHash = memoising.readHash(episode);
+
+        broadcast.setRepeat(true);
+        assertEquals(readHash, memoising.readHash(episode));
+
+        broadcast.setLastUpdated(start.plusMinutes(1));
+        assertFalse(readHash.equals(memoising.readHash(episode)));
+        assertEquals(fingerprinter.readHash(episode), memoising.readHash(episode));
+    }
+
+    @Test
+    public void testMemoisedVersionsFollowChangesToTheirBroadcasts() {
+        ContentFingerprinter memoising = ContentFingerprinter.memoising(100);
+        Episode episode = updatedEpisode(start);
+        Version version = episode.getVersions().iterator().next();
+        Broadcast broadcast = broadcastOf(episode);
+        String readHash = memoising.readHash(episode);
+
+        broadcast.setRepeat(true);
+        broadcast.setLastUpdated(start.plusMinutes(1));
+        assertFalse(readHash.equals(memoising.readHash(episode)));
+        assertEquals(fingerprinter.readHash(episode), memoising.readHash(episode));
+
+        version.addBroadcast(new Broadcast("other", start, start.plusHours(1)));
+        assertEquals(fingerprinter.readHash(episode), memoising.readHash(episode));
+    }
+
+    @Test
+    public void testFreshCopiesOfUnchangedSubtreesReuseMemoisedFingerprints() {
+        ContentFingerprinter memoising = ContentFingerprinter.memoising(100);
+        String readHash = memoising.readHash(updatedEpisode(start));
+
+        Episode written = updatedEpisode(start);
+        Version version = written.getVersions().iterator().next();
+        version.setDuration(Duration.standardMinutes(59));
+        broadcastOf(written).setRepeat(true);
+        assertEquals(readHash, memoising.readHash(written));
+        assertFalse(readHash.equals(fingerprinter.readHash(written)));
+
+        version.setLastUpdated(start.plusMinutes(1));
+        assertFalse(readHash.equals(memoising.readHash(written)));
+
+        Episode rewritten = updatedEpisode(start);
+        broadcastOf(rewritten).setRepeat(true);
+        broadcastOf(rewritten).setLastUpdated(start.plusMinutes(1));
+        assertEquals(fingerprinter.readHash(rewritten), memoising.readHash(rewritten));
+    }
+
+    private Episode updatedEpisode(DateTime lastUpdated) {
+        Episode episode = episode("first", "second");
+        Version version = episode.getVersions().iterator().next();
+        version.setCanonicalUri("version");
+        version.setLastUpdated(lastUpdated);
+        Broadcast broadcast = broadcastOf(episode);
+        broadcast.withId("broadcast");
+        broadcast.setLastUpdated(lastUpdated);
+        for (Encoding encoding : version.getManifestedAs()) {
+            encoding.setCanonicalUri("encoding");
+            encoding.setLastUpdated(lastUpdated);
+            for (Location location : encoding.getAvailableAt()) {
+                location.setLastUpdated(lastUpdated);
+            }
+        }
+        return episode;
+    }
+
+    private Broadcast broadcastOf(Item item) {
+        return item.getVersions().iterator().next().getBroadcasts().iterator().next();
+    }
+
+    private Episode episode(String... tags) {
+        Episode episode = new Episode("episode", "curie", Publisher.BBC);
+        episode.setTitle("Title");
+        episode.setTags(ImmutableSet.copyOf(tags));
+        episode.setEpisodeNumber(5);
+        episode.setMediaType(MediaType.VIDEO);
+
+        Location location = new Location();
+        location.setUri("http://example.com/episode");
+        Encoding encoding = new Encoding();
+        encoding.addAvailableAt(location);
+        Version version = new Version();
+        version.addManifestedAs(encoding);
+        version.addBroadcast(new Broadcast("channel", start, start.plusHours(1)));
+        episode.addVersion(version);
+        return episode;
+    }
+}
@@ -0,0 +1,110 @@
+package org.atlasapi.media.entity;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+
+public class CopyOnWriteSetTest {
+
+    @Test
+    public void testCopiesAreIndependentOfEachOther() {
+        CopyOnWriteSet<String> original = CopyOnWriteSet.create(ImmutableSet.of("a", "b"));
+        CopyOnWriteSet<String> copy = CopyOnWriteSet.copyOf(original);
+        CopyOnWriteSet<String> copyOfCopy = CopyOnWriteSet.copyOf(copy);
+
+        assertTrue(copy.add("c"));
+        assertTrue(original.remove("a"));
+
+        assertEquals(ImmutableSet.of("b"), original);
+        assertEquals(ImmutableSet.of("a", "b", "c"), copy);
+        assertEquals(ImmutableSet.of("a", "b"), copyOfCopy);
+    }
+
+    @Test
+    public void testCopyOfImmutableSetIsMutable() {
+        Set<String> source = ImmutableSet.of("a");
+        CopyOnWriteSet<String> copy = CopyOnWriteSet.copyOf(source);
+
+        assertFalse(copy.add("a"));
+        assertTrue(copy.add("b"));
+        copy.clear();
+
+        assertTrue(copy.isEmpty());
+        assertEquals(ImmutableSet.of("a"), source);
+    }
+
+    @Test
+    public void testIteratorRemoveDoesNotAffectSharedCopies() {
+        CopyOnWriteSet<String> original = CopyOnWriteSet.create(ImmutableSet.of("a", "b", "c"));
+        CopyOnWriteSet<String> copy = CopyOnWriteSet.copyOf(original);
+
+        for (Iterator<String> iterator = copy.iterator(); iterator.hasNext();) {
+            if (!iterator.next().equals("b")) {
+                iterator.remove();
+            }
+        }
+
+        assertEquals(ImmutableSet.of("b"), copy);
+        assertEquals(ImmutableSet.of("a", "b", "c"), original);
+    }
+
+    @Test
+    public void testContentCopiesKeepIndependentSets() {
+        Episode episode = new Episode("uri", "curie", Publisher.BBC);
+        episode.addAliasUrl("alias");
+        episode.setTags(ImmutableSet.of("Tag"));
+        episode.addEquivalentTo(new Episode("equiv", "curie", Publisher.PA));
+
+        Episode copy = episode.copy();
+        copy.getTags().add("other");
+        copy.getEquivalentTo().clear();
+        episode.getAliases().add(new Alias("namespace", "value"));
+
+        assertEquals(ImmutableSet.of("tag"), episode.getTags());
+        assertEquals(ImmutableSet.of("tag", "other"), copy.getTags());
+        assertEquals(1, episode.getEquivalentTo().size());
+        assertTrue(copy.getEquivalentTo().isEmpty());
+        assertTrue(copy.getAliases().isEmpty());
+        assertEquals(ImmutableSet.of("alias"), copy.getAliasUrls());
+    }
+
+    @Test
+    public void testSetCopiedConcurrentlyStaysIndependentOfItsCopies() throws Exception {
+        final CopyOnWriteSet<String> original = CopyOnWriteSet.create(ImmutableSet.of("a", "b"));
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<CopyOnWriteSet<String>>> copies = Lists.newArrayList();
+            for (int i = 0; i < 100; i++) {
+                copies.add(executor.submit(new Callable<CopyOnWriteSet<String>>() {
+                    @Override
+                    public CopyOnWriteSet<String> call() {
+                        return CopyOnWriteSet.copyOf(original);
+                    }
+                }));
+            }
+            for (Future<CopyOnWriteSet<String>> copy : copies) {
+                copy.get();
+            }
+            original.add("c");
+
+            for (Future<CopyOnWriteSet<String>> copy : copies) {
+                assertEquals(ImmutableSet.of("a", "b"), copy.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
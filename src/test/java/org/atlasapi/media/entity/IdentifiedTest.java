@@ -1,10 +1,24 @@
 package org.atlasapi.media.entity;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
 import org.junit.Test;
 
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import com.sun.management.ThreadMXBean;
+
 import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
 
 public class IdentifiedTest {
 
@@ -19,4 +33,153 @@ public class IdentifiedTest {
         assertThat(identified.getCustomFieldKeys("custom.*"), is(ImmutableSet.of("customField")));
         assertThat(identified.getCustomFieldKeys(".*Field.*"), is(identified.getCustomFieldKeys(null)));
     }
+
+    @Test
+    public void testEquivalenceReflectsChangesToEquivalentSet() {
+        Brand one = new Brand("one", "one", Publisher.BBC);
+        Brand two = new Brand("two", "two", Publisher.PA);
+        Brand three = new Brand("three", "three", Publisher.TED);
+
+        assertFalse(one.isEquivalentTo(two));
+
+        one.addEquivalentTo(two);
+        assertTrue(one.isEquivalentTo(two));
+        assertTrue(two.isEquivalentTo(one));
+        assertFalse(one.isEquivalentTo(three));
+
+        one.setEquivalentTo(Sets.newHashSet(LookupRef.from(three)));
+        assertFalse(one.isEquivalentTo(two));
+        assertTrue(one.isEquivalentTo(three));
+
+        one.getEquivalentTo().clear();
+        assertFalse(one.isEquivalentTo(three));
+    }
+
+    @Test
+    public void testEquivalenceReflectsSameSizeChangesToEquivalentSet() {
+        Brand one = new Brand("one", "one", Publisher.BBC);
+        Brand two = new Brand("two", "two", Publisher.PA);
+        Brand three = new Brand("three", "three", Publisher.TED);
+
+        one.addEquivalentTo(two);
+        assertTrue(one.isEquivalentTo(two));
+        one.getEquivalentTo().remove(LookupRef.from(two));
+        one.getEquivalentTo().add(LookupRef.from(three));
+        assertFalse(one.isEquivalentTo(two));
+        assertTrue(one.isEquivalentTo(three));
+
+        Set<LookupRef> equivalents = Sets.newHashSet(LookupRef.from(two));
+        one.setEquivalentTo(equivalents);
+        assertTrue(one.isEquivalentTo(two));
+        one.getEquivalentTo().clear();
+        one.getEquivalentTo().add(LookupRef.from(three));
+        assertFalse(one.isEquivalentTo(two));
+        assertTrue(one.isEquivalentTo(three));
+    }
+
+    @Test
+    public void testCopiesEquivalentSetsItIsGiven() {
+        Brand one = new Brand("one", "one", Publisher.BBC);
+        Brand two = new Brand("two", "two", Publisher.PA);
+        Brand three = new Brand("three", "three", Publisher.TED);
+
+        Set<LookupRef> equivalents = Sets.newHashSet(LookupRef.from(two));
+        one.setEquivalentTo(equivalents);
+        equivalents.add(LookupRef.from(three));
+
+        assertEquals(ImmutableSet.of(LookupRef.from(two)), one.getEquivalentTo());
+        assertFalse(one.isEquivalentTo(three));
+    }
+
+    @Test
+    public void testCheckingEquivalenceAllocatesNothing() {
+        ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled());
+
+        Brand one = new Brand("one", "one", Publisher.BBC);
+        Brand two = new Brand("two", "two", Publisher.PA);
+        Brand three = new Brand("three", "three", Publisher.TED);
+        one.setEquivalentTo(Sets.newHashSet(LookupRef.from(two)));
+        checkEquivalence(one, two, three, 100000);
+
+        long threadId = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(threadId);
+        int matches = checkEquivalence(one, two, three, 100000);
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+        assertEquals(200000, matches);
+        // allow for the measurement itself, which is far less than a byte a check
+        assertTrue("allocated " + allocated + " bytes", allocated < 100000);
+    }
+
+    private int checkEquivalence(Brand one, Brand two, Brand three, int times) {
+        int matches = 0;
+        for (int i = 0; i < times; i++) {
+            matches += one.isEquivalentTo(two) ? 1 : 0;
+            matches += two.isEquivalentTo(one) ? 1 : 0;
+            matches += one.isEquivalentTo(three) ? 1 : 0;
+        }
+        return matches;
+    }
+
+    @Test
+    public void testEquivalenceRequiresMatchingPublisher() {
+        Brand one = new Brand("one", "one", Publisher.BBC);
+        Brand two = new Brand("two", "two", Publisher.PA);
+
+        one.setEquivalentTo(ImmutableSet.of(new LookupRef("two", 2L, Publisher.TED, null)));
+
+        assertFalse(one.isEquivalentTo(two));
+        assertTrue(two.isEquivalentTo(one));
+    }
+
+    @Test
+    public void testSortsByPositionOfUriAliasOrCurie() {
+        Brand byUri = new Brand("uri", "uri", Publisher.BBC);
+        Brand byAlias = new Brand("canonical", "canonical", Publisher.BBC);
+        byAlias.addAliasUrl("alias");
+        Brand byCurie = new Brand("other", "curie", Publisher.BBC);
+        Brand unmatched = new Brand("unmatched", "unmatched", Publisher.BBC);
+
+        List<Brand> sorted = Identified.sort(
+            ImmutableList.of(byUri, byCurie, unmatched, byAlias),
+            ImmutableList.of("curie", "alias", "uri", "alias")
+        );
+
+        assertEquals(ImmutableList.of(unmatched, byCurie, byAlias, byUri), sorted);
+    }
+
+    @Test
+    public void testSortKeepsOrderOfItemsAtSamePosition() {
+        Brand first = new Brand("first", "first", Publisher.BBC);
+        Brand second = new Brand("second", "second", Publisher.BBC);
+        second.addAliasUrl("first");
+        Brand unmatchedOne = new Brand("one", "one", Publisher.BBC);
+        Brand unmatchedTwo = new Brand("two", "two", Publisher.BBC);
+
+        List<Brand> sorted = Identified.sort(
+            ImmutableList.of(unmatchedOne, second, first, unmatchedTwo),
+            ImmutableList.of("first")
+        );
+
+        assertEquals(ImmutableList.of(unmatchedOne, unmatchedTwo, second, first), sorted);
+    }
+
+    @Test
+    public void testSortsLargeListsIntoRequestedOrder() {
+        List<String> order = Lists.newArrayList();
+        List<Brand> content = Lists.newArrayList();
+        for (int i = 0; i < 10000; i++) {
+            order.add("uri" + i);
+            content.add(new Brand("uri" + i, "c" + i, Publisher.BBC));
+        }
+        Collections.shuffle(content);
+
+        List<Brand> sorted = Identified.sort(content, order);
+
+        assertEquals(10000, sorted.size());
+        for (int i = 0; i < sorted.size(); i++) {
+            assertEquals("uri" + i, sorted.get(i).getCanonicalUri());
+        }
+    }
 }
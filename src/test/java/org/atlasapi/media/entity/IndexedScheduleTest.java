@@ -0,0 +1,113 @@
+package org.atlasapi.media.entity;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+
+import java.util.List;
+
+import org.atlasapi.media.channel.Channel;
+import org.atlasapi.media.entity.IndexedSchedule.IndexedScheduleChannel;
+import org.atlasapi.media.util.ItemAndBroadcast;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.joda.time.Interval;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+
+public class IndexedScheduleTest {
+
+    private final DateTime start = new DateTime(2016, 1, 1, 18, 0, 0, 0, DateTimeZone.UTC);
+    private final Channel channel = Channel.builder()
+            .withUri("http://channel")
+            .withSource(Publisher.METABROADCAST)
+            .build();
+
+    private final Item news = item("news", start, start.plusMinutes(30));
+    private final Item film = item("film", start.plusHours(1), start.plusHours(3));
+    private final Item clash = item("clash", start.plusHours(2), start.plusHours(4));
+    private final Item elsewhere = item("elsewhere", "http://other", start, start.plusHours(1));
+
+    private final IndexedScheduleChannel schedule = IndexedSchedule.fromChannelMap(
+            ImmutableMap.<Channel, List<Item>>of(channel, ImmutableList.of(clash, news, film, elsewhere)),
+            new Interval(start, start.plusDays(1))
+    ).channel(channel).get();
+
+    @Test
+    public void testIndexesOnlyBroadcastsOnTheChannelInTransmissionOrder() {
+        assertThat(items(schedule.entries()), is(ImmutableList.of(news, film, clash)));
+    }
+
+    @Test
+    public void testNowAndNext() {
+        assertThat(schedule.now(start.plusMinutes(10)).get().getItem(), is(news));
+        assertFalse(schedule.now(start.plusMinutes(30)).isPresent());
+        assertThat(schedule.now(start.plusMinutes(150)).get().getItem(), is(clash));
+        assertThat(items(schedule.at(start.plusMinutes(150))), is(ImmutableList.of(film, clash)));
+
+        assertThat(items(schedule.next(start.plusMinutes(10), 1)), is(ImmutableList.of(film)));
+        assertThat(items(schedule.next(start.minusMinutes(1), 5)), is(ImmutableList.of(news, film, clash)));
+        assertThat(items(schedule.next(start.plusHours(2), 5)), is(ImmutableList.<Item>of()));
+    }
+
+    @Test
+    public void testSlicesByInterval() {
+        assertThat(items(schedule.during(new Interval(start.plusMinutes(30), start.plusHours(1)))),
+                is(ImmutableList.<Item>of()));
+        assertThat(items(schedule.during(new Interval(start.plusMinutes(20), start.plusMinutes(61)))),
+                is(ImmutableList.of(news, film)));
+        assertThat(items(schedule.during(new Interval(start.plusHours(3), start.plusHours(5)))),
+                is(ImmutableList.of(clash)));
+    }
+
+    @Test
+    public void testGapsAndOverlaps() {
+        assertThat(schedule.gaps(new Interval(start.minusHours(1), start.plusHours(5))), is((List<Interval>) ImmutableList.of(
+                interval(start.minusHours(1), start),
+                interval(start.plusMinutes(30), start.plusHours(1)),
+                interval(start.plusHours(4), start.plusHours(5)))));
+        assertThat(schedule.overlaps(), is((List<Interval>) ImmutableList.of(
+                interval(start.plusHours(2), start.plusHours(3)))));
+    }
+
+    @Test
+    public void testSkipsMalformedAndEmptyBroadcasts() {
+        Item malformed = item("malformed", start.plusHours(2), start.plusHours(1));
+        Item empty = item("empty", start.plusHours(2), start.plusHours(2));
+
+        IndexedScheduleChannel withMalformed = IndexedSchedule.fromChannelMap(
+                ImmutableMap.<Channel, List<Item>>of(channel, ImmutableList.of(film, malformed, empty)),
+                new Interval(start, start.plusDays(1))
+        ).channel(channel).get();
+
+        assertThat(items(withMalformed.entries()), is(ImmutableList.of(film, empty)));
+        assertThat(withMalformed.overlaps(), is((List<Interval>) ImmutableList.<Interval>of()));
+    }
+
+    private Interval interval(DateTime from, DateTime to) {
+        return new Interval(from.getMillis(), to.getMillis(), DateTimeZone.UTC);
+    }
+
+    private List<Item> items(List<ItemAndBroadcast> entries) {
+        List<Item> items = Lists.newArrayList();
+        for (ItemAndBroadcast entry : entries) {
+            items.add(entry.getItem());
+        }
+        return items;
+    }
+
+    private Item item(String uri, DateTime from, DateTime to) {
+        return item(uri, channel.getUri(), from, to);
+    }
+
+    private Item item(String uri, String channelUri, DateTime from, DateTime to) {
+        Item item = new Item(uri, uri, Publisher.BBC);
+        Version version = new Version();
+        version.addBroadcast(new Broadcast(channelUri, from, to));
+        item.addVersion(version);
+        return item;
+    }
+}
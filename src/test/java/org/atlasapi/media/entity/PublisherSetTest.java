@@ -0,0 +1,68 @@
+package org.atlasapi.media.entity;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.google.common.base.Function;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Ordering;
+
+public class PublisherSetTest {
+
+    @Test
+    public void testContainsExactlyTheGivenPublishers() {
+        Publisher last = Publisher.values()[Publisher.values().length - 1];
+        PublisherSet publishers = PublisherSet.of(Publisher.BBC, Publisher.PA, last);
+
+        assertTrue(publishers.contains(Publisher.BBC));
+        assertTrue(publishers.contains(last));
+        assertFalse(publishers.contains(Publisher.TED));
+        assertThat(publishers.size(), is(3));
+        assertThat(publishers.asSet(), is(ImmutableSet.of(Publisher.BBC, Publisher.PA, last)));
+        assertThat(PublisherSet.copyOf(publishers.asSet()), is(publishers));
+
+        for (Publisher publisher : Publisher.values()) {
+            assertFalse(PublisherSet.none().contains(publisher));
+        }
+    }
+
+    @Test
+    public void testPrecedenceRanksPublishersInOrderAndOthersLast() {
+        PublisherPrecedence precedence = PublisherPrecedence.of(ImmutableList.of(Publisher.PA, Publisher.BBC));
+
+        assertThat(precedence.rank(Publisher.PA), is(0));
+        assertThat(precedence.rank(Publisher.BBC), is(1));
+        assertTrue(precedence.contains(Publisher.BBC));
+        assertFalse(precedence.contains(Publisher.TED));
+        assertThat(precedence.ordering().sortedCopy(ImmutableList.of(Publisher.TED, Publisher.BBC, Publisher.PA)),
+                is(ImmutableList.of(Publisher.PA, Publisher.BBC, Publisher.TED)));
+    }
+
+    @Test
+    public void testRankingIncludesEveryPublisherTheOrderingCompares() {
+        PublisherPrecedence explicit = PublisherPrecedence.ranking(Ordering.explicit(Publisher.PA, Publisher.BBC));
+
+        assertThat(explicit.inOrder(), is(ImmutableList.of(Publisher.PA, Publisher.BBC)));
+        assertThat(explicit.rank(Publisher.BBC), is(1));
+        assertFalse(explicit.contains(Publisher.TED));
+        assertThat(explicit, is(PublisherPrecedence.of(ImmutableList.of(Publisher.PA, Publisher.BBC))));
+
+        Ordering<Publisher> paFirst = Ordering.natural().onResultOf(new Function<Publisher, Boolean>() {
+            @Override
+            public Boolean apply(Publisher publisher) {
+                return publisher != Publisher.PA;
+            }
+        });
+        PublisherPrecedence ranked = PublisherPrecedence.ranking(paFirst);
+
+        assertThat(ranked.rank(Publisher.PA), is(0));
+        assertThat(ranked.rank(Publisher.BBC), is(1));
+        assertThat(ranked.rank(Publisher.TED), is(1));
+        assertThat(ranked.publishers().size(), is(Publisher.values().length));
+    }
+}
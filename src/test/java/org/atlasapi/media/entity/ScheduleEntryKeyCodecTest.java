@@ -0,0 +1,125 @@
+package org.atlasapi.media.entity;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertThat;
+
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.List;
+
+import org.atlasapi.media.channel.Channel;
+import org.joda.time.DateTime;
+import org.joda.time.Interval;
+import org.junit.Test;
+
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Ordering;
+import com.metabroadcast.common.time.DateTimeZones;
+
+public class ScheduleEntryKeyCodecTest {
+
+    private final DateTime start = new DateTime(2014, 3, 9, 18, 30, DateTimeZones.UTC);
+
+    @Test
+    public void testDecodesEncodedKey() {
+        ByteBuffer key = ByteBuffer.allocate(ScheduleEntryKeyCodec.KEY_LENGTH);
+
+        ScheduleEntryKeyCodec.encode(interval(start), channel("bbcone"), Publisher.PA, key);
+        key.flip();
+
+        assertThat(ScheduleEntryKeyCodec.startTime(key), is(start));
+        assertThat(ScheduleEntryKeyCodec.channelKey(key), is("bbcone"));
+        assertThat(ScheduleEntryKeyCodec.publisher(key), is(Publisher.PA));
+        assertThat(ScheduleEntryKeyCodec.toStringKey(key),
+                is(ScheduleEntry.toKey(interval(start), channel("bbcone"), Publisher.PA)));
+        assertThat(key.position(), is(0));
+    }
+
+    @Test
+    public void testConvertsStringKeys() {
+        String stringKey = ScheduleEntry.toKey(interval(start), channel("itv1"), Publisher.BBC);
+        ByteBuffer fromString = ByteBuffer.allocate(ScheduleEntryKeyCodec.KEY_LENGTH);
+        ByteBuffer encoded = ByteBuffer.allocate(ScheduleEntryKeyCodec.KEY_LENGTH);
+
+        ScheduleEntryKeyCodec.fromStringKey(stringKey, fromString);
+        ScheduleEntryKeyCodec.encode(interval(start), channel("itv1"), Publisher.BBC, encoded);
+
+        assertArrayEquals(encoded.array(), fromString.array());
+    }
+
+    @Test
+    public void testSortsAsStringKeys() {
+        List<String> stringKeys = Lists.newArrayList();
+        List<byte[]> binaryKeys = Lists.newArrayList();
+        for (DateTime time : ImmutableList.of(start, start.plusSeconds(1), start.plusHours(1))) {
+            for (String channelKey : ImmutableList.of("bbc", "bbcone", "bbc1", "c4", "z")) {
+                for (Publisher publisher : ImmutableList.of(Publisher.BBC, Publisher.PA, Publisher.C4, Publisher.METABROADCAST)) {
+                    stringKeys.add(ScheduleEntry.toKey(interval(time), channel(channelKey), publisher));
+                    binaryKeys.add(encode(time, channelKey, publisher));
+                }
+            }
+        }
+        Collections.shuffle(binaryKeys);
+        Collections.sort(binaryKeys, ScheduleEntryKeyCodec.ORDERING);
+
+        List<String> decoded = Lists.newArrayList();
+        for (byte[] key : binaryKeys) {
+            decoded.add(ScheduleEntryKeyCodec.toStringKey(ByteBuffer.wrap(key)));
+        }
+        assertThat(decoded, is(Ordering.natural().sortedCopy(stringKeys)));
+    }
+
+    @Test
+    public void testBoundsKeysStartingInRange() {
+        byte[] from = new byte[ScheduleEntryKeyCodec.KEY_LENGTH];
+        byte[] to = new byte[ScheduleEntryKeyCodec.KEY_LENGTH];
+        ScheduleEntryKeyCodec.lowerBound(start, ByteBuffer.wrap(from));
+        ScheduleEntryKeyCodec.lowerBound(start.plusHours(1), ByteBuffer.wrap(to));
+
+        byte[] first = encode(start, "bbcone", Publisher.BBC);
+        byte[] last = encode(start.plusHours(1).minusSeconds(1), "z", Publisher.YOUVIEW);
+        byte[] after = encode(start.plusHours(1), "bbcone", Publisher.BBC);
+
+        assertThat(ScheduleEntryKeyCodec.ORDERING.compare(from, first), is(lessThan(0)));
+        assertThat(ScheduleEntryKeyCodec.ORDERING.compare(last, to), is(lessThan(0)));
+        assertThat(ScheduleEntryKeyCodec.ORDERING.compare(to, after), is(lessThan(0)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRejectsChannelKeysWithSeparator() {
+        encode(start, "bbc|one", Publisher.BBC);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRejectsChannelKeysTooLongForTheKey() {
+        encode(start, Strings.repeat("c", org.atlasapi.media.entity.Channel.MAX_KEY_LENGTH + 1), Publisher.BBC);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRejectsStringKeysBefore1900() {
+        ScheduleEntryKeyCodec.fromStringKey("-1|bbcone|bbc.co.uk",
+                ByteBuffer.allocate(ScheduleEntryKeyCodec.KEY_LENGTH));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRejectsStartTimesBefore1900() {
+        encode(new DateTime(1899, 12, 31, 23, 59, DateTimeZones.UTC), "bbcone", Publisher.BBC);
+    }
+
+    private byte[] encode(DateTime time, String channelKey, Publisher publisher) {
+        return ScheduleEntryKeyCodec.encode(new ScheduleEntry(interval(time), channel(channelKey), publisher,
+                ImmutableList.<ScheduleEntry.ItemRefAndBroadcast>of()));
+    }
+
+    private Interval interval(DateTime time) {
+        return new Interval(time, time.plusMinutes(30));
+    }
+
+    private Channel channel(String key) {
+        return Channel.builder().withKey(key).build();
+    }
+}
@@ -0,0 +1,67 @@
+package org.atlasapi.media.entity.simple;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Iterator;
+
+import org.atlasapi.media.entity.simple.ContentQueryResult.Pagination;
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.AbstractIterator;
+import com.google.common.collect.ImmutableList;
+
+public class StreamingQueryResultWriterTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final StreamingQueryResultWriter writer = new StreamingQueryResultWriter(mapper);
+
+    @Test
+    public void testWritesContentsLazilyWithPagination() throws Exception {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Iterator<Description> contents = new AbstractIterator<Description>() {
+
+            private int produced = 0;
+
+            @Override
+            protected Description computeNext() {
+                if (produced == 3) {
+                    return endOfData();
+                }
+                Item item = new Item();
+                item.setUri("http://item/" + produced++);
+                return item;
+            }
+        };
+        Pagination pagination = new Pagination();
+        pagination.setLimit(3);
+        pagination.setOffset(6);
+
+        writer.writeContents(contents, pagination, out);
+
+        JsonNode result = mapper.readTree(out.toByteArray());
+        assertEquals(3, result.get("pagination").get("limit").asInt());
+        assertEquals(6, result.get("pagination").get("offset").asInt());
+        assertEquals(3, result.get("contents").size());
+        assertEquals("http://item/2", result.get("contents").get(2).get("uri").asText());
+    }
+
+    @Test
+    public void testWritesPeopleAndOmitsMissingPagination() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writer.writeContents(ImmutableList.<Description>of().iterator(), null, out);
+        JsonNode contents = mapper.readTree(out.toByteArray());
+        assertFalse(contents.has("pagination"));
+        assertEquals(0, contents.get("contents").size());
+
+        out = new ByteArrayOutputStream();
+        Person person = new Person();
+        person.setUri("http://person");
+        writer.writePeople(ImmutableList.of(person).iterator(), out);
+        JsonNode people = mapper.readTree(out.toByteArray());
+        assertEquals("http://person", people.get("people").get(0).get("uri").asText());
+    }
+}
@@ -0,0 +1,82 @@
+package org.atlasapi.persistence.content;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+import org.atlasapi.media.entity.ContentGroup;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+
+public class BatchingAsyncContentGroupResolverTest {
+
+    private final List<List<Long>> idBatches = Lists.newArrayList();
+    private final ContentGroup group = new ContentGroup("group");
+
+    private final ContentGroupResolver delegate = new ContentGroupResolver() {
+
+        @Override
+        public ResolvedContent findByCanonicalUris(Iterable<String> canonicalUris) {
+            ResolvedContent.ResolvedContentBuilder resolved = ResolvedContent.builder();
+            for (String uri : canonicalUris) {
+                resolved.put(uri, new ContentGroup(uri));
+            }
+            return resolved.build();
+        }
+
+        @Override
+        public ResolvedContent findByIds(Iterable<Long> ids) {
+            idBatches.add(ImmutableList.copyOf(ids));
+            ResolvedContent.ResolvedContentBuilder resolved = ResolvedContent.builder();
+            for (Long id : ids) {
+                if (id < 0) {
+                    throw new IllegalStateException("failed to resolve " + id);
+                }
+                resolved.put(String.valueOf(id), new ContentGroup("group/" + id));
+            }
+            return resolved.build();
+        }
+
+        @Override
+        public Iterable<ContentGroup> findAll() {
+            return ImmutableList.of(group);
+        }
+    };
+
+    private final AsyncContentGroupResolver resolver = new BatchingAsyncContentGroupResolver(
+            delegate, new BatchingExecutor(Runnable::run, 2, 2));
+
+    @Test
+    public void testCombinesSplitBatchesOfDistinctIds() throws Exception {
+        ResolvedContent resolved = resolver.findByIds(ImmutableList.of(1L, 2L, 1L, 3L)).get();
+
+        assertThat(idBatches, is((List<List<Long>>) ImmutableList.<List<Long>>of(
+                ImmutableList.of(1L, 2L), ImmutableList.of(3L))));
+        assertThat(resolved.getResolvedQueries(), is((List<String>) ImmutableList.of("1", "2", "3")));
+        assertThat(resolved.get("3").requireValue().getCanonicalUri(), is("group/3"));
+    }
+
+    @Test
+    public void testResolvesUrisAndAllGroups() throws Exception {
+        ResolvedContent resolved = resolver.findByCanonicalUris(ImmutableList.of("a", "b", "c")).get();
+
+        assertThat(resolved.getResolvedQueries(), is((List<String>) ImmutableList.of("a", "b", "c")));
+        assertThat(ImmutableList.copyOf(resolver.findAll().get()), is(ImmutableList.of(group)));
+    }
+
+    @Test
+    public void testFailsIfAnyBatchFails() throws Exception {
+        try {
+            resolver.findByIds(ImmutableList.of(1L, 2L, -1L)).get();
+            fail("expected the failed batch to fail the request");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+    }
+}
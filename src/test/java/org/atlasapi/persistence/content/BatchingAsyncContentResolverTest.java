@@ -0,0 +1,109 @@
+package org.atlasapi.persistence.content;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.atlasapi.media.entity.Brand;
+import org.atlasapi.media.entity.Publisher;
+import org.junit.After;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+
+public class BatchingAsyncContentResolverTest {
+
+    private final List<List<String>> batches = Collections.synchronizedList(Lists.<List<String>>newArrayList());
+    private final Set<Thread> threads = Collections.newSetFromMap(new ConcurrentHashMap<Thread, Boolean>());
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+    private final ContentResolver delegate = new ContentResolver() {
+
+        @Override
+        public ResolvedContent findByCanonicalUris(Iterable<String> canonicalUris) {
+            return resolve(canonicalUris);
+        }
+
+        @Override
+        public ResolvedContent findByUris(Iterable<String> uris) {
+            return resolve(uris);
+        }
+    };
+
+    private final AsyncContentResolver resolver = new BatchingAsyncContentResolver(
+            delegate, new BatchingExecutor(Runnable::run, 2, 2));
+
+    @Test
+    public void testCombinesSplitBatchesOfDistinctUris() throws Exception {
+        ResolvedContent resolved = resolver.findByCanonicalUris(
+                ImmutableList.of("a", "b", "a", "c", "missing")).get();
+
+        assertThat(batches, is((List<List<String>>) ImmutableList.<List<String>>of(
+                ImmutableList.of("a", "b"), ImmutableList.of("c", "missing"))));
+        assertThat(ImmutableList.copyOf(resolved.getQueries()), is(ImmutableList.of("a", "b", "c", "missing")));
+        assertThat(resolved.getResolvedQueries(), is((List<String>) ImmutableList.of("a", "b", "c")));
+        assertThat(resolved.getUnresolved(), is((List<String>) ImmutableList.of("missing")));
+    }
+
+    @Test
+    public void testResolvesByUrisInBatches() throws Exception {
+        ResolvedContent resolved = resolver.findByUris(ImmutableList.of("a", "b", "c")).get();
+
+        assertThat(batches.size(), is(2));
+        assertThat(resolved.getResolvedQueries(), is((List<String>) ImmutableList.of("a", "b", "c")));
+    }
+
+    @After
+    public void shutDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testResolvesBatchesOnTheExecutor() throws Exception {
+        AsyncContentResolver pooled = new BatchingAsyncContentResolver(
+                delegate, new BatchingExecutor(executor, 1, 2));
+
+        ResolvedContent resolved = pooled.findByCanonicalUris(
+                ImmutableList.of("a", "b", "c", "d", "missing")).get(10, TimeUnit.SECONDS);
+
+        assertThat(batches.size(), is(5));
+        assertFalse(threads.contains(Thread.currentThread()));
+        assertThat(resolved.getResolvedQueries(), is((List<String>) ImmutableList.of("a", "b", "c", "d")));
+        assertThat(resolved.getUnresolved(), is((List<String>) ImmutableList.of("missing")));
+    }
+
+    @Test
+    public void testFailsIfAnyBatchFails() throws Exception {
+        try {
+            resolver.findByCanonicalUris(ImmutableList.of("a", "b", "fail")).get();
+            fail("expected the failed batch to fail the request");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+    }
+
+    private ResolvedContent resolve(Iterable<String> uris) {
+        batches.add(ImmutableList.copyOf(uris));
+        threads.add(Thread.currentThread());
+        ResolvedContent.ResolvedContentBuilder resolved = ResolvedContent.builder();
+        for (String uri : uris) {
+            if (uri.equals("fail")) {
+                throw new IllegalStateException("failed to resolve " + uri);
+            }
+            resolved.put(uri, uri.equals("missing") ? null : new Brand(uri, uri, Publisher.BBC));
+        }
+        return resolved.build();
+    }
+}
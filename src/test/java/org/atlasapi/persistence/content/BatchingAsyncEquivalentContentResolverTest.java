@@ -0,0 +1,104 @@
+package org.atlasapi.persistence.content;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+
+import com.metabroadcast.applications.client.model.internal.Application;
+import org.atlasapi.application.v3.DefaultApplication;
+import org.atlasapi.media.entity.Brand;
+import org.atlasapi.media.entity.Content;
+import org.atlasapi.media.entity.Publisher;
+import org.atlasapi.output.Annotation;
+import org.junit.Test;
+
+import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+
+public class BatchingAsyncEquivalentContentResolverTest {
+
+    private final Application application = DefaultApplication.getDefault();
+    private final List<List<String>> batches = Lists.newArrayList();
+
+    private final EquivalentContentResolver delegate = new EquivalentContentResolver() {
+
+        @Override
+        public EquivalentContent resolveUris(Iterable<String> uris, Application application,
+                Set<Annotation> activeAnnotations, boolean withAliases) {
+            return resolve(uris);
+        }
+
+        @Override
+        public EquivalentContent resolveIds(Iterable<Long> ids, Application application,
+                Set<Annotation> activeAnnotations) {
+            List<String> uris = Lists.newArrayList();
+            for (Long id : ids) {
+                uris.add(String.valueOf(id));
+            }
+            return resolve(uris);
+        }
+
+        @Override
+        public EquivalentContent resolveAliases(Optional<String> namespace, Iterable<String> values,
+                Application application, Set<Annotation> activeAnnotations) {
+            return resolve(values);
+        }
+    };
+
+    private final AsyncEquivalentContentResolver resolver = new BatchingAsyncEquivalentContentResolver(
+            delegate, new BatchingExecutor(Runnable::run, 2, 2));
+
+    @Test
+    public void testCombinesSplitBatchesOfDistinctUris() throws Exception {
+        EquivalentContent resolved = resolver.resolveUris(ImmutableList.of("a", "b", "a", "c"),
+                application, Annotation.defaultAnnotations(), false).get();
+
+        assertThat(batches, is((List<List<String>>) ImmutableList.<List<String>>of(
+                ImmutableList.of("a", "b"), ImmutableList.of("c"))));
+        assertThat(resolved.keySet(), is((Set<String>) ImmutableSet.of("a", "b", "c")));
+        assertThat(resolved.get("c").size(), is(2));
+    }
+
+    @Test
+    public void testResolvesIdsAndAliasesInBatches() throws Exception {
+        EquivalentContent byId = resolver.resolveIds(ImmutableList.of(1L, 2L, 3L),
+                application, Annotation.defaultAnnotations()).get();
+        EquivalentContent byAlias = resolver.resolveAliases(Optional.of("namespace"),
+                ImmutableList.of("x", "y", "z"), application, Annotation.defaultAnnotations()).get();
+
+        assertThat(batches.size(), is(4));
+        assertThat(byId.keySet(), is((Set<String>) ImmutableSet.of("1", "2", "3")));
+        assertThat(byAlias.keySet(), is((Set<String>) ImmutableSet.of("x", "y", "z")));
+    }
+
+    @Test
+    public void testFailsIfAnyBatchFails() throws Exception {
+        try {
+            resolver.resolveUris(ImmutableList.of("a", "b", "fail"), application,
+                    Annotation.defaultAnnotations(), false).get();
+            fail("expected the failed batch to fail the request");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+    }
+
+    private EquivalentContent resolve(Iterable<String> keys) {
+        batches.add(ImmutableList.copyOf(keys));
+        EquivalentContent.Builder resolved = EquivalentContent.builder();
+        for (String key : keys) {
+            if (key.equals("fail")) {
+                throw new IllegalStateException("failed to resolve " + key);
+            }
+            resolved.putEquivalents(key, ImmutableList.<Content>of(
+                    new Brand(key, key, Publisher.BBC), new Brand(key + "/equiv", key, Publisher.PA)));
+        }
+        return resolved.build();
+    }
+}
@@ -0,0 +1,70 @@
+package org.atlasapi.persistence.content;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+
+public class BatchingExecutorTest {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    @Test
+    public void testBatchesDistinctKeysAndReturnsResultsInBatchOrder() throws Exception {
+        BatchingExecutor batching = new BatchingExecutor(executor, 2, 2);
+
+        List<List<String>> results = batching.submit(
+                ImmutableList.of("a", "b", "a", "c", "d", "e"),
+                (List<String> batch) -> batch
+        ).get();
+
+        assertThat(results, is((List<List<String>>) ImmutableList.<List<String>>of(
+                ImmutableList.of("a", "b"), ImmutableList.of("c", "d"), ImmutableList.of("e")
+        )));
+    }
+
+    @After
+    public void shutDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testRunsParallelismBatchesConcurrently() throws Exception {
+        BatchingExecutor batching = new BatchingExecutor(executor, 1, 2);
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maxRunning = new AtomicInteger();
+        // each of the first two batches waits for the other to start
+        final CountDownLatch started = new CountDownLatch(2);
+        final AtomicBoolean overlapped = new AtomicBoolean();
+
+        batching.submit(ImmutableList.of(1, 2, 3, 4, 5, 6, 7, 8), (List<Integer> batch) -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            started.countDown();
+            try {
+                if (started.await(5, TimeUnit.SECONDS) && running.get() == 2) {
+                    overlapped.set(true);
+                }
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            running.decrementAndGet();
+            return batch;
+        }).get(10, TimeUnit.SECONDS);
+
+        assertTrue(overlapped.get());
+        assertThat(maxRunning.get(), is(2));
+    }
+}
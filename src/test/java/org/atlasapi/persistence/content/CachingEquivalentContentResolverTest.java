@@ -0,0 +1,231 @@
+package org.atlasapi.persistence.content;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.metabroadcast.applications.client.model.internal.Application;
+import com.metabroadcast.applications.client.model.internal.ApplicationConfiguration;
+import org.atlasapi.media.entity.Brand;
+import org.atlasapi.media.entity.Content;
+import org.atlasapi.media.entity.Publisher;
+import org.atlasapi.output.Annotation;
+import org.joda.time.DateTime;
+import org.junit.Test;
+
+import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterables;
+import com.google.common.util.concurrent.Uninterruptibles;
+
+public class CachingEquivalentContentResolverTest {
+
+    private final DateTime updated = new DateTime(2016, 1, 1, 0, 0, 0, 0);
+    private int resolutions = 0;
+
+    private final EquivalentContentResolver delegate = new EquivalentContentResolver() {
+
+        @Override
+        public EquivalentContent resolveUris(Iterable<String> uris, Application application,
+                Set<Annotation> activeAnnotations, boolean withAliases) {
+            resolutions++;
+            EquivalentContent.Builder builder = EquivalentContent.builder();
+            for (String uri : uris) {
+                Brand brand = new Brand(uri, uri, Publisher.BBC);
+                brand.setLastUpdated(updated);
+                brand.setReadHash("hash");
+                builder.putEquivalents(uri, ImmutableList.<Content>of(brand));
+            }
+            return builder.build();
+        }
+
+        @Override
+        public EquivalentContent resolveIds(Iterable<Long> ids, Application application,
+                Set<Annotation> activeAnnotations) {
+            resolutions++;
+            return EquivalentContent.empty();
+        }
+
+        @Override
+        public EquivalentContent resolveAliases(Optional<String> namespace, Iterable<String> values,
+                Application application, Set<Annotation> activeAnnotations) {
+            resolutions++;
+            return EquivalentContent.empty();
+        }
+    };
+
+    private final CachingEquivalentContentResolver resolver
+            = CachingEquivalentContentResolver.builder(delegate).withMaximumWeight(100).build();
+
+    @Test
+    public void testApplicationsWithTheSameReadPolicyShareEntries() {
+        Application one = application(Publisher.BBC, Publisher.PA);
+        Application two = application(Publisher.BBC, Publisher.PA);
+        Application reversed = application(Publisher.PA, Publisher.BBC);
+
+        resolver.resolveUris(ImmutableList.of("a"), one, Annotation.defaultAnnotations(), false);
+        resolver.resolveUris(ImmutableList.of("a"), two, Annotation.defaultAnnotations(), false);
+        assertThat(resolutions, is(1));
+
+        resolver.resolveUris(ImmutableList.of("a"), reversed, Annotation.defaultAnnotations(), false);
+        resolver.resolveUris(ImmutableList.of("a"), one, Annotation.defaultAnnotations(), true);
+        resolver.resolveUris(ImmutableList.of("a"), one, ImmutableSet.of(Annotation.DESCRIPTION), false);
+        resolver.resolveIds(ImmutableList.of(1L), one, Annotation.defaultAnnotations());
+        assertThat(resolutions, is(5));
+
+        assertThat(resolver.stats().hitCount(), is(1L));
+        assertThat(resolver.stats().missCount(), is(5L));
+    }
+
+    @Test
+    public void testInvalidatesOnlyEntriesHoldingAStaleVersion() {
+        Application application = application(Publisher.BBC);
+        resolver.resolveUris(ImmutableList.of("a"), application, Annotation.defaultAnnotations(), false);
+
+        Brand same = new Brand("a", "a", Publisher.BBC);
+        same.setLastUpdated(updated);
+        same.setReadHash("hash");
+        resolver.invalidate(same);
+        resolver.resolveUris(ImmutableList.of("a"), application, Annotation.defaultAnnotations(), false);
+        assertThat(resolutions, is(1));
+
+        Brand changed = new Brand("a", "a", Publisher.BBC);
+        changed.setLastUpdated(updated);
+        changed.setReadHash("changed");
+        resolver.invalidate(changed);
+        resolver.resolveUris(ImmutableList.of("a"), application, Annotation.defaultAnnotations(), false);
+        assertThat(resolutions, is(2));
+
+        Brand newer = new Brand("a", "a", Publisher.BBC);
+        newer.setLastUpdated(updated.plusHours(1));
+        newer.setReadHash("hash");
+        resolver.invalidate(newer);
+        resolver.resolveUris(ImmutableList.of("a"), application, Annotation.defaultAnnotations(), false);
+        assertThat(resolutions, is(3));
+    }
+
+    @Test
+    public void testGivesEachCallerItsOwnCopy() {
+        Application application = application(Publisher.BBC);
+        Content first = Iterables.getOnlyElement(resolver.resolveUris(ImmutableList.of("a"),
+                application, Annotation.defaultAnnotations(), false).get("a"));
+        first.setTitle("changed");
+        first.setTags(ImmutableSet.of("changed"));
+
+        Content second = Iterables.getOnlyElement(resolver.resolveUris(ImmutableList.of("a"),
+                application, Annotation.defaultAnnotations(), false).get("a"));
+
+        assertThat(resolutions, is(1));
+        assertThat(second, is(not(sameInstance(first))));
+        assertThat(second.getTitle(), is(nullValue()));
+        assertThat(second.getTags().isEmpty(), is(true));
+        assertThat(second.getReadHash(), is("hash"));
+    }
+
+    @Test
+    public void testLoadsConcurrentIdenticalRequestsOnce() throws Exception {
+        final AtomicInteger resolutions = new AtomicInteger();
+        final CountDownLatch loading = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final CachingEquivalentContentResolver resolver = CachingEquivalentContentResolver.builder(
+                new EquivalentContentResolver() {
+                    @Override
+                    public EquivalentContent resolveUris(Iterable<String> uris, Application application,
+                            Set<Annotation> activeAnnotations, boolean withAliases) {
+                        resolutions.incrementAndGet();
+                        loading.countDown();
+                        Uninterruptibles.awaitUninterruptibly(release);
+                        return EquivalentContent.builder().build();
+                    }
+
+                    @Override
+                    public EquivalentContent resolveIds(Iterable<Long> ids, Application application,
+                            Set<Annotation> activeAnnotations) {
+                        throw new UnsupportedOperationException();
+                    }
+
+                    @Override
+                    public EquivalentContent resolveAliases(Optional<String> namespace,
+                            Iterable<String> values, Application application,
+                            Set<Annotation> activeAnnotations) {
+                        throw new UnsupportedOperationException();
+                    }
+                }).withMaximumSize(10).build();
+        final Application application = application(Publisher.BBC);
+        Runnable request = new Runnable() {
+            @Override
+            public void run() {
+                resolver.resolveUris(ImmutableList.of("a"), application,
+                        Annotation.defaultAnnotations(), false);
+            }
+        };
+
+        Thread first = new Thread(request);
+        Thread second = new Thread(request);
+        first.start();
+        loading.await();
+        second.start();
+        while (second.getState() != Thread.State.WAITING) {
+            Thread.sleep(1);
+        }
+        release.countDown();
+        first.join();
+        second.join();
+
+        assertThat(resolutions.get(), is(1));
+        assertThat(resolver.stats().loadCount(), is(1L));
+    }
+
+    @Test
+    public void testEvictsBeyondMaximumSize() {
+        CachingEquivalentContentResolver resolver = CachingEquivalentContentResolver.builder(delegate)
+                .withMaximumSize(1)
+                .build();
+        Application application = application(Publisher.BBC);
+
+        resolver.resolveUris(ImmutableList.of("a"), application, Annotation.defaultAnnotations(), false);
+        resolver.resolveUris(ImmutableList.of("b"), application, Annotation.defaultAnnotations(), false);
+        resolver.resolveUris(ImmutableList.of("a"), application, Annotation.defaultAnnotations(), false);
+
+        assertThat(resolutions, is(3));
+        assertThat(resolver.stats().evictionCount(), is(2L));
+    }
+
+    @Test
+    public void testEvictsBeyondMaximumWeightOfContent() {
+        CachingEquivalentContentResolver resolver = CachingEquivalentContentResolver.builder(delegate)
+                .withMaximumWeight(3)
+                .build();
+        Application application = application(Publisher.BBC);
+
+        resolver.resolveUris(ImmutableList.of("a", "b"), application, Annotation.defaultAnnotations(), false);
+        resolver.resolveUris(ImmutableList.of("c"), application, Annotation.defaultAnnotations(), false);
+        resolver.resolveUris(ImmutableList.of("a", "b"), application, Annotation.defaultAnnotations(), false);
+        assertThat(resolutions, is(2));
+        assertThat(resolver.stats().evictionCount(), is(0L));
+
+        resolver.resolveUris(ImmutableList.of("d", "e"), application, Annotation.defaultAnnotations(), false);
+        resolver.resolveUris(ImmutableList.of("a", "b"), application, Annotation.defaultAnnotations(), false);
+        assertThat(resolutions, is(4));
+        assertThat(resolver.stats().evictionCount() > 0, is(true));
+    }
+
+    private Application application(Publisher... reads) {
+        Application application = mock(Application.class);
+        when(application.getConfiguration()).thenReturn(ApplicationConfiguration.builder()
+                .withPrecedence(Arrays.asList(reads))
+                .withEnabledWriteSources(ImmutableList.<Publisher>of())
+                .build());
+        return application;
+    }
+}
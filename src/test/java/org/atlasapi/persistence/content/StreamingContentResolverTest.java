@@ -0,0 +1,67 @@
+package org.atlasapi.persistence.content;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+
+import java.util.List;
+
+import org.atlasapi.media.entity.Brand;
+import org.atlasapi.media.entity.Identified;
+import org.atlasapi.media.entity.Publisher;
+import org.atlasapi.persistence.content.StreamingContentResolver.ResolutionCount;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+
+public class StreamingContentResolverTest {
+
+    private final List<Integer> requestSizes = Lists.newArrayList();
+
+    private final ContentResolver resolver = new ContentResolver() {
+
+        @Override
+        public ResolvedContent findByUris(Iterable<String> uris) {
+            return findByCanonicalUris(uris);
+        }
+
+        @Override
+        public ResolvedContent findByCanonicalUris(Iterable<String> canonicalUris) {
+            ResolvedContent.ResolvedContentBuilder builder = ResolvedContent.builder();
+            int size = 0;
+            for (String uri : canonicalUris) {
+                builder.put(uri, uri.startsWith("missing") ? null : new Brand(uri, uri, Publisher.BBC));
+                size++;
+            }
+            requestSizes.add(size);
+            return builder.build();
+        }
+    };
+
+    @Test
+    public void testResolvesInChunksAndReportsInRequestOrder() {
+        final List<String> reported = Lists.newArrayList();
+        ResolvedContentListener listener = new ResolvedContentListener() {
+
+            @Override
+            public void resolved(String query, Identified content) {
+                reported.add(content.getCanonicalUri());
+            }
+
+            @Override
+            public void unresolved(String query) {
+                reported.add("!" + query);
+            }
+        };
+
+        ResolutionCount count = new StreamingContentResolver(resolver, 2)
+                .findByUris(ImmutableList.of("a", "missing1", "b", "c", "missing2"), listener);
+
+        assertThat(requestSizes, is((List<Integer>) ImmutableList.of(2, 2, 1)));
+        assertThat(reported, is((List<String>) ImmutableList.of("a", "!missing1", "b", "c", "!missing2")));
+        assertThat(count.resolved(), is(3L));
+        assertThat(count.unresolved(), is(2L));
+        assertFalse(count.resolvedAll());
+    }
+}
@@ -0,0 +1,147 @@
+package org.atlasapi.search;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.atlasapi.media.entity.Brand;
+import org.atlasapi.media.entity.Broadcast;
+import org.atlasapi.media.entity.Encoding;
+import org.atlasapi.media.entity.Episode;
+import org.atlasapi.media.entity.Location;
+import org.atlasapi.media.entity.Publisher;
+import org.atlasapi.media.entity.Specialization;
+import org.atlasapi.media.entity.Version;
+import org.atlasapi.media.entity.simple.ContentIdentifier;
+import org.atlasapi.search.model.SearchQuery;
+import org.joda.time.DateTime;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import com.metabroadcast.common.ids.SubstitutionTableNumberCodec;
+import com.metabroadcast.common.query.Selection;
+import com.metabroadcast.common.time.DateTimeZones;
+
+public class InMemoryContentSearcherTest {
+
+    private final DateTime now = new DateTime(DateTimeZones.UTC);
+    private final InMemoryContentSearcher searcher = new InMemoryContentSearcher(
+        SubstitutionTableNumberCodec.lowerCaseOnly(), ImmutableSet.of("priority")
+    );
+
+    @Test
+    public void testMatchesEveryWordByPrefix() {
+        searcher.index(ImmutableList.of(
+            brand("doctor", "Doctor Who", Publisher.BBC),
+            brand("doctors", "Doctors", Publisher.BBC),
+            brand("who", "Who Do You Think You Are?", Publisher.BBC)
+        ));
+
+        assertEquals(ImmutableList.of("doctor", "doctors"), uris(query("doc").withTitleWeighting(1)));
+        assertEquals(ImmutableList.of("doctor"), uris(query("doctor wh").withTitleWeighting(1)));
+        assertEquals(ImmutableList.of("doctor", "doctors"), uris(query("doctor").withTitleWeighting(1)));
+        assertEquals(ImmutableList.of("doctors"), uris(query("DOCTORS").withTitleWeighting(1)));
+        assertTrue(uris(query("doctor think")).isEmpty());
+        assertTrue(uris(query("  ")).isEmpty());
+    }
+
+    @Test
+    public void testFiltersByPublisherSpecializationAndType() {
+        Brand bbc = brand("bbc", "News", Publisher.BBC);
+        bbc.setSpecialization(Specialization.TV);
+        Brand c4 = brand("c4", "News", Publisher.C4);
+        c4.setSpecialization(Specialization.RADIO);
+        Episode episode = episode("episode", "News", now.plusDays(1), null);
+        searcher.index(ImmutableList.of(bbc, c4, episode));
+
+        assertEquals(ImmutableList.of("c4"), uris(query("news").withPublishers(ImmutableList.of(Publisher.C4))));
+        assertEquals(ImmutableList.of("bbc"), uris(query("news").withSpecializations(ImmutableList.of(Specialization.TV))));
+        assertEquals(ImmutableList.of("episode"), uris(query("news").withType("episode")));
+        assertEquals(ImmutableList.of("episode"), uris(query("news").withCurrentBroadcastsOnly(true)));
+        assertEquals(3, uris(query("news").isTopLevelOnly(true)).size());
+    }
+
+    @Test
+    public void testWeightsBroadcastsAndCatchup() {
+        Episode recent = episode("recent", "Match of the Day", now.minusDays(1), null);
+        Episode upcoming = episode("upcoming", "Match of the Day", now.plusDays(1), null);
+        Episode catchup = episode("catchup", "Match of the Day", now.minusWeeks(10), "http://example.com/catchup");
+        Episode priority = episode("priority", "Match of the Day", now.minusWeeks(4), null);
+        searcher.index(ImmutableList.of(recent, upcoming, catchup, priority));
+
+        assertEquals(
+            ImmutableList.of("upcoming", "recent", "priority", "catchup"),
+            uris(query("match of the day").withBroadcastWeighting(1))
+        );
+        assertEquals("catchup", uris(query("match of the day").withCatchupWeighting(1)).get(0));
+        assertEquals(
+            ImmutableList.of("priority", "upcoming", "recent", "catchup"),
+            uris(query("match").withBroadcastWeighting(1).withPriorityChannelWeighting(10))
+        );
+    }
+
+    @Test
+    public void testUpdatesIndexIncrementally() {
+        searcher.index(brand("brand", "Old Title", Publisher.BBC));
+        searcher.index(brand("brand", "New Title", Publisher.BBC));
+
+        assertTrue(uris(query("old")).isEmpty());
+        assertEquals(ImmutableList.of("brand"), uris(query("new title")));
+        assertTrue(searcher.document("brand").get().contains("New Title"));
+
+        searcher.remove("brand");
+
+        assertTrue(uris(query("title")).isEmpty());
+        assertFalse(searcher.document("brand").isPresent());
+        assertEquals(0, searcher.size());
+    }
+
+    @Test
+    public void testAppliesSelection() {
+        for (int i = 0; i < 10; i++) {
+            searcher.index(brand("brand" + i, "Title " + i, Publisher.BBC));
+        }
+
+        List<String> page = uris(query("title").withSelection(new Selection(2, 3)));
+
+        assertEquals(ImmutableList.of("brand2", "brand3", "brand4"), page);
+    }
+
+    private SearchQuery.Builder query(String term) {
+        return SearchQuery.builder(term);
+    }
+
+    private List<String> uris(SearchQuery.Builder query) {
+        return ImmutableList.copyOf(Lists.transform(
+            searcher.search(query.build()).contentIdentifiers(),
+            ContentIdentifier.TO_URI
+        ));
+    }
+
+    private Brand brand(String uri, String title, Publisher publisher) {
+        Brand brand = new Brand(uri, uri, publisher);
+        brand.setTitle(title);
+        return brand;
+    }
+
+    private Episode episode(String uri, String title, DateTime transmission, String location) {
+        Episode episode = new Episode(uri, uri, Publisher.BBC);
+        episode.setTitle(title);
+        Version version = new Version();
+        String channel = uri.equals("priority") ? "priority" : "channel";
+        version.addBroadcast(new Broadcast(channel, transmission, transmission.plusHours(1)));
+        if (location != null) {
+            Location available = new Location();
+            available.setUri(location);
+            Encoding encoding = new Encoding();
+            encoding.addAvailableAt(available);
+            version.addManifestedAs(encoding);
+        }
+        episode.addVersion(version);
+        return episode;
+    }
+}
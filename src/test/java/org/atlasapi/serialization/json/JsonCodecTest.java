@@ -0,0 +1,74 @@
+package org.atlasapi.serialization.json;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import org.atlasapi.media.entity.Alias;
+import org.atlasapi.media.entity.Brand;
+import org.atlasapi.media.entity.Content;
+import org.atlasapi.media.entity.Episode;
+import org.atlasapi.media.entity.Publisher;
+import org.atlasapi.media.entity.Version;
+import org.atlasapi.serialization.json.JsonCodec.Format;
+import org.joda.time.Duration;
+import org.junit.Test;
+
+import com.google.common.base.Charsets;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterables;
+
+public class JsonCodecTest {
+
+    @Test
+    public void testRoundTripsContentInEveryFormat() throws Exception {
+        for (Format format : Format.values()) {
+            JsonCodec<Content> codec = JsonCodec.create(Content.class, format);
+
+            Brand brand = new Brand("brand", "curie", Publisher.BBC);
+            brand.setId(1L);
+            brand.setTitle("Brand");
+            Brand readBrand = (Brand) codec.decode(codec.encode(brand));
+            assertEquals(format.name(), brand.getCanonicalUri(), readBrand.getCanonicalUri());
+            assertEquals(format.name(), brand.getTitle(), readBrand.getTitle());
+
+            Episode episode = episode();
+            Episode readEpisode = (Episode) codec.decode(codec.encode(episode));
+            assertEquals(format.name(), episode.getEpisodeNumber(), readEpisode.getEpisodeNumber());
+            assertEquals(format.name(), Integer.valueOf(1800),
+                    Iterables.getOnlyElement(readEpisode.getVersions()).getDuration());
+        }
+    }
+
+    @Test
+    public void testRoundTripsNonEmptyEntitySets() throws Exception {
+        for (Format format : Format.values()) {
+            JsonCodec<Content> codec = JsonCodec.create(Content.class, format);
+
+            Brand brand = new Brand("brand", "curie", Publisher.BBC);
+            brand.setTags(ImmutableSet.of("drama"));
+            brand.addAlias(new Alias("namespace", "value"));
+            brand.addAliasUrl("http://example.com/brand");
+            brand.addEquivalentTo(new Brand("equivalent", "equivalent", Publisher.PA));
+            Brand copy = (Brand) brand.copy();
+
+            byte[] encoded = codec.encode(copy);
+            Brand readBrand = (Brand) codec.decode(encoded);
+
+            assertFalse(format.name(), new String(encoded, Charsets.ISO_8859_1).contains("CopyOnWriteSet"));
+            assertEquals(format.name(), brand.getTags(), readBrand.getTags());
+            assertEquals(format.name(), brand.getAliases(), readBrand.getAliases());
+            assertEquals(format.name(), brand.getAliasUrls(), readBrand.getAliasUrls());
+            assertEquals(format.name(), brand.getEquivalentTo(), readBrand.getEquivalentTo());
+        }
+    }
+
+    private Episode episode() {
+        Episode episode = new Episode("episode", "curie", Publisher.BBC);
+        episode.setId(2L);
+        episode.setEpisodeNumber(5);
+        Version version = new Version();
+        version.setDuration(Duration.standardMinutes(30));
+        episode.addVersion(version);
+        return episode;
+    }
+}
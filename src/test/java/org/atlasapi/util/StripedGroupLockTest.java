@@ -0,0 +1,255 @@
+package org.atlasapi.util;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableSet;
+
+
+public class StripedGroupLockTest {
+
+    @Test
+    public void testCanLockDifferentThings() throws InterruptedException {
+
+        final StripedGroupLock<String> lock = StripedGroupLock.<String>natural();
+
+        lock.lock("A");
+
+        final CountDownLatch finish = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        executor.submit(new Callable<Void>(){
+            @Override
+            public Void call() throws Exception {
+                lock.lock("B");
+                finish.countDown();
+                return null;
+            }
+        });
+
+        assertTrue("Should be able to lock A and B", finish.await(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testCantAcquireLockForKeyHeldByAnotherThread() throws InterruptedException {
+
+        final StripedGroupLock<String> lock = StripedGroupLock.<String>natural();
+        final CountDownLatch latch = new CountDownLatch(1);
+
+        final String id = "A";
+        lock.lock(id);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        executor.submit(new Callable<Void>() {
+            @Override
+            public Void call() throws Exception {
+                lock.lock(id);
+                latch.countDown();
+                return null;
+            }
+        });
+
+        assertFalse(latch.await(100, TimeUnit.MILLISECONDS));
+        lock.unlock(id);
+        assertTrue(latch.await(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testLockIsReentrantForOwningThread() throws Exception {
+
+        final StripedGroupLock<String> lock = StripedGroupLock.<String>natural();
+
+        final String id = "A";
+        lock.lock(id);
+        lock.lock(ImmutableSet.of(id, "B"));
+        assertTrue(lock.tryLock(id));
+
+        Callable<Boolean> tryLockElsewhere = new Callable<Boolean>() {
+            @Override
+            public Boolean call() throws Exception {
+                return lock.tryLock(id);
+            }
+        };
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        lock.unlock(id);
+        lock.unlock(ImmutableSet.of(id, "B"));
+        assertTrue(lock.isHeldByCurrentThread(id));
+        assertFalse(executor.submit(tryLockElsewhere).get());
+
+        lock.unlock(id);
+        assertFalse(lock.isHeldByCurrentThread(id));
+        assertTrue(executor.submit(tryLockElsewhere).get());
+    }
+
+    @Test
+    public void testUnlockFromAnotherThreadIsRejected() throws Exception {
+
+        final StripedGroupLock<String> lock = StripedGroupLock.<String>natural();
+        final String id = "A";
+        lock.lock(id);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<Boolean> rejected = executor.submit(new Callable<Boolean>() {
+            @Override
+            public Boolean call() throws Exception {
+                try {
+                    lock.unlock(id);
+                    return false;
+                } catch (IllegalMonitorStateException e) {
+                    return !lock.tryLock(id);
+                }
+            }
+        });
+
+        assertTrue(rejected.get());
+        assertTrue(lock.isHeldByCurrentThread(id));
+    }
+
+    @Test
+    public void testUnlockOfValueNotLockedHasNoEffect() throws Exception {
+
+        final StripedGroupLock<String> lock = StripedGroupLock.<String>natural();
+
+        lock.unlock("A");
+        lock.unlock(ImmutableSet.of("A", "B"));
+        assertTrue(lock.tryLock("A"));
+    }
+
+    @Test
+    public void testTryLock() throws InterruptedException {
+
+        final StripedGroupLock<String> lock = StripedGroupLock.<String>natural();
+
+        String id = "A";
+        assertTrue(lock.tryLock(id));
+        lock.unlock(id);
+        assertTrue(lock.tryLock(id));
+    }
+
+    @Test
+    public void testCantLockGroupWhereOneElementIsLocked() throws InterruptedException {
+
+        final StripedGroupLock<String> lock = StripedGroupLock.<String>natural();
+        final CountDownLatch latch = new CountDownLatch(1);
+
+        final String id = "B";
+        lock.lock(id);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        executor.submit(new Callable<Void>() {
+
+            @Override
+            public Void call() throws Exception {
+                lock.lock(ImmutableSet.of("A","B","C"));
+                latch.countDown();
+                return null;
+            }
+        });
+
+        assertFalse(latch.await(100, TimeUnit.MILLISECONDS));
+        lock.unlock(id);
+        assertTrue(latch.await(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testLocksGroupElementsInOrder() throws InterruptedException {
+
+        final StripedGroupLock<String> lock = StripedGroupLock.<String>natural();
+        final CountDownLatch start = new CountDownLatch(1);
+        final CountDownLatch finish = new CountDownLatch(2);
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        executor.submit(new Callable<Void>() {
+            @Override
+            public Void call() throws Exception {
+                start.await();
+                lock.lock(ImmutableSet.of("A","B","C"));
+                lock.unlock(ImmutableSet.of("A","B","C"));
+                finish.countDown();
+                return null;
+            }
+        });
+        executor.submit(new Callable<Void>() {
+            @Override
+            public Void call() throws Exception {
+                start.await();
+                lock.lock(ImmutableSet.of("C","B","A"));
+                lock.unlock(ImmutableSet.of("C","B","A"));
+                finish.countDown();
+                return null;
+            }
+        });
+
+        start.countDown();
+        assertTrue(finish.await(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testTimedGroupLockReleasesAcquiredElementsOnTimeout() throws Exception {
+
+        final StripedGroupLock<String> lock = StripedGroupLock.<String>natural();
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        executor.submit(new Callable<Void>() {
+            @Override
+            public Void call() throws Exception {
+                lock.lock("B");
+                return null;
+            }
+        }).get();
+
+        assertFalse(lock.tryLock(ImmutableSet.of("A","B","C"), 50, TimeUnit.MILLISECONDS));
+        assertFalse(lock.isHeldByCurrentThread("A"));
+
+        Future<Boolean> lockedA = executor.submit(new Callable<Boolean>() {
+            @Override
+            public Boolean call() throws Exception {
+                boolean locked = lock.tryLock("A");
+                lock.unlock(ImmutableSet.of("A", "B"));
+                return locked;
+            }
+        });
+        assertTrue(lockedA.get());
+        assertTrue(lock.tryLock(ImmutableSet.of("A","B","C"), 1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testUnlocksAllGroupElementsIfTryLockFailsAGroup() throws Exception {
+
+        final StripedGroupLock<String> lock = StripedGroupLock.<String>natural();
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        executor.submit(new Callable<Void>() {
+            @Override
+            public Void call() throws Exception {
+                lock.lock("B");
+                return null;
+            }
+        }).get();
+
+        assertFalse(lock.tryLock(ImmutableSet.of("A","B","C")));
+        assertFalse(lock.isHeldByCurrentThread("A"));
+        assertFalse(lock.isHeldByCurrentThread("C"));
+
+        executor.submit(new Callable<Void>() {
+            @Override
+            public Void call() throws Exception {
+                lock.unlock("B");
+                return null;
+            }
+        }).get();
+        assertTrue(lock.tryLock(ImmutableSet.of("A","B","C")));
+        assertTrue(lock.isHeldByCurrentThread("B"));
+    }
+
+}